@@ -1,6 +0,0 @@
-package com.ai.organizer.processor; 
-
-public record CoverGeneratedEvent(
-    String fileHash,
-    String coverPath 
-) {}
\ No newline at end of file
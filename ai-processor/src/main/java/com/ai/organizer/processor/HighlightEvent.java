@@ -1,9 +0,0 @@
-package com.ai.organizer.processor;
-
-public record HighlightEvent(
-    Long highlightId,
-    String fileHash,
-    String userId,
-    String content,
-    String type
-) {}
\ No newline at end of file
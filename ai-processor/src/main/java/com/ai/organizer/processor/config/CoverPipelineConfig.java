@@ -0,0 +1,40 @@
+package com.ai.organizer.processor.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.Map;
+
+/**
+ * Pool dedicado para renderização de capas. Cada worker é uma thread de consumo
+ * própria, então a concorrência de PDFBox fica limitada a {@code ai.covers.workers}
+ * e não disputa threads com análise, highlights ou resumos.
+ */
+@Configuration
+public class CoverPipelineConfig {
+
+    @Value("${ai.covers.workers:2}")
+    private int workers;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> coverListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            KafkaProperties kafkaProperties) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        // Um PDF por poll: renderizar é lento e não queremos estourar max.poll.interval.ms
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 600_000);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, new DefaultKafkaConsumerFactory<>(props));
+        factory.setConcurrency(workers);
+        return factory;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ai.organizer.processor.config;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Isola cada dependência externa (OpenAI chat, embeddings, cada índice Pinecone, GCS) num pool próprio
+ * de threads com fila limitada e timeout. Um índice lento esgota só o seu bulkhead: as chamadas excedentes
+ * falham rápido (e vão para o retry) em vez de prender as threads de quem usa outras dependências.
+ *
+ * Pools, filas e timeouts ficam em resilience4j.thread-pool-bulkhead / resilience4j.timelimiter
+ * (application.yml); as métricas de fila e pool saem pelo resilience4j-micrometer.
+ *
+ * No timeout quem chamou recebe uma RuntimeException na hora e a thread do bulkhead é interrompida.
+ * Esperas interrompíveis (backoff dos clientes, java.net.http, canais NIO) terminam ali; leitura
+ * bloqueante de socket não atende interrupção, e nesse caso a vaga do pool só volta no timeout do
+ * próprio cliente (ex: o .timeout do OpenAI em AiConfig), que deve ficar perto do timelimiter.
+ *
+ * Transferências de arquivo inteiro (downloadToTempFile, fetch, upload por canal/stream) levam tempo
+ * proporcional ao tamanho: ficam só no bulkhead, sem timelimiter, para um PDF escaneado grande não ser
+ * cortado no meio em toda tentativa. O cliente do storage continua com os timeouts dele por requisição.
+ */
+@Component
+@Slf4j
+public class DependencyBulkheadPostProcessor implements BeanPostProcessor {
+
+    // Bean → bulkhead. Postgres já é limitado pelo pool do Hikari.
+    private static final Map<String, String> BULKHEAD_BY_BEAN = Map.of(
+            "bookAssistant", "openai-chat",
+            "embeddingModel", "openai-embeddings",
+            "userEmbeddingStore", "pinecone-logos",
+            "publicEmbeddingStore", "pinecone-universes",
+            "guestEmbeddingStore", "pinecone-guest",
+            "googleStorageService", "gcs");
+
+    private static final Set<String> STREAMING_METHODS = Set.of("downloadToTempFile", "fetch");
+
+    private final ObjectProvider<ThreadPoolBulkheadRegistry> bulkheadRegistry;
+    private final ObjectProvider<TimeLimiterRegistry> timeLimiterRegistry;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DependencyBulkheadPostProcessor(ObjectProvider<ThreadPoolBulkheadRegistry> bulkheadRegistry,
+                                           ObjectProvider<TimeLimiterRegistry> timeLimiterRegistry,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String bulkheadName = BULKHEAD_BY_BEAN.get(beanName);
+        if (bulkheadName == null) {
+            return bean;
+        }
+
+        Class<?>[] interfaces = ClassUtils.getAllInterfaces(bean);
+        log.info("🧱 Bulkhead '{}' aplicado ao bean {}", bulkheadName, beanName);
+        return Proxy.newProxyInstance(DependencyBulkheadPostProcessor.class.getClassLoader(), interfaces,
+                new BulkheadHandler(bean, bulkheadName));
+    }
+
+    private final class BulkheadHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String name;
+
+        // Resolvidos na primeira chamada para não inicializar os registries junto com o BPP
+        private volatile ThreadPoolBulkhead bulkhead;
+        private volatile TimeLimiter timeLimiter;
+
+        BulkheadHandler(Object target, String name) {
+            this.target = target;
+            this.name = name;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+            init();
+            Call call = new Call();
+            CompletableFuture<Object> future = bulkhead.executeSupplier(() -> {
+                call.start();
+                try {
+                    return invokeTarget(method, args);
+                } catch (Throwable t) {
+                    throw t instanceof RuntimeException re ? re : new CompletionException(t);
+                } finally {
+                    call.finish();
+                }
+            }).toCompletableFuture();
+
+            try {
+                return streaming(method) ? future.get() : timeLimiter.executeFutureSupplier(() -> future);
+            } catch (TimeoutException e) {
+                // cancel() do CompletableFuture não chega à thread: a interrupção é por conta daqui
+                call.interrupt();
+                throw new RuntimeException("Timeout na dependência '" + name + "'", e);
+            } catch (InterruptedException e) {
+                call.interrupt();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Chamada interrompida na dependência '" + name + "'", e);
+            } catch (ExecutionException | CompletionException e) {
+                throw e.getCause() != null ? e.getCause() : e;
+            }
+        }
+
+        private static boolean streaming(Method method) {
+            if (STREAMING_METHODS.contains(method.getName())) return true;
+            for (Class<?> type : method.getParameterTypes()) {
+                if (ReadableByteChannel.class.isAssignableFrom(type) || InputStream.class.isAssignableFrom(type)) return true;
+            }
+            return false;
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        // Thread do bulkhead que está executando a chamada; interromper só vale enquanto ela está aqui
+        private static final class Call {
+            private Thread thread;
+            private boolean interrupted;
+
+            synchronized void start() {
+                if (interrupted) throw new CancellationException("Chamada já expirou na fila do bulkhead");
+                thread = Thread.currentThread();
+            }
+
+            void finish() {
+                synchronized (this) {
+                    thread = null;
+                }
+                // Uma interrupção atrasada não pode vazar para a próxima tarefa do pool
+                Thread.interrupted();
+            }
+
+            synchronized void interrupt() {
+                interrupted = true;
+                if (thread != null) thread.interrupt();
+            }
+        }
+
+        private void init() {
+            if (bulkhead != null) return;
+            synchronized (this) {
+                if (bulkhead != null) return;
+                ThreadPoolBulkhead created = bulkheadRegistry.getObject().bulkhead(name);
+                Counter rejected = Counter.builder("ai.bulkhead.rejected")
+                        .tag("name", name)
+                        .register(meterRegistry.getObject());
+                created.getEventPublisher().onCallRejected(event -> {
+                    rejected.increment();
+                    log.warn("🚧 Bulkhead '{}' cheio: chamada rejeitada.", name);
+                });
+                timeLimiter = timeLimiterRegistry.getObject().timeLimiter(name);
+                bulkhead = created;
+            }
+        }
+    }
+}
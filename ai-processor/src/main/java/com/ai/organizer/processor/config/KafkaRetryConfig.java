@@ -0,0 +1,64 @@
+package com.ai.organizer.processor.config;
+
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.kafka.RetryPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+import java.util.List;
+
+/**
+ * Retry não bloqueante para todos os listeners: a falha vai para "{tópico}-retry-5000",
+ * "-retry-60000", "-retry-600000" e por fim "{tópico}-dlt", sem travar a partição original.
+ * Erros de deserialização/conversão vão direto para o DLT (padrão do Spring Kafka).
+ */
+@Configuration
+public class KafkaRetryConfig {
+
+    private static final List<String> DISPATCH_TOPICS = List.of(
+            EventTopics.DOCUMENT_INGESTION, EventTopics.HIGHLIGHT_CREATED, EventTopics.RADAR_UPDATE_REQUESTED);
+
+    @Value("${ai.kafka.retry-topic-partitions:1}")
+    private int partitions;
+
+    @Value("${ai.kafka.retry-topic-replication:-1}")
+    private short replication;
+
+    // Resumo que esgotou as tentativas precisa virar FAILED no library-service
+    @Bean
+    public RetryTopicConfiguration summaryRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return base()
+                .includeTopic(EventTopics.SUMMARY_REQUESTED)
+                .dltHandlerMethod("summaryProcessorService", "handleDeadLetter")
+                .create(kafkaTemplate);
+    }
+
+    // Listeners do dispatcher usam ack manual, então o DLT precisa de um handler que confirme o offset
+    @Bean
+    public RetryTopicConfiguration dispatchRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return base()
+                .includeTopics(DISPATCH_TOPICS)
+                .dltHandlerMethod("deadLetterLogger", "handle")
+                .create(kafkaTemplate);
+    }
+
+    @Bean
+    public RetryTopicConfiguration defaultRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return base()
+                .excludeTopic(EventTopics.SUMMARY_REQUESTED)
+                .excludeTopics(DISPATCH_TOPICS)
+                .create(kafkaTemplate);
+    }
+
+    private RetryTopicConfigurationBuilder base() {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .exponentialBackoff(RetryPolicy.INITIAL_DELAY_MS, RetryPolicy.MULTIPLIER, RetryPolicy.MAX_DELAY_MS)
+                .maxAttempts(RetryPolicy.MAX_ATTEMPTS)
+                .dltSuffix(RetryPolicy.DLT_SUFFIX)
+                .autoCreateTopicsWith(partitions, replication);
+    }
+}
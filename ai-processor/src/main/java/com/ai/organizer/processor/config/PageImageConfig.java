@@ -0,0 +1,30 @@
+package com.ai.organizer.processor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PageImageConfig {
+
+    @Value("${ai.pages.prefetch-workers:2}")
+    private int workers;
+
+    /**
+     * Pool limitado para renderizar páginas à frente da posição de leitura.
+     * Com a fila cheia o prefetch é descartado; o pedido do leitor nunca espera por ele.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pagePrefetchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(32);
+        executor.setThreadNamePrefix("page-prefetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ai.organizer.processor.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Visão somente-leitura da estante (tabela mantida pelo library-service).
+ */
+@Entity
+@Immutable
+@Table(name = "DOCUMENTS")
+@Data
+public class DocumentEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "file_hash")
+    private String fileHash;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "storage_path")
+    private String storagePath;
+}
@@ -0,0 +1,25 @@
+package com.ai.organizer.processor.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Visão somente-leitura da posse dos livros (tabela mantida pelo library-service): o mesmo conteúdo
+ * pode estar na estante de vários usuários.
+ */
+@Entity
+@Immutable
+@Table(name = "DOCUMENT_OWNERS")
+@Data
+public class DocumentOwnerEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "file_hash")
+    private String fileHash;
+
+    @Column(name = "user_id")
+    private String userId;
+}
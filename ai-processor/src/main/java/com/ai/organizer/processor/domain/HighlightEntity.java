@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 @Data
 public class HighlightEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Mesma sequência do library-service (que a cria e ajusta); aqui sem bloco: um nextval por linha
+    // continua único qualquer que seja o incremento da sequência
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_highlights_id_seq")
+    @SequenceGenerator(name = "user_highlights_id_seq", sequenceName = "user_highlights_id_seq", allocationSize = 1)
     private Long id;
 
     @Column(name = "FILE_HASH")
@@ -0,0 +1,27 @@
+package com.ai.organizer.processor.domain.enums;
+
+/**
+ * Tamanhos de capa gerados por documento. A largura é em pixels e a página é
+ * renderizada diretamente nela (sem redimensionar uma imagem maior depois).
+ */
+public enum CoverSize {
+    THUMBNAIL("thumb", 200),
+    CARD("card", 400),
+    DETAIL("detail", 900);
+
+    private final String suffix;
+    private final int width;
+
+    CoverSize(String suffix, int width) {
+        this.suffix = suffix;
+        this.width = width;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public int width() {
+        return width;
+    }
+}
@@ -1,6 +0,0 @@
-package com.ai.organizer.processor.event;
-
-public record RadarUpdateCompletedEvent(
-    String userId,
-    String radarJson
-) {}
\ No newline at end of file
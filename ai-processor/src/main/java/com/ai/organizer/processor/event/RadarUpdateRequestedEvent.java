@@ -1,8 +0,0 @@
-package com.ai.organizer.processor.event;
-
-import java.util.List;
-
-public record RadarUpdateRequestedEvent(
-    String userId,
-    List<String> snippets
-) {}
\ No newline at end of file
@@ -1,7 +0,0 @@
-package com.ai.organizer.processor.event;
-
-public record StarLinkedEvent(
-    String galaxyId,
-    String starId,
-    Double score
-) {}
\ No newline at end of file
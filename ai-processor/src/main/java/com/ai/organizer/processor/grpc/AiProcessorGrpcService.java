@@ -0,0 +1,154 @@
+package com.ai.organizer.processor.grpc;
+
+import com.ai.organizer.processor.web.AiGalaxyController;
+import com.ai.organizer.processor.web.WorkbenchAiController;
+import com.ai.organizer.processor.web.dto.ContextSearchRequest;
+import com.ai.organizer.processor.web.dto.GravityResponse;
+import com.ai.organizer.rpc.ai.v1.AiProcessorGrpc;
+import com.ai.organizer.rpc.ai.v1.GravityBatchRequest;
+import com.ai.organizer.rpc.ai.v1.GravityBatchResult;
+import com.ai.organizer.rpc.ai.v1.GravityRequest;
+import com.ai.organizer.rpc.ai.v1.RegisterGalaxyRequest;
+import com.ai.organizer.rpc.ai.v1.RegisterGalaxyResponse;
+import com.ai.organizer.rpc.ai.v1.StarMatch;
+import com.ai.organizer.rpc.ai.v1.SuggestLinksRequest;
+import com.ai.organizer.rpc.ai.v1.SuggestLinksResponse;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lado servidor do AiProcessor (logos-rpc). A lógica continua nos controllers REST, que seguem servindo
+ * o front; aqui só entra a tradução proto ↔ DTO e o prazo: um pedido cujo prazo (propagado pelo cliente
+ * no grpc-timeout) já venceu ou foi cancelado não chega a chamar OpenAI/Pinecone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiProcessorGrpcService extends AiProcessorGrpc.AiProcessorImplBase {
+
+    private final AiGalaxyController galaxyController;
+    private final WorkbenchAiController workbenchController;
+    private final EmbeddingModel embeddingModel;
+
+    @Override
+    public void gravity(GravityRequest request, StreamObserver<com.ai.organizer.rpc.ai.v1.GravityResponse> responseObserver) {
+        if (expired(responseObserver)) return;
+        try {
+            GravityResponse response = galaxyController.calculateGravity(request.getTerm(), request.getUserId());
+            responseObserver.onNext(toProto(response));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(Status.INTERNAL.withDescription("Erro na IA").withCause(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void suggestLinks(SuggestLinksRequest request, StreamObserver<SuggestLinksResponse> responseObserver) {
+        if (expired(responseObserver)) return;
+        List<GravityResponse.StarMatch> matches = workbenchController.suggestLinks(
+                new ContextSearchRequest(request.getText(), request.getFileHash(), request.getUserId(), request.getTopK()),
+                null, null, null, null, "en");
+        responseObserver.onNext(SuggestLinksResponse.newBuilder()
+                .addAllMatches(matches.stream().map(AiProcessorGrpcService::toProto).toList())
+                .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void registerGalaxy(RegisterGalaxyRequest request, StreamObserver<RegisterGalaxyResponse> responseObserver) {
+        if (expired(responseObserver)) return;
+        try {
+            galaxyController.registerGalaxy(new AiGalaxyController.RegisterGalaxyRequest(
+                    request.getGalaxyId(), request.getName(), request.getUserId()));
+            responseObserver.onNext(RegisterGalaxyResponse.getDefaultInstance());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            responseObserver.onError(Status.INTERNAL.withDescription("Falha ao indexar galáxia").withCause(e).asRuntimeException());
+        }
+    }
+
+    /**
+     * Um único pedido de embeddings para todos os termos; as buscas no Pinecone rodam em paralelo
+     * (limitadas pelo bulkhead do índice) e cada resultado é enviado assim que termina.
+     */
+    @Override
+    public void gravityBatch(GravityBatchRequest request, StreamObserver<GravityBatchResult> responseObserver) {
+        if (expired(responseObserver)) return;
+        List<String> terms = request.getTermsList();
+        if (terms.isEmpty()) {
+            responseObserver.onCompleted();
+            return;
+        }
+        log.info("🪐 [GRPC] Gravidade em lote: {} termos (User: {})", terms.size(), request.getUserId());
+
+        try {
+            List<Embedding> embeddings = embeddingModel.embedAll(terms.stream().map(TextSegment::from).toList()).content();
+            ServerCallStreamObserver<GravityBatchResult> stream = (ServerCallStreamObserver<GravityBatchResult>) responseObserver;
+            try (ExecutorService searches = Executors.newVirtualThreadPerTaskExecutor()) {
+                CompletableFuture<?>[] pending = new CompletableFuture<?>[terms.size()];
+                for (int i = 0; i < terms.size(); i++) {
+                    int index = i;
+                    // Contexto do gRPC propagado: se o cliente cancela ou o prazo vence, as buscas restantes não saem
+                    pending[i] = CompletableFuture.runAsync(Context.current().wrap(() -> {
+                        if (stream.isCancelled() || Context.current().isCancelled()) return;
+                        var matches = galaxyController.gravityMatches(request.getUserId(), embeddings.get(index));
+                        GravityBatchResult result = GravityBatchResult.newBuilder()
+                                .setIndex(index)
+                                .setGravity(toProto(new GravityResponse(terms.get(index), matches)))
+                                .build();
+                        // StreamObserver não é thread-safe
+                        synchronized (stream) {
+                            if (!stream.isCancelled()) stream.onNext(result);
+                        }
+                    }), searches);
+                }
+                CompletableFuture.allOf(pending).join();
+            }
+            if (!stream.isCancelled()) responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.error("❌ Erro na gravidade em lote", e);
+            responseObserver.onError(Status.INTERNAL.withDescription("Erro na IA").withCause(e).asRuntimeException());
+        }
+    }
+
+    private static boolean expired(StreamObserver<?> responseObserver) {
+        Context context = Context.current();
+        if (context.getDeadline() != null && context.getDeadline().isExpired()) {
+            responseObserver.onError(Status.DEADLINE_EXCEEDED.withDescription("Prazo vencido antes do processamento").asRuntimeException());
+            return true;
+        }
+        if (context.isCancelled()) {
+            responseObserver.onError(Status.CANCELLED.asRuntimeException());
+            return true;
+        }
+        return false;
+    }
+
+    private static com.ai.organizer.rpc.ai.v1.GravityResponse toProto(GravityResponse response) {
+        return com.ai.organizer.rpc.ai.v1.GravityResponse.newBuilder()
+                .setTerm(response.term() != null ? response.term() : "")
+                .addAllMatches(response.matches().stream().map(AiProcessorGrpcService::toProto).toList())
+                .build();
+    }
+
+    private static StarMatch toProto(GravityResponse.StarMatch match) {
+        StarMatch.Builder builder = StarMatch.newBuilder();
+        if (match.highlightId() != null) builder.setHighlightId(match.highlightId());
+        if (match.score() != null) builder.setScore(match.score());
+        if (match.text() != null) builder.setText(match.text());
+        return builder.build();
+    }
+}
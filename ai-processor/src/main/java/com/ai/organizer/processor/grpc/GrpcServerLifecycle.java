@@ -0,0 +1,92 @@
+package com.ai.organizer.processor.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor gRPC interno (ai.grpc.port), ao lado do HTTP. Sobe junto com o contexto e, no desligamento,
+ * para de aceitar chamadas e espera as em andamento por até 10 s.
+ *
+ * Os handlers bloqueiam em OpenAI/Pinecone, então cada chamada roda numa virtual thread.
+ *
+ * Sem ai.grpc.token a aplicação não sobe: qualquer chamada passaria com o userId que quisesse. Para dev
+ * local sem token, ai.grpc.allow-unauthenticated=true libera explicitamente.
+ */
+@Component
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final AiProcessorGrpcService service;
+    private final int port;
+    private final String token;
+    private final boolean allowUnauthenticated;
+
+    private ExecutorService executor;
+    private Server server;
+
+    public GrpcServerLifecycle(AiProcessorGrpcService service,
+                               @Value("${ai.grpc.port:9090}") int port,
+                               @Value("${ai.grpc.token:}") String token,
+                               @Value("${ai.grpc.allow-unauthenticated:false}") boolean allowUnauthenticated) {
+        this.service = service;
+        this.port = port;
+        this.token = token;
+        this.allowUnauthenticated = allowUnauthenticated;
+    }
+
+    @Override
+    public void start() {
+        if (token.isBlank() && !allowUnauthenticated) {
+            throw new IllegalStateException("AI_GRPC_TOKEN não configurado: o gRPC interno não sobe sem autenticação "
+                    + "(em dev local, AI_GRPC_ALLOW_UNAUTHENTICATED=true)");
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(service, new InternalTokenInterceptor(token)))
+                // O cliente manda keepalive a cada 30 s; abaixo disso o servidor derrubaria a conexão
+                .permitKeepAliveTime(20, TimeUnit.SECONDS)
+                .permitKeepAliveWithoutCalls(true)
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao subir o gRPC na porta " + port, e);
+        }
+        if (token.isBlank()) {
+            log.warn("⚠️ gRPC interno ouvindo na porta {} SEM token (ai.grpc.allow-unauthenticated)", port);
+        } else {
+            log.info("📡 gRPC interno ouvindo na porta {}", port);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (server == null) return;
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(10, TimeUnit.SECONDS)) server.shutdownNow();
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null && !server.isShutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ai.organizer.processor.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Só serviços internos chamam o gRPC: o library-service manda o segredo compartilhado em
+ * x-internal-token (AI_GRPC_TOKEN). Sem token configurado tudo passa, o que o GrpcServerLifecycle só
+ * permite com ai.grpc.allow-unauthenticated (dev local).
+ */
+class InternalTokenInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> TOKEN = Metadata.Key.of("x-internal-token", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final byte[] expected;
+
+    InternalTokenInterceptor(String token) {
+        this.expected = token == null || token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        if (expected != null) {
+            String received = headers.get(TOKEN);
+            if (received == null || !MessageDigest.isEqual(expected, received.getBytes(StandardCharsets.UTF_8))) {
+                call.close(Status.UNAUTHENTICATED.withDescription("Token interno inválido"), new Metadata());
+                return new ServerCall.Listener<>() {};
+            }
+        }
+        return next.startCall(call, headers);
+    }
+}
@@ -0,0 +1,333 @@
+package com.ai.organizer.processor.infrastructure;
+
+import com.ai.organizer.processor.service.BlobStorageService;
+import com.ai.organizer.processor.service.LocalBlob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cache local em disco, na frente do armazenamento de blobs, para os arquivos enviados pelos usuários.
+ *
+ * Os uploads ficam em uploads/{sha256}/{nome}: o hash identifica o conteúdo, então a entrada é pelo
+ * fileHash e nunca fica velha. O mesmo PDF (análise, capas, cada faixa de páginas, o mesmo livro com
+ * outro nome) sai do GCS uma vez só. O download vai para um .tmp no diretório do cache, tem o SHA-256
+ * conferido e é promovido com move atômico; leituras de faixa usam memory-map.
+ *
+ * LRU por tamanho total como o {@link PageTileCache}. Os demais caminhos (pages/, covers/) passam direto.
+ * Cada leitura reserva a entrada (contador em pins) até terminar, e o fetch até o LocalBlob fechar:
+ * a limpeza pula entradas reservadas, então o arquivo não some entre a busca e a abertura.
+ */
+@Service
+@Primary
+@Slf4j
+@ConditionalOnProperty(name = "ai.blob-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingBlobStorageService implements BlobStorageService {
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^uploads/([0-9a-f]{64})/.+");
+    private static final int COPY_BUFFER = 1024 * 1024;
+
+    private final BlobStorageService backend;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${ai.blob-cache.dir:${java.io.tmpdir}/logos-blobs}")
+    private Path root;
+
+    @Value("${ai.blob-cache.max-mb:2048}")
+    private long maxMegabytes;
+
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Integer> pins = new HashMap<>();
+    private long totalBytes;
+
+    // Um download por hash: quem chega durante a cópia espera a mesma
+    private final ConcurrentMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public CachingBlobStorageService(@Qualifier("blobBackend") BlobStorageService backend, MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.hits = Counter.builder("ai.blob.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.blob.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void loadIndex() throws IOException {
+        Files.createDirectories(root);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(this::lastModified))
+                    .forEach(p -> {
+                        String name = p.getFileName().toString();
+                        // Cópias interrompidas por um restart
+                        if (name.endsWith(".tmp")) {
+                            deleteQuietly(p);
+                            return;
+                        }
+                        long size = p.toFile().length();
+                        entries.put(name, size);
+                        totalBytes += size;
+                    });
+        }
+
+        log.info("🗄️ Cache de arquivos: {} arquivos ({} MB) em {}", entries.size(), totalBytes / (1024 * 1024), root);
+        evictIfNeeded();
+    }
+
+    @Override
+    public void upload(String filename, byte[] content, String contentType) {
+        backend.upload(filename, content, contentType);
+    }
+
+    @Override
+    public void upload(String filename, ReadableByteChannel content, String contentType) {
+        backend.upload(filename, content, contentType);
+    }
+
+    @Override
+    public byte[] download(String filename) {
+        String hash = contentHash(filename);
+        if (hash == null) {
+            return backend.download(filename);
+        }
+        Path file = acquire(hash, filename);
+        try {
+            return MappedFiles.read(file, 0, -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler do cache: " + filename, e);
+        } finally {
+            release(hash);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openReader(String filename, long offset, long length) {
+        String hash = contentHash(filename);
+        if (hash == null) {
+            return backend.openReader(filename, offset, length);
+        }
+        // O mapeamento fica válido mesmo que a entrada seja removida depois
+        Path file = acquire(hash, filename);
+        try {
+            return MappedFiles.open(file, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler do cache: " + filename, e);
+        } finally {
+            release(hash);
+        }
+    }
+
+    @Override
+    public Path downloadToTempFile(String filename) {
+        String hash = contentHash(filename);
+        if (hash == null) {
+            return backend.downloadToTempFile(filename);
+        }
+        Path source = acquire(hash, filename);
+        try {
+            Path file = Files.createTempFile("blob-", ".tmp");
+            Files.copy(source, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao copiar do cache: " + filename, e);
+        } finally {
+            release(hash);
+        }
+    }
+
+    // O arquivo do cache é entregue direto, sem cópia; close() solta a reserva e não o apaga
+    @Override
+    public LocalBlob fetch(String filename) {
+        String hash = contentHash(filename);
+        if (hash == null) {
+            return backend.fetch(filename);
+        }
+        Path file = acquire(hash, filename);
+        // close() repetido não pode soltar a reserva de outro leitor
+        AtomicBoolean released = new AtomicBoolean();
+        return new LocalBlob(file, false, () -> {
+            if (released.compareAndSet(false, true)) release(hash);
+        });
+    }
+
+    @Override
+    public URL getSignedUrl(String filename, int minutesToExpire) {
+        return backend.getSignedUrl(filename, minutesToExpire);
+    }
+
+    // Arquivo do cache já reservado; quem chama devolve com release(hash)
+    private Path acquire(String hash, String filename) {
+        Path file = lookup(hash);
+        if (file != null) {
+            hits.increment();
+            return file;
+        }
+        // Outra cópia concorrente pode limpar a entrada recém-baixada antes da reserva: baixa de novo
+        while ((file = pinIfPresent(hash)) == null) {
+            fill(hash, filename);
+        }
+        return file;
+    }
+
+    private void fill(String hash, String filename) {
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(hash, mine);
+        if (running != null) {
+            try {
+                running.join();
+                return;
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            misses.increment();
+            mine.complete(download(hash, filename));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+    }
+
+    // Com a reserva: a entrada não é removida enquanto quem leu não chamar release
+    private synchronized Path lookup(String hash) {
+        if (entries.get(hash) == null) {
+            return null;
+        }
+
+        Path file = pathOf(hash);
+        if (!Files.exists(file)) {
+            totalBytes -= entries.remove(hash);
+            return null;
+        }
+        pins.merge(hash, 1, Integer::sum);
+        return file;
+    }
+
+    // Mesmo que lookup, sem contar hit (o arquivo acabou de ser baixado)
+    private synchronized Path pinIfPresent(String hash) {
+        if (!entries.containsKey(hash)) {
+            return null;
+        }
+        pins.merge(hash, 1, Integer::sum);
+        return pathOf(hash);
+    }
+
+    private synchronized void release(String hash) {
+        pins.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+        evictIfNeeded();
+    }
+
+    private Path download(String hash, String filename) {
+        Path file = pathOf(hash);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), hash, ".tmp");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            try (ReadableByteChannel in = backend.openReader(filename, 0, -1);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER);
+                while (in.read(buffer) >= 0) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            if (!hash.equals(HexFormat.of().formatHex(digest.digest()))) {
+                throw new IllegalStateException("Conteúdo baixado não confere com o hash: " + filename);
+            }
+            // Leitores nunca veem arquivo parcial
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("📥 {} no cache local ({} KB)", hash, size / 1024);
+
+            synchronized (this) {
+                Long previous = entries.put(hash, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evictIfNeeded();
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no cache: " + filename, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (tmp != null) deleteQuietly(tmp);
+        }
+    }
+
+    // A entrada mais recente e as reservadas ficam mesmo acima do limite; saem quando forem soltas
+    private synchronized void evictIfNeeded() {
+        long maxBytes = maxMegabytes * 1024 * 1024;
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (pins.containsKey(eldest.getKey()) || !it.hasNext()) continue;
+            deleteQuietly(pathOf(eldest.getKey()));
+            totalBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String contentHash(String filename) {
+        Matcher matcher = CONTENT_ADDRESSED.matcher(filename);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).lastModifiedTime();
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠️ Não foi possível remover {} do cache de arquivos", file);
+        }
+    }
+}
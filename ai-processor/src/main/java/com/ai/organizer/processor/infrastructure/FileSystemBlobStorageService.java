@@ -0,0 +1,143 @@
+package com.ai.organizer.processor.infrastructure;
+
+import com.ai.organizer.processor.service.BlobStorageService;
+import com.ai.organizer.processor.service.LocalBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+
+/**
+ * Armazenamento em diretório local (ai.storage.backend=filesystem), para rodar sem GCS: desenvolvimento
+ * e testes. Mesmos caminhos do bucket; a "URL assinada" é só o file:// do arquivo.
+ */
+@Service
+@Qualifier("blobBackend")
+@Slf4j
+@ConditionalOnProperty(name = "ai.storage.backend", havingValue = "filesystem")
+public class FileSystemBlobStorageService implements BlobStorageService {
+
+    private final Path root;
+
+    public FileSystemBlobStorageService(@Value("${ai.storage.local-dir:${java.io.tmpdir}/logos-storage}") Path root) throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+        log.info("📁 Armazenamento local em {}", this.root);
+    }
+
+    @Override
+    public void upload(String filename, byte[] content, String contentType) {
+        write(filename, tmp -> Files.write(tmp, content));
+    }
+
+    @Override
+    public void upload(String filename, ReadableByteChannel content, String contentType) {
+        write(filename, tmp -> {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                while (content.read(buffer) >= 0) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+        });
+    }
+
+    @Override
+    public byte[] download(String filename) {
+        try {
+            return MappedFiles.read(existing(filename), 0, -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + filename, e);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openReader(String filename, long offset, long length) {
+        try {
+            return MappedFiles.open(existing(filename), offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + filename, e);
+        }
+    }
+
+    @Override
+    public Path downloadToTempFile(String filename) {
+        try {
+            Path file = Files.createTempFile("blob-", ".tmp");
+            Files.copy(existing(filename), file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao copiar " + filename, e);
+        }
+    }
+
+    // O arquivo já está em disco: entregue direto, sem cópia
+    @Override
+    public LocalBlob fetch(String filename) {
+        return new LocalBlob(existing(filename), false);
+    }
+
+    @Override
+    public URL getSignedUrl(String filename, int minutesToExpire) {
+        try {
+            return resolve(filename).toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface Writer {
+        void write(Path tmp) throws IOException;
+    }
+
+    // Grava num temporário ao lado e promove com move atômico: leitores nunca veem arquivo parcial
+    private void write(String filename, Writer writer) {
+        Path file = resolve(filename);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), "upload", ".tmp");
+            writer.write(tmp);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar " + filename, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // temporário órfão não impede o upload
+                }
+            }
+        }
+    }
+
+    private Path existing(String filename) {
+        Path file = resolve(filename);
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Arquivo não encontrado no armazenamento local: " + filename);
+        }
+        return file;
+    }
+
+    private Path resolve(String filename) {
+        Path file = root.resolve(filename).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Caminho fora do armazenamento: " + filename);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ai.organizer.processor.infrastructure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitura de faixas de arquivos locais por memory-map: as páginas vêm do page cache do sistema,
+ * sem cópia para buffers da JVM. Uma faixa mapeada vai até 2 GiB.
+ */
+final class MappedFiles {
+
+    private MappedFiles() {
+    }
+
+    // Faixa [offset, offset + length) limitada ao tamanho do arquivo; length negativo vai até o fim
+    static ReadableByteChannel open(Path file, long offset, long length) throws IOException {
+        return new BufferChannel(map(file, offset, length));
+    }
+
+    static byte[] read(Path file, long offset, long length) throws IOException {
+        MappedByteBuffer buffer = map(file, offset, length);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static MappedByteBuffer map(Path file, long offset, long length) throws IOException {
+        // O mapeamento continua válido depois que o canal fecha
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = Math.min(Math.max(offset, 0), size);
+            long end = length < 0 ? size : Math.min(size, start + length);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Faixa maior que 2 GiB em " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+    }
+
+    private static final class BufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer buffer;
+        private volatile boolean open = true;
+
+        BufferChannel(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!open) throw new ClosedChannelException();
+            if (!buffer.hasRemaining()) return -1;
+
+            int n = Math.min(dst.remaining(), buffer.remaining());
+            dst.put(buffer.slice(buffer.position(), n));
+            buffer.position(buffer.position() + n);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
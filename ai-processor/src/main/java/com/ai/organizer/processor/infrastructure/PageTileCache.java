@@ -0,0 +1,139 @@
+package com.ai.organizer.processor.infrastructure;
+
+import com.ai.organizer.processor.service.LocalBlob;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Cache LRU em disco para páginas pré-renderizadas, limitado por tamanho total.
+ * A ordem de acesso vive em memória; no boot ela é reconstruída pela data dos arquivos.
+ * Quem vai ler o arquivo reserva a entrada (acquire/put devolvem LocalBlob) e a limpeza pula
+ * entradas reservadas, então uma página não some no meio da resposta.
+ */
+@Component
+@Slf4j
+public class PageTileCache {
+
+    @Value("${ai.pages.cache-dir:${java.io.tmpdir}/logos-pages}")
+    private Path root;
+
+    @Value("${ai.pages.cache-max-mb:512}")
+    private long maxMegabytes;
+
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Integer> pins = new HashMap<>();
+    private long totalBytes;
+
+    @PostConstruct
+    void loadIndex() throws IOException {
+        Files.createDirectories(root);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparing(this::lastModified))
+                    .forEach(p -> {
+                        long size = p.toFile().length();
+                        entries.put(root.relativize(p).toString(), size);
+                        totalBytes += size;
+                    });
+        }
+
+        log.info("🗄️ Cache de páginas: {} arquivos ({} MB) em {}", entries.size(), totalBytes / (1024 * 1024), root);
+        evictIfNeeded();
+    }
+
+    public synchronized Optional<Path> get(String key) {
+        if (entries.get(key) == null) {
+            return Optional.empty();
+        }
+
+        Path file = root.resolve(key);
+        if (!Files.exists(file)) {
+            totalBytes -= entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    // Como get, mas reserva o arquivo até o LocalBlob fechar
+    public synchronized Optional<LocalBlob> acquire(String key) {
+        return get(key).map(file -> pin(key, file));
+    }
+
+    // Grava e devolve a página já reservada; quem não vai ler fecha logo
+    public LocalBlob put(String key, byte[] content) {
+        Path file = root.resolve(key);
+        try {
+            Files.createDirectories(file.getParent());
+            // Escreve em arquivo temporário e promove com move atômico para leitores nunca verem arquivo parcial
+            Path tmp = Files.createTempFile(file.getParent(), "tile", ".tmp");
+            Files.write(tmp, content);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar página no cache: " + key, e);
+        }
+
+        synchronized (this) {
+            Long previous = entries.put(key, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0);
+            LocalBlob tile = pin(key, file);
+            evictIfNeeded();
+            return tile;
+        }
+    }
+
+    private synchronized LocalBlob pin(String key, Path file) {
+        pins.merge(key, 1, Integer::sum);
+        AtomicBoolean released = new AtomicBoolean();
+        return new LocalBlob(file, false, () -> {
+            if (released.compareAndSet(false, true)) release(key);
+        });
+    }
+
+    private synchronized void release(String key) {
+        pins.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        evictIfNeeded();
+    }
+
+    private synchronized void evictIfNeeded() {
+        long maxBytes = maxMegabytes * 1024 * 1024;
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (pins.containsKey(eldest.getKey())) continue;
+            try {
+                Files.deleteIfExists(root.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("⚠️ Não foi possível remover {} do cache de páginas", eldest.getKey());
+            }
+            totalBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).lastModifiedTime();
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ai.organizer.processor.kafka;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Pausa os consumidores enquanto o circuit breaker da dependência deles está aberto: os registros ficam
+ * no Kafka em vez de serem consumidos e jogados no retry. No HALF_OPEN só o container principal volta a
+ * consumir e o primeiro registro serve de sonda; os containers de retry seguem pausados até o CLOSED.
+ *
+ * Os registros barrados pelo breaker (CallNotPermittedException) não contam como processados: o
+ * {@link KeyOrderedDispatcher} os segura sem ack e espera {@link #awaitCallsPermitted} para repetir.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BreakerAwareConsumerControl {
+
+    // Listener (e seus tópicos de retry) → breaker da dependência que ele usa
+    private static final Map<String, String> BREAKER_BY_LISTENER = Map.of(
+            DocumentConsumer.LISTENER_ID, "openai",
+            SummaryRequestConsumer.LISTENER_ID, "openai",
+            RadarRequestConsumer.LISTENER_ID, "openai",
+            HighlightConsumer.LISTENER_ID, "embeddings");
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Long> pausedSince = new ConcurrentHashMap<>();
+    // Completado (e trocado) a cada transição do breaker; quem foi barrado espera por ele
+    private final Map<String, CompletableFuture<Void>> released = new ConcurrentHashMap<>();
+
+    /**
+     * Bloqueia até a próxima transição do breaker do listener (ou até {@code timeout}), a não ser que
+     * ele já esteja CLOSED. Quem chama repete a tarefa e, se for barrado de novo, volta a esperar.
+     */
+    public void awaitCallsPermitted(String listenerId, Duration timeout) throws InterruptedException {
+        String breakerName = BREAKER_BY_LISTENER.get(listenerId);
+        if (breakerName == null) return;
+
+        CompletableFuture<Void> next = released.computeIfAbsent(breakerName, k -> new CompletableFuture<>());
+        // Lido depois de pegar o future: uma transição entre a falha e aqui não se perde
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(breakerName).getState();
+        if (state == CircuitBreaker.State.CLOSED || state == CircuitBreaker.State.DISABLED) return;
+        try {
+            next.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // Repete mesmo assim: se o breaker ainda barrar, a espera recomeça
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bind() {
+        BREAKER_BY_LISTENER.forEach((listenerId, breakerName) -> {
+            CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker(breakerName);
+            breaker.getEventPublisher().onStateTransition(event -> {
+                switch (event.getStateTransition().getToState()) {
+                    case OPEN, FORCED_OPEN -> pause(listenerId, breakerName);
+                    case HALF_OPEN -> probe(listenerId, breakerName);
+                    case CLOSED, DISABLED -> resume(listenerId, breakerName);
+                    default -> { }
+                }
+                release(breakerName);
+            });
+
+            Gauge.builder("ai.consumer.paused", pausedSince, m -> m.containsKey(listenerId) ? 1 : 0)
+                    .tag("listener", listenerId)
+                    .register(meterRegistry);
+            MessageListenerContainer main = listenerRegistry.getListenerContainer(listenerId);
+            if (main != null) {
+                Gauge.builder("ai.consumer.lag", main, BreakerAwareConsumerControl::lag)
+                        .tag("listener", listenerId)
+                        .register(meterRegistry);
+            }
+        });
+    }
+
+    private void release(String breakerName) {
+        CompletableFuture<Void> waiting = released.remove(breakerName);
+        if (waiting != null) waiting.complete(null);
+    }
+
+    // Também no HALF_OPEN → OPEN, quando só o principal tinha voltado
+    private void pause(String listenerId, String breakerName) {
+        if (pausedSince.putIfAbsent(listenerId, System.nanoTime()) == null) {
+            log.warn("⏸️ [{}] Circuit breaker '{}' aberto. Pausando consumo.", listenerId, breakerName);
+        }
+        forEachContainer(listenerId, true, MessageListenerContainer::pause);
+    }
+
+    // Só o container principal: a sonda sai dele; os de retry voltam no CLOSED
+    private void probe(String listenerId, String breakerName) {
+        if (!pausedSince.containsKey(listenerId)) return;
+
+        log.info("🔎 [{}] Circuit breaker '{}' em teste. Retomando só o tópico principal.", listenerId, breakerName);
+        forEachContainer(listenerId, false, MessageListenerContainer::resume);
+    }
+
+    private void resume(String listenerId, String breakerName) {
+        Long since = pausedSince.remove(listenerId);
+        if (since == null) return;
+
+        Duration paused = Duration.ofNanos(System.nanoTime() - since);
+        Timer.builder("ai.consumer.pause.time")
+                .tag("listener", listenerId)
+                .register(meterRegistry)
+                .record(paused);
+
+        log.info("▶️ [{}] Circuit breaker '{}' liberou chamadas após {}s. Retomando consumo.",
+                listenerId, breakerName, paused.toSeconds());
+        forEachContainer(listenerId, true, MessageListenerContainer::resume);
+    }
+
+    // Container principal e os dos tópicos de retry ("{id}-retry-5000"...); o DLT segue consumindo
+    private void forEachContainer(String listenerId, boolean withRetry, Consumer<MessageListenerContainer> action) {
+        listenerRegistry.getListenerContainers().stream()
+                .filter(c -> listenerId.equals(c.getListenerId()) || (withRetry
+                        && c.getListenerId() != null && c.getListenerId().startsWith(listenerId + "-retry")))
+                .forEach(action);
+    }
+
+    // Soma do records-lag de cada partição atribuída ao container
+    private static double lag(MessageListenerContainer container) {
+        double total = 0;
+        for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+            for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+                MetricName name = entry.getKey();
+                if ("records-lag".equals(name.name()) && name.tags().containsKey("partition")
+                        && entry.getValue().metricValue() instanceof Number n && !Double.isNaN(n.doubleValue())) {
+                    total += n.doubleValue();
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ai.organizer.processor.kafka;
+
+import com.ai.organizer.events.CoverRequestedEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.processor.service.CoverPipelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CoverRequestConsumer {
+
+    private final CoverPipelineService coverPipelineService;
+
+    @KafkaListener(topics = EventTopics.COVER_REQUESTED, groupId = "ai-processor-covers",
+            containerFactory = "coverListenerContainerFactory")
+    public void consume(CoverRequestedEvent event) throws Exception {
+        log.info("🎨 [COVER] Pedido de capa recebido: {}", event.fileHash());
+
+        // Falhas sobem para o container: retry em tópicos escalonados e, por fim, DLT
+        coverPipelineService.processCoverRequest(event);
+    }
+}
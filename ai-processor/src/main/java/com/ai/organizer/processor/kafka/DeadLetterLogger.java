@@ -0,0 +1,25 @@
+package com.ai.organizer.processor.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Handler de DLT para os listeners com ack manual (dispatcher): registra a falha e confirma o offset.
+ * O registro continua no DLT e pode ser reenviado pelo /actuator/dltreplay.
+ */
+@Component
+@Slf4j
+public class DeadLetterLogger {
+
+    public void handle(ConsumerRecord<?, ?> record,
+                       @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error,
+                       Acknowledgment ack) {
+        log.error("💀 [DLT] {}-{}@{} (chave {}) esgotou as tentativas: {}",
+                record.topic(), record.partition(), record.offset(), record.key(), error);
+        ack.acknowledge();
+    }
+}
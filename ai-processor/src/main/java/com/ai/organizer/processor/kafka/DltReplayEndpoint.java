@@ -0,0 +1,34 @@
+package com.ai.organizer.processor.kafka;
+
+import com.ai.organizer.events.kafka.DltReplayer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * POST /actuator/dltreplay/{topico-dlt}?max=N devolve registros do DLT ao tópico original.
+ * Só acessível pela rede interna (o gateway não roteia /actuator).
+ */
+@Component
+@Endpoint(id = "dltreplay")
+@RequiredArgsConstructor
+@Slf4j
+public class DltReplayEndpoint {
+
+    private final KafkaProperties kafkaProperties;
+
+    @WriteOperation
+    public Map<String, Object> replay(@Selector String topic, @Nullable Integer max) {
+        int limit = max != null ? max : 100;
+        int replayed = DltReplayer.replay(kafkaProperties.buildAdminProperties(null), topic, limit);
+        log.info("♻️ [DLT] {} registros reenviados de {}", replayed, topic);
+        return Map.of("topic", topic, "replayed", replayed);
+    }
+}
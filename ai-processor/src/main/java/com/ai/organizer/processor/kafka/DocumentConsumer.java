@@ -1,11 +1,13 @@
 package com.ai.organizer.processor.kafka;
 
-import com.ai.organizer.processor.IngestionEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.IngestionEvent;
 import com.ai.organizer.processor.service.ProcessorService;
-import com.fasterxml.jackson.databind.ObjectMapper; // Importante
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,21 +16,17 @@ import org.springframework.stereotype.Component;
 public class DocumentConsumer {
 
     private final ProcessorService processorService;
-    private final ObjectMapper objectMapper;
+    private final KeyOrderedDispatcher dispatcher;
 
-    @KafkaListener(topics = "document.ingestion", groupId = "ai-processor-group")
-    public void consume(String message) {
-        try {
-            log.info("📨 Payload bruto recebido: {}", message);
-            
-            IngestionEvent event = objectMapper.readValue(message, IngestionEvent.class);
-            
-            log.info("✅ Evento processado: {}", event.originalName());
-            processorService.processDocument(event);
-            
-        } catch (Exception e) {
-            log.error("❌ Erro fatal ao processar mensagem JSON: {}", message, e);
-           
-        }
+    public static final String LISTENER_ID = "documents";
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = EventTopics.DOCUMENT_INGESTION,
+            groupId = "ai-processor-group", containerFactory = "dispatchListenerContainerFactory")
+    public void consume(ConsumerRecord<String, IngestionEvent> record, Acknowledgment ack) {
+        IngestionEvent event = record.value();
+        log.info("✅ Evento recebido: {}", event.originalName());
+
+        // Mesmo arquivo em ordem; arquivos diferentes em paralelo. Falhas vão para retry/DLT
+        dispatcher.dispatch(LISTENER_ID, record, event.fileHash(), ack, () -> processorService.processDocument(event));
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,13 @@
 package com.ai.organizer.processor.kafka;
 
-import com.ai.organizer.processor.HighlightEvent;
-import com.ai.organizer.processor.service.HighlightProcessorService; // Importe a classe nova
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.HighlightEvent;
+import com.ai.organizer.processor.service.HighlightProcessorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,27 +16,17 @@ import org.springframework.stereotype.Component;
 public class HighlightConsumer {
 
     private final HighlightProcessorService highlightProcessorService;
-    private final ObjectMapper objectMapper;
+    private final KeyOrderedDispatcher dispatcher;
 
-    @KafkaListener(topics = "highlight.created", groupId = "ai-processor-highlights-v2")
-    public void consume(String message) {
-        try {
-            log.info("🖍️ [HIGHLIGHT] Mensagem recebida: {}", message);
+    public static final String LISTENER_ID = "highlights";
 
-            JsonNode jsonNode = objectMapper.readTree(message);
-            if (jsonNode.isTextual()) {
-                log.info("⚠️ JSON encapsulado detectado. Realizando segundo parse...");
-                jsonNode = objectMapper.readTree(jsonNode.asText());
-            }
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = EventTopics.HIGHLIGHT_CREATED,
+            groupId = "ai-processor-highlights-v2", containerFactory = "dispatchListenerContainerFactory")
+    public void consume(ConsumerRecord<String, HighlightEvent> record, Acknowledgment ack) {
+        HighlightEvent event = record.value();
+        log.info("✅ Highlight ID {} recebido. Iniciando vetorização...", event.highlightId());
 
-            HighlightEvent event = objectMapper.treeToValue(jsonNode, HighlightEvent.class);
-            
-            log.info("✅ Highlight ID {} validado. Iniciando vetorização...", event.highlightId());
-            
-            highlightProcessorService.processHighlight(event);
-            
-        } catch (Exception e) {
-            log.error("❌ Erro ao processar highlight JSON: {}", message, e);
-        }
+        // Highlights do mesmo usuário em ordem; usuários diferentes em paralelo. Falhas vão para retry/DLT
+        dispatcher.dispatch(LISTENER_ID, record, event.userId(), ack, () -> highlightProcessorService.processHighlight(event));
     }
-}
\ No newline at end of file
+}
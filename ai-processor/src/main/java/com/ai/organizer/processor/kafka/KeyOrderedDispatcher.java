@@ -0,0 +1,257 @@
+package com.ai.organizer.processor.kafka;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Processa registros de uma mesma chave (userId/fileHash) em ordem e chaves diferentes em paralelo,
+ * em virtual threads. Com o listener em {@code ai.dispatch.max-in-flight}, o registro espera no máximo
+ * {@code ai.dispatch.acquire-timeout-ms} por uma vaga; depois vai para uma fila da lane e a partição
+ * é pausada até a fila esvaziar, sem segurar a thread de poll.
+ *
+ * O commit fica com o container (AckMode.MANUAL + asyncAcks): cada registro é confirmado ao terminar
+ * e o Spring Kafka só avança o offset até o menor registro ainda pendente da partição.
+ * Falhas seguem para os tópicos de retry/DLT pelo mesmo recoverer que o container usaria. Registro
+ * barrado pelo circuit breaker não é falha: fica sem ack e é repetido quando o breaker libera.
+ */
+@Component
+@Slf4j
+public class KeyOrderedDispatcher {
+
+    private static final Duration BREAKER_WAIT = Duration.ofMinutes(1);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, DeadLetterPublishingRecoverer> recoverers = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<DestinationTopicResolver> destinationTopicResolver;
+    private final BreakerAwareConsumerControl consumerControl;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+
+    public KeyOrderedDispatcher(ObjectProvider<DestinationTopicResolver> destinationTopicResolver,
+                                BreakerAwareConsumerControl consumerControl,
+                                KafkaListenerEndpointRegistry listenerRegistry,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.dispatch.max-in-flight:16}") int maxInFlight,
+                                @Value("${ai.dispatch.acquire-timeout-ms:200}") long acquireTimeoutMs) {
+        this.destinationTopicResolver = destinationTopicResolver;
+        this.consumerControl = consumerControl;
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    public void dispatch(String listenerId, ConsumerRecord<?, ?> record, String key,
+                         Acknowledgment ack, Runnable task) {
+        Lane lane = lanes.computeIfAbsent(listenerId, this::newLane);
+        Pending pending = new Pending(key != null ? key : record.partition() + "-" + record.offset(), record, ack, task);
+
+        // Com fila, o registro entra atrás dela: passar direto furaria a ordem da chave
+        if (!lane.hasBacklog() && tryAcquire(listenerId, lane)) {
+            submit(listenerId, lane, pending);
+            return;
+        }
+
+        // Saturado: enfileira e pausa a partição em vez de parar a thread de poll do consumidor
+        synchronized (lane) {
+            lane.backlog.add(pending);
+        }
+        // Uma vaga pode ter aberto entre o tryAcquire e o enfileiramento
+        drain(listenerId, lane);
+    }
+
+    private boolean tryAcquire(String listenerId, Lane lane) {
+        try {
+            return lane.permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dispatcher interrompido: " + listenerId, e);
+        }
+    }
+
+    // Cada vaga liberada puxa o próximo da fila
+    private void drain(String listenerId, Lane lane) {
+        synchronized (lane) {
+            while (!lane.backlog.isEmpty() && lane.permits.tryAcquire()) {
+                submit(listenerId, lane, lane.backlog.poll());
+            }
+        }
+        syncPausedPartitions(listenerId, lane);
+    }
+
+    /**
+     * Pausa as partições com registros na fila e retoma as que esvaziaram. Fora do monitor da lane e
+     * sem esperar: pause/resume passam pelo lock do container, que o stop() segura enquanto aguarda
+     * a thread de poll. Quem não pega o lock marca {@code dirty} e quem está com ele refaz a conta.
+     */
+    private void syncPausedPartitions(String listenerId, Lane lane) {
+        if (lane.paused.isEmpty() && !lane.hasBacklog()) return;
+
+        lane.dirty.set(true);
+        while (lane.dirty.get() && lane.control.tryLock()) {
+            try {
+                while (lane.dirty.getAndSet(false)) {
+                    Set<TopicPartition> waiting = new HashSet<>();
+                    synchronized (lane) {
+                        lane.backlog.forEach(p -> waiting.add(new TopicPartition(p.record().topic(), p.record().partition())));
+                    }
+                    for (TopicPartition partition : waiting) {
+                        if (lane.paused.add(partition)) {
+                            containerOf(partition).ifPresent(c -> c.pausePartition(partition));
+                            log.debug("⏸️ [{}] {} em espera: {} registros em processamento", listenerId, partition, maxInFlight);
+                        }
+                    }
+                    for (TopicPartition partition : Set.copyOf(lane.paused)) {
+                        if (!waiting.contains(partition) && lane.paused.remove(partition)) {
+                            containerOf(partition).ifPresent(c -> c.resumePartition(partition));
+                            log.debug("▶️ [{}] Fila de {} esvaziada; retomando", listenerId, partition);
+                        }
+                    }
+                }
+            } finally {
+                lane.control.unlock();
+            }
+        }
+    }
+
+    // Chamado com a vaga já reservada
+    private void submit(String listenerId, Lane lane, Pending pending) {
+        CompletableFuture<Void> next;
+        try {
+            next = lane.tails.compute(pending.orderingKey(), (k, tail) ->
+                    (tail != null ? tail : CompletableFuture.<Void>completedFuture(null))
+                            .thenRunAsync(() -> run(listenerId, pending.record(), pending.ack(), pending.task()), executor));
+        } catch (RuntimeException e) {
+            lane.permits.release();
+            throw e;
+        }
+        // Fora do compute: a tarefa pode terminar antes e o callback rodaria dentro do próprio mapa
+        next.whenComplete((v, e) -> {
+            lane.tails.remove(pending.orderingKey(), next);
+            lane.permits.release();
+            // Terminou já no submit de dentro do drain: o laço dele reaproveita a vaga
+            if (!Thread.holdsLock(lane)) drain(listenerId, lane);
+        });
+    }
+
+    private Optional<MessageListenerContainer> containerOf(TopicPartition partition) {
+        return listenerRegistry.getListenerContainers().stream()
+                .filter(c -> c.getAssignedPartitions() != null && c.getAssignedPartitions().contains(partition))
+                .findFirst();
+    }
+
+    private void run(String listenerId, ConsumerRecord<?, ?> record, Acknowledgment ack, Runnable task) {
+        try {
+            while (!runPermitted(listenerId, record, task)) {
+                consumerControl.awaitCallsPermitted(listenerId, BREAKER_WAIT);
+            }
+            ack.acknowledge();
+        } catch (InterruptedException e) {
+            // Desligando: sem ack, o registro volta a ser entregue após o restart
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recover(listenerId, record, ack, e);
+        }
+    }
+
+    // false = o breaker barrou a chamada; o registro não foi processado e não vai para o retry
+    private boolean runPermitted(String listenerId, ConsumerRecord<?, ?> record, Runnable task) {
+        try {
+            task.run();
+            return true;
+        } catch (RuntimeException e) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof CallNotPermittedException) {
+                    log.debug("⏸️ [{}] {}-{}@{} barrado pelo breaker; aguardando liberação",
+                            listenerId, record.topic(), record.partition(), record.offset());
+                    return false;
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void recover(String listenerId, ConsumerRecord<?, ?> record, Acknowledgment ack, Exception cause) {
+        log.warn("🔁 [{}] Falha em {}-{}@{}; enviando para retry: {}",
+                listenerId, record.topic(), record.partition(), record.offset(), cause.getMessage());
+        try {
+            recoverers.computeIfAbsent(listenerId, id ->
+                            new DeadLetterPublishingRecovererFactory(destinationTopicResolver.getObject()).create(id))
+                    .accept(record, new ListenerExecutionFailedException("Falha no listener " + listenerId, cause));
+            ack.acknowledge();
+        } catch (Exception e) {
+            // Sem ack o offset não avança: o registro volta a ser entregue após rebalance/restart
+            log.error("❌ [{}] Não foi possível publicar {}-{}@{} no retry",
+                    listenerId, record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+
+    private Lane newLane(String listenerId) {
+        Lane lane = new Lane(new Semaphore(maxInFlight), new ConcurrentHashMap<>(), new ArrayDeque<>(),
+                ConcurrentHashMap.newKeySet(), new AtomicBoolean(), new ReentrantLock());
+        Gauge.builder("ai.dispatch.in.flight", lane, l -> maxInFlight - l.permits.availablePermits())
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        Gauge.builder("ai.dispatch.active.keys", lane, l -> l.tails.size())
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        Gauge.builder("ai.dispatch.backlog", lane, l -> l.backlog.size())
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+        return lane;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("⚠️ Dispatcher encerrado com tarefas pendentes; os offsets delas não foram confirmados.");
+            executor.shutdownNow();
+        }
+    }
+
+    private record Pending(String orderingKey, ConsumerRecord<?, ?> record, Acknowledgment ack, Runnable task) {}
+
+    // backlog só muda sob o monitor da lane; paused só sob o lock control
+    private record Lane(Semaphore permits, Map<String, CompletableFuture<Void>> tails, Deque<Pending> backlog,
+                        Set<TopicPartition> paused, AtomicBoolean dirty, ReentrantLock control) {
+        synchronized boolean hasBacklog() {
+            return !backlog.isEmpty();
+        }
+    }
+}
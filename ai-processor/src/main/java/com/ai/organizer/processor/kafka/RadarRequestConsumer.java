@@ -0,0 +1,29 @@
+package com.ai.organizer.processor.kafka;
+
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.RadarUpdateRequestedEvent;
+import com.ai.organizer.processor.service.RadarProcessorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RadarRequestConsumer {
+
+    private final RadarProcessorService radarService;
+    private final KeyOrderedDispatcher dispatcher;
+
+    public static final String LISTENER_ID = "radar";
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = EventTopics.RADAR_UPDATE_REQUESTED,
+            groupId = "ai-processor-radar-group", containerFactory = "dispatchListenerContainerFactory")
+    public void consume(ConsumerRecord<String, RadarUpdateRequestedEvent> record, Acknowledgment ack) {
+        RadarUpdateRequestedEvent request = record.value();
+        dispatcher.dispatch(LISTENER_ID, record, request.userId(), ack, () -> radarService.processRadarRequest(request));
+    }
+}
@@ -1,9 +1,13 @@
 package com.ai.organizer.processor.kafka;
 
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.SummaryRequestedEvent;
 import com.ai.organizer.processor.service.SummaryProcessorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -12,10 +16,15 @@ import org.springframework.stereotype.Component;
 public class SummaryRequestConsumer {
 
     private final SummaryProcessorService summaryService;
+    private final KeyOrderedDispatcher dispatcher;
 
-    @KafkaListener(topics = "summary.requested", groupId = "ai-processor-summaries")
-    public void consume(String message) {
+    public static final String LISTENER_ID = "summaries";
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = EventTopics.SUMMARY_REQUESTED,
+            groupId = "ai-processor-summaries", containerFactory = "dispatchListenerContainerFactory")
+    public void consume(ConsumerRecord<String, SummaryRequestedEvent> record, Acknowledgment ack) {
+        SummaryRequestedEvent request = record.value();
         log.info("🧠 Recebido pedido de resumo.");
-        summaryService.processSummaryRequest(message);
+        dispatcher.dispatch(LISTENER_ID, record, request.userId(), ack, () -> summaryService.processSummaryRequest(request));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.ai.organizer.processor.repository;
+
+import com.ai.organizer.processor.domain.DocumentOwnerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DocumentOwnerRepository extends JpaRepository<DocumentOwnerEntity, Long> {
+    boolean existsByFileHashAndUserId(String fileHash, String userId);
+}
@@ -0,0 +1,10 @@
+package com.ai.organizer.processor.repository;
+
+import com.ai.organizer.processor.domain.DocumentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface DocumentRepository extends JpaRepository<DocumentEntity, Long> {
+    Optional<DocumentEntity> findByFileHash(String fileHash);
+}
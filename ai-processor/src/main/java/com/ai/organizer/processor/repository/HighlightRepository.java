@@ -3,6 +3,16 @@ package com.ai.organizer.processor.repository;
 import com.ai.organizer.processor.domain.HighlightEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface HighlightRepository extends JpaRepository<HighlightEntity, Long> {
-    boolean existsByFileHash(String fileHash);
+    // Linha da análise do documento (a única com ai_analysis_json); highlights dos usuários não contam
+    boolean existsByFileHashAndAiAnalysisJsonIsNotNull(String fileHash);
+
+    // Cada dono do conteúdo tem a sua cópia da análise
+    boolean existsByFileHashAndUserIdAndAiAnalysisJsonIsNotNull(String fileHash, String userId);
+
+    Optional<HighlightEntity> findFirstByFileHashAndUserIdAndAiAnalysisJsonIsNotNull(String fileHash, String userId);
+
+    Optional<HighlightEntity> findFirstByFileHashAndAiAnalysisJsonIsNotNullOrderByIdAsc(String fileHash);
 }
\ No newline at end of file
@@ -1,11 +1,55 @@
 package com.ai.organizer.processor.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 
+/**
+ * Armazenamento dos arquivos. Os métodos com byte[] são para objetos pequenos (páginas renderizadas,
+ * capas); livros passam pelos canais e pelo arquivo temporário, e a memória usada não cresce com o arquivo.
+ */
 public interface BlobStorageService {
+
     void upload(String filename, byte[] content, String contentType);
-    
+
+    // Upload resumível em partes: só um bloco do conteúdo fica na memória por vez
+    void upload(String filename, ReadableByteChannel content, String contentType);
+
+    default void upload(String filename, InputStream content, String contentType) {
+        upload(filename, Channels.newChannel(content), contentType);
+    }
+
     byte[] download(String filename);
-    
+
+    // Faixa [offset, offset + length) do objeto; length negativo lê até o fim. Quem chama fecha o canal
+    ReadableByteChannel openReader(String filename, long offset, long length);
+
+    default byte[] downloadRange(String filename, long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (ReadableByteChannel reader = openReader(filename, offset, length)) {
+            while (buffer.hasRemaining()) {
+                if (reader.read(buffer) < 0) break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + filename, e);
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    // Baixa em stream para um arquivo temporário; quem chama apaga o arquivo
+    Path downloadToTempFile(String filename);
+
+    // Arquivo local com o conteúdo, para quem precisa de acesso aleatório (PDFBox). Usar com try-with-resources
+    default LocalBlob fetch(String filename) {
+        return new LocalBlob(downloadToTempFile(filename), true);
+    }
+
     URL getSignedUrl(String filename, int minutesToExpire);
-}
\ No newline at end of file
+}
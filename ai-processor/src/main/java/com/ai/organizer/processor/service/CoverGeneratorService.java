@@ -1,47 +1,58 @@
 package com.ai.organizer.processor.service;
 
+import com.ai.organizer.processor.domain.enums.CoverSize;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class CoverGeneratorService {
 
-    
-    public byte[] generateCoverFromPdf(byte[] pdfBytes) {
-        log.info("🎨 Gerando capa do documento (PDFBox)...");
+    public record RenderedCover(byte[] bytes, String extension, String contentType) {}
 
-        try (PDDocument document = PDDocument.load(pdfBytes)) {
-           
+    private final ImageEncoderService imageEncoder;
+
+    public Map<CoverSize, RenderedCover> generateCoversFromPdf(Path pdfFile) {
+        log.info("🎨 Gerando capas do documento (PDFBox)...");
+
+        Map<CoverSize, RenderedCover> covers = new EnumMap<>(CoverSize.class);
+
+        try (PDDocument document = PDDocument.load(pdfFile.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
             PDFRenderer pdfRenderer = new PDFRenderer(document);
-            BufferedImage bim = pdfRenderer.renderImage(0, 1.5f, ImageType.RGB);
+            // Livros escaneados: decodifica a imagem da página já reduzida para a resolução de saída
+            pdfRenderer.setSubsamplingAllowed(true);
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            
+            PDRectangle cropBox = document.getPage(0).getCropBox();
 
-            boolean writerFound = ImageIO.write(bim, "webp", out);
-            
-            if (!writerFound) {
-                log.warn("⚠️ Plugin WebP não encontrado. Caindo para PNG (maior tamanho).");
-                ImageIO.write(bim, "png", out);
+            for (CoverSize size : CoverSize.values()) {
+                float scale = size.width() / cropBox.getWidth();
+                BufferedImage bim = pdfRenderer.renderImage(0, scale, ImageType.RGB);
+                covers.put(size, new RenderedCover(
+                        imageEncoder.encode(bim), imageEncoder.extension(), imageEncoder.contentType()));
             }
 
-            byte[] imageBytes = out.toByteArray();
-            log.info("✅ Capa gerada com sucesso! Tamanho: {} KB", imageBytes.length / 1024);
-            
-            return imageBytes;
+            log.info("✅ Capas geradas com sucesso! Thumbnail: {} KB | Detalhe: {} KB",
+                    covers.get(CoverSize.THUMBNAIL).bytes().length / 1024,
+                    covers.get(CoverSize.DETAIL).bytes().length / 1024);
+
+            return covers;
 
         } catch (IOException e) {
             log.error("❌ Falha ao renderizar capa do PDF", e);
-            return null;
+            return Map.of();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.ai.organizer.processor.service;
+
+import com.ai.organizer.events.CoverGeneratedEvent;
+import com.ai.organizer.events.CoverRequestedEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.processor.domain.enums.CoverSize;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gera as capas fora do fluxo de análise: recebe {@code document.cover.requested},
+ * renderiza todos os tamanhos e publica {@code document.cover.generated}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CoverPipelineService {
+
+    private final BlobStorageService blobStorageService;
+    private final CoverGeneratorService coverGenerator;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void processCoverRequest(CoverRequestedEvent event) throws Exception {
+        // O PDF vai para disco: o PDFBox lê do arquivo sob demanda em vez de manter o livro na memória
+        Map<CoverSize, CoverGeneratorService.RenderedCover> covers;
+        try (LocalBlob pdf = blobStorageService.fetch(event.s3Key())) {
+            covers = coverGenerator.generateCoversFromPdf(pdf.path());
+        }
+        if (covers.isEmpty()) {
+            log.warn("⚠️ Nenhuma capa gerada para {}. Documento seguirá sem capa.", event.fileHash());
+            return;
+        }
+
+        Map<CoverSize, String> paths = new EnumMap<>(CoverSize.class);
+        covers.forEach((size, cover) -> {
+            String path = "covers/" + event.fileHash() + "/" + size.suffix() + "." + cover.extension();
+            blobStorageService.upload(path, cover.bytes(), cover.contentType());
+            paths.put(size, path);
+        });
+        log.info("🖼️ {} capas salvas no Storage para {}", paths.size(), event.fileHash());
+
+        CoverGeneratedEvent generated = new CoverGeneratedEvent(
+                event.fileHash(),
+                paths.get(CoverSize.DETAIL),
+                paths.get(CoverSize.THUMBNAIL),
+                paths.get(CoverSize.CARD)
+        );
+        kafkaTemplate.send(EventTopics.COVER_GENERATED, event.fileHash(), generated);
+        log.info("📨 Evento de capa enviado para Kafka: {}", generated);
+    }
+}
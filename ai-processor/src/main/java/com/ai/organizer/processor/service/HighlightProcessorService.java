@@ -1,11 +1,11 @@
 package com.ai.organizer.processor.service;
 
-import com.ai.organizer.processor.HighlightEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.HighlightEvent;
 import com.ai.organizer.processor.domain.HighlightEntity;
 import com.ai.organizer.processor.domain.enums.ProcessingStatus;
-import com.ai.organizer.processor.event.StarLinkedEvent;
+import com.ai.organizer.events.StarLinkedEvent;
 import com.ai.organizer.processor.repository.HighlightRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
@@ -16,6 +16,7 @@ import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.filter.Filter;
 import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -29,8 +30,7 @@ public class HighlightProcessorService {
 
     private final HighlightRepository highlightRepository;
     private final EmbeddingModel embeddingModel;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
     
     private final EmbeddingStore<TextSegment> userStore;
     private final EmbeddingStore<TextSegment> guestStore;
@@ -38,18 +38,17 @@ public class HighlightProcessorService {
     public HighlightProcessorService(
             HighlightRepository highlightRepository,
             EmbeddingModel embeddingModel,
-            KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper,
+            KafkaTemplate<String, Object> kafkaTemplate,
             @Qualifier("userEmbeddingStore") EmbeddingStore<TextSegment> userStore,
             @Qualifier("guestEmbeddingStore") EmbeddingStore<TextSegment> guestStore) {
         this.highlightRepository = highlightRepository;
         this.embeddingModel = embeddingModel;
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
         this.userStore = userStore;
         this.guestStore = guestStore;
     }
 
+    @CircuitBreaker(name = "embeddings")
     @Transactional
     public void processHighlight(HighlightEvent event) {
         String cleanUserId = event.userId().replaceAll("[^a-zA-Z0-9-]", "").toLowerCase();
@@ -57,38 +56,26 @@ public class HighlightProcessorService {
 
         log.info("🧠 Processando Highlight ID: {} | User: '{}' | Guest: {}", event.highlightId(), event.userId(), isGuest);
 
-        try {
-            if (!isGuest) {
-                HighlightEntity entity = null;
-                for (int i = 0; i < 6; i++) { // 6 tentativas de 500ms
-                    var opt = highlightRepository.findById(event.highlightId());
-                    if (opt.isPresent()) {
-                        entity = opt.get();
-                        break;
-                    }
-                    log.warn("⏳ Highlight {} não encontrado. Tentativa {}/6. Aguardando...", event.highlightId(), i + 1);
-                    Thread.sleep(500);
-                }
-
-                if (entity == null) {
-                    throw new RuntimeException("Highlight ID " + event.highlightId() + " não encontrado após retries.");
-                }
-                
-                 entity.setStatus(ProcessingStatus.PROCESSED);
-                highlightRepository.save(entity);
-            } else {
-                log.info("👻 Bypass SQL ativado para Guest.");
+        if (!isGuest) {
+            // O library-service publica via outbox depois do commit: se a linha não existe, o highlight foi apagado
+            HighlightEntity entity = highlightRepository.findById(event.highlightId()).orElse(null);
+            if (entity == null) {
+                log.warn("⚠️ Highlight {} não existe mais. Evento ignorado.", event.highlightId());
+                return;
             }
+            
+             entity.setStatus(ProcessingStatus.PROCESSED);
+            highlightRepository.save(entity);
+        } else {
+            log.info("👻 Bypass SQL ativado para Guest.");
+        }
 
-            if ("TEXT".equals(event.type())) {
-                generateAndSaveVector(event, isGuest);
-            } 
-
-            log.info("✅ Highlight finalizado com sucesso.");
+        // Falha no embedding/Pinecone sobe para o retry (o status volta no rollback); a busca de galáxias segue best-effort
+        if ("TEXT".equals(event.type())) {
+            generateAndSaveVector(event, isGuest);
+        } 
 
-        } catch (Exception e) {
-            log.error("❌ Falha ao processar highlight", e);
-          }
+        log.info("✅ Highlight finalizado com sucesso.");
     }
     private void generateAndSaveVector(HighlightEvent event, boolean isGuest) {
         Metadata metadata = Metadata.from("userId", event.userId())
@@ -105,7 +92,13 @@ public class HighlightProcessorService {
         
         log.info("💾 Salvando vetor no índice: {}", indexName);
 
-        String pineconeId = targetStore.add(embeddingResponse.content(), segment);
+        // Retry do mesmo highlight (ex: rollback depois do Pinecone): o vetor da tentativa anterior vale
+        if (event.highlightId() != null
+                && StoredVectors.find(targetStore, event.userId(), "highlightId", String.valueOf(event.highlightId())).isPresent()) {
+            log.info("♻️ Vetor do highlight {} já gravado", event.highlightId());
+        } else {
+            targetStore.add(embeddingResponse.content(), segment);
+        }
         
         if (isGuest) {
             log.info("🛑 Guest detectado. Interrompendo fluxo de Shooting Star.");
@@ -140,8 +133,7 @@ public class HighlightProcessorService {
                 
                 if (galaxyId != null) {
                     StarLinkedEvent linkEvent = new StarLinkedEvent(galaxyId, highlightId, match.score());
-                    String json = objectMapper.writeValueAsString(linkEvent);
-                    kafkaTemplate.send("star.linked", galaxyId, json);
+                    kafkaTemplate.send(EventTopics.STAR_LINKED, galaxyId, linkEvent);
                     log.info("🔗 Link detectado com Galáxia {}", galaxyId);
                 } 
             }
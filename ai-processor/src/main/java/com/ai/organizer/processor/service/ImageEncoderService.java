@@ -0,0 +1,88 @@
+package com.ai.organizer.processor.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Codifica páginas renderizadas em WebP com qualidade controlada. O encoder WebP
+ * depende da libwebp nativa; se ela não carregar, tudo sai em JPEG.
+ */
+@Service
+@Slf4j
+public class ImageEncoderService {
+
+    private static final String WEBP = "image/webp";
+    private static final String JPEG = "image/jpeg";
+
+    @Value("${ai.images.quality:${ai.covers.quality:0.8}}")
+    private float quality;
+
+    private String mimeType = JPEG;
+
+    @PostConstruct
+    void detectFormat() {
+        try {
+            if (write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), WEBP) != null) {
+                mimeType = WEBP;
+            }
+        } catch (IOException | LinkageError e) {
+            log.warn("⚠️ Encoder WebP indisponível ({}). Usando JPEG.", e.getMessage());
+        }
+        log.info("🖼️ Formato de imagem: {} (qualidade {})", mimeType, quality);
+    }
+
+    public byte[] encode(BufferedImage image) throws IOException {
+        return write(image, mimeType);
+    }
+
+    public String contentType() {
+        return mimeType;
+    }
+
+    public String extension() {
+        return WEBP.equals(mimeType) ? "webp" : "jpg";
+    }
+
+    private byte[] write(BufferedImage image, String targetMimeType) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(targetMimeType);
+        if (!writers.hasNext()) {
+            return null;
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    // WebP: "Lossy" | JPEG: "JPEG"
+                    param.setCompressionType(types[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        return out.toByteArray();
+    }
+}
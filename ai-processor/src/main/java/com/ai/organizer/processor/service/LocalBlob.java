@@ -0,0 +1,29 @@
+package com.ai.organizer.processor.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Conteúdo de um blob disponível em disco local. Arquivos temporários são apagados no close();
+ * os do cache local (ou do armazenamento em disco) continuam onde estão. release, quando existe,
+ * solta a reserva do arquivo no cache (que não o apaga enquanto ele estiver em uso).
+ */
+public record LocalBlob(Path path, boolean temporary, Runnable release) implements AutoCloseable {
+
+    public LocalBlob(Path path, boolean temporary) {
+        this(path, temporary, null);
+    }
+
+    @Override
+    public void close() {
+        if (release != null) release.run();
+        if (!temporary) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao apagar temporário " + path, e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.ai.organizer.processor.service;
+
+import com.ai.organizer.processor.infrastructure.PageTileCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serve páginas do PDF como imagens prontas para o leitor.
+ * Ordem de busca: cache em disco local -> blob storage (pages/) -> renderização via PDFBox.
+ * Depois de servir a página N, renderiza N+1..N+k em segundo plano (só até a última página do livro).
+ */
+@Service
+@Slf4j
+public class PageImageService {
+
+    /** Larguras permitidas. O pedido é arredondado para cima para manter o cache pequeno. */
+    private static final int[] WIDTHS = {480, 960, 1440};
+
+    private final BlobStorageService blobStorageService;
+    private final ImageEncoderService imageEncoder;
+    private final PageTileCache tileCache;
+    private final TaskExecutor prefetchExecutor;
+
+    private final Set<String> inFlightPrefetch = ConcurrentHashMap.newKeySet();
+
+    // Páginas de cada livro, aprendidas na renderização: o prefetch não pede páginas que não existem
+    private final Map<String, Integer> pageCounts = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > 10_000;
+        }
+    });
+
+    @Value("${ai.pages.prefetch:3}")
+    private int prefetchPages;
+
+    public PageImageService(
+            BlobStorageService blobStorageService,
+            ImageEncoderService imageEncoder,
+            PageTileCache tileCache,
+            @Qualifier("pagePrefetchExecutor") TaskExecutor prefetchExecutor) {
+        this.blobStorageService = blobStorageService;
+        this.imageEncoder = imageEncoder;
+        this.tileCache = tileCache;
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /** A página fica reservada no cache até {@code tile} fechar: feche depois de enviar a resposta. */
+    public record PageImage(LocalBlob tile, String contentType, String etag) {
+        public Path file() {
+            return tile.path();
+        }
+    }
+
+    public PageImage getPage(String fileHash, String pdfPath, int page, int requestedWidth) throws IOException {
+        int width = snapWidth(requestedWidth);
+        String key = tileKey(fileHash, page, width);
+
+        LocalBlob tile = tileCache.acquire(key)
+                .or(() -> fromBlobStorage(key))
+                .orElse(null);
+
+        if (tile == null) {
+            log.info("🖨️ Renderizando página {} de {} ({}px)", page, fileHash, width);
+            tile = renderPages(fileHash, pdfPath, List.of(page), width).get(0);
+        }
+
+        prefetchAhead(fileHash, pdfPath, page, width);
+
+        String etag = "\"" + fileHash + "-" + page + "-" + width + "\"";
+        return new PageImage(tile, imageEncoder.contentType(), etag);
+    }
+
+    private void prefetchAhead(String fileHash, String pdfPath, int page, int width) {
+        Integer pageCount = pageCounts.get(fileHash);
+        int last = pageCount != null ? Math.min(page + prefetchPages, pageCount) : page + prefetchPages;
+        List<Integer> missing = new ArrayList<>();
+        for (int next = page + 1; next <= last; next++) {
+            if (tileCache.get(tileKey(fileHash, next, width)).isEmpty()) {
+                missing.add(next);
+            }
+        }
+
+        String prefetchKey = fileHash + "@" + width + ":" + missing;
+        if (missing.isEmpty() || !inFlightPrefetch.add(prefetchKey)) {
+            return;
+        }
+
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    renderPages(fileHash, pdfPath, missing, width).forEach(LocalBlob::close);
+                    log.debug("📚 Pré-renderizadas páginas {} de {}", missing, fileHash);
+                } catch (Exception e) {
+                    log.warn("⚠️ Falha no prefetch de páginas {} de {}: {}", missing, fileHash, e.getMessage());
+                } finally {
+                    inFlightPrefetch.remove(prefetchKey);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Fila cheia: prefetch é oportunista, o leitor renderiza sob demanda
+            inFlightPrefetch.remove(prefetchKey);
+        }
+    }
+
+    /**
+     * Renderiza várias páginas carregando o PDF uma única vez.
+     * Páginas além do fim do documento são ignoradas (ou geram erro se for a página pedida).
+     * Devolve as páginas reservadas no cache; quem chama fecha.
+     */
+    private List<LocalBlob> renderPages(String fileHash, String pdfPath, List<Integer> pages, int width) throws IOException {
+        List<LocalBlob> rendered = new ArrayList<>();
+
+        try (LocalBlob pdf = blobStorageService.fetch(pdfPath);
+             PDDocument document = PDDocument.load(pdf.path().toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            pageCounts.put(fileHash, document.getNumberOfPages());
+            PDFRenderer renderer = new PDFRenderer(document);
+            renderer.setSubsamplingAllowed(true);
+
+            for (int page : pages) {
+                if (page < 1 || page > document.getNumberOfPages()) {
+                    if (rendered.isEmpty() && pages.size() == 1) {
+                        throw new IllegalArgumentException("Página inválida. O documento tem " + document.getNumberOfPages() + " páginas.");
+                    }
+                    continue;
+                }
+
+                float scale = width / document.getPage(page - 1).getCropBox().getWidth();
+                byte[] image = imageEncoder.encode(renderer.renderImage(page - 1, scale, ImageType.RGB));
+
+                String key = tileKey(fileHash, page, width);
+                rendered.add(tileCache.put(key, image));
+                blobStorageService.upload(blobPath(key), image, imageEncoder.contentType());
+            }
+        } catch (IOException | RuntimeException e) {
+            rendered.forEach(LocalBlob::close);
+            throw e;
+        }
+        return rendered;
+    }
+
+    private Optional<LocalBlob> fromBlobStorage(String key) {
+        try {
+            byte[] image = blobStorageService.download(blobPath(key));
+            return Optional.of(tileCache.put(key, image));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String tileKey(String fileHash, int page, int width) {
+        return fileHash + "/" + width + "/" + page + "." + imageEncoder.extension();
+    }
+
+    private String blobPath(String key) {
+        return "pages/" + key;
+    }
+
+    private int snapWidth(int requested) {
+        for (int width : WIDTHS) {
+            if (requested <= width) return width;
+        }
+        return WIDTHS[WIDTHS.length - 1];
+    }
+}
@@ -1,21 +1,23 @@
 package com.ai.organizer.processor.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 @Service
 @Slf4j
 public class PdfTextExtractorService {
 
     private static final int MAX_CHARS = 30000;
-    public String extractTextFromRange(byte[] pdfBytes, int startPage, int endPage) throws IOException {
+    public String extractTextFromRange(Path pdfFile, int startPage, int endPage) throws IOException {
         log.info("📄 Extraindo texto das páginas {} a {}...", startPage, endPage);
 
-        try (PDDocument document = PDDocument.load(pdfBytes)) {
+        try (PDDocument document = PDDocument.load(pdfFile.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
             int totalPages = document.getNumberOfPages();
             if (startPage < 1 || endPage > totalPages || startPage > endPage) {
                 throw new IllegalArgumentException("Intervalo de páginas inválido. O documento tem " + totalPages + " páginas.");
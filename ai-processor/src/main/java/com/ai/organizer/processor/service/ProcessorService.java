@@ -1,13 +1,13 @@
 package com.ai.organizer.processor.service;
 
-import com.ai.organizer.processor.CoverGeneratedEvent;
-import com.ai.organizer.processor.HighlightEvent;
-import com.ai.organizer.processor.IngestionEvent;
-import com.ai.organizer.processor.event.StarLinkedEvent;
+import com.ai.organizer.events.CoverRequestedEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.HighlightEvent;
+import com.ai.organizer.events.IngestionEvent;
+import com.ai.organizer.events.StarLinkedEvent;
 import com.ai.organizer.processor.ai.BookAssistant;
 import com.ai.organizer.processor.domain.HighlightEntity;
 import com.ai.organizer.processor.repository.HighlightRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.embedding.Embedding;
@@ -18,7 +18,6 @@ import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -34,38 +33,44 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class ProcessorService {
 
+    // Texto lido do início do arquivo: o embedding aceita ~8k tokens, o resto seria recusado pela OpenAI
+    private static final int MAX_TEXT_BYTES = 32 * 1024;
+
     private final BookAssistant bookAssistant;
     private final StringRedisTemplate redisTemplate;
 
     private final BlobStorageService blobStorageService; 
 
-    private final CoverGeneratorService coverGenerator;
-
     private final HighlightRepository highlightRepository;
     private final EmbeddingModel embeddingModel;
     private final EmbeddingStore<TextSegment> embeddingStore;
     
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ObjectMapper objectMapper; 
 
+    // Sem @Retry em memória: a nova tentativa acontece nos tópicos de retry, sem travar a partição
     @CircuitBreaker(name = "openai", fallbackMethod = "fallbackOpenAI")
-    @Retry(name = "openai")
     public void processDocument(IngestionEvent event) {
         String cacheKey = "doc_analysis:" + event.fileHash();
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(cacheKey))) {
-            log.info("💰 CACHE HIT: Documento já processado. Recuperando do Redis.");
-            return; 
+        boolean cached = Boolean.TRUE.equals(redisTemplate.hasKey(cacheKey));
+
+        // Conteúdo já analisado (reenvio ou o mesmo livro de outro usuário): análise e capa são por
+        // fileHash e são reaproveitadas; o dono novo só ganha a sua cópia
+        if (cached || highlightRepository.existsByFileHashAndAiAnalysisJsonIsNotNull(event.fileHash())) {
+            if (cached) {
+                log.info("💰 CACHE HIT: Documento já processado. Recuperando do Redis.");
+            } else {
+                log.info("♻️ Documento {} já processado: reaproveitando análise e capa.", event.fileHash());
+            }
+            shareAnalysis(event);
+            return;
         }
 
         log.info("🤖 CACHE MISS: Iniciando processamento para: {} (Idioma: {})", 
                 event.originalName(), event.preferredLanguage());
 
         try {
-            log.debug("Baixando arquivo do storage: {}", event.s3Key());
-            byte[] fileBytes = blobStorageService.download(event.s3Key());
-
             if (isPdf(event.originalName())) {
-                generateAndUploadCover(fileBytes, event.fileHash());
+                requestCover(event);
             }
 
             String content;
@@ -81,7 +86,9 @@ public class ProcessorService {
                 analysisResult = getLocalizedAnalysisFallback(targetLanguage);
                 
             } else {
-                content = new String(fileBytes, StandardCharsets.UTF_8);
+                // Binários ficam no Storage; do texto só a faixa inicial é baixada
+                log.debug("Lendo início do arquivo no storage: {}", event.s3Key());
+                content = new String(blobStorageService.downloadRange(event.s3Key(), 0, MAX_TEXT_BYTES), StandardCharsets.UTF_8);
 
                 String textToAnalyze = content.length() > 2000 ? content.substring(0, 2000) : content;
                 
@@ -93,7 +100,7 @@ public class ProcessorService {
             redisTemplate.opsForValue().set(cacheKey, analysisResult, Duration.ofHours(24));
 
             HighlightEntity savedEntity = null;
-            if (!highlightRepository.existsByFileHash(event.fileHash())) {
+            if (!highlightRepository.existsByFileHashAndUserIdAndAiAnalysisJsonIsNotNull(event.fileHash(), event.userId())) {
                 HighlightEntity entity = new HighlightEntity();
                 entity.setFileHash(event.fileHash());
                 entity.setUserId(event.userId());
@@ -106,23 +113,7 @@ public class ProcessorService {
                 log.info("💾 Metadados salvos no Postgres. ID: {}", savedEntity.getId());
             }
             if (savedEntity != null && !isPdfOrImage) {
-                log.info("▶️ Gerando Embedding do Documento Inteiro...");
-                
-                Metadata metadata = Metadata.from("userId", event.userId())
-                                            .put("fileHash", event.fileHash())
-                                            .put("source", event.originalName())
-                                            .put("type", "document")
-                                            .put("language", targetLanguage)
-                                            .put("dbId", String.valueOf(savedEntity.getId()));
-
-                TextSegment segment = TextSegment.from(content, metadata);
-                Response<Embedding> embeddingResponse = embeddingModel.embed(segment);
-                
-                embeddingStore.addAll(
-                    Collections.singletonList(embeddingResponse.content()),
-                    Collections.singletonList(segment)
-                );
-                log.info("✅ Vetor salvo no Pinecone!");
+                storeDocumentVector(event, content, targetLanguage, savedEntity.getId());
             }
             
         } catch (Exception e) {
@@ -131,8 +122,63 @@ public class ProcessorService {
         }
     }
 
+    /**
+     * Cópia da análise para o dono novo de um conteúdo já processado: linha em USER_HIGHLIGHTS e vetor
+     * "document" com o userId dele, porque as buscas filtram por userId. A OpenAI não analisa de novo;
+     * só o embedding é refeito (barato, e o mesmo texto dá o mesmo vetor).
+     */
+    private void shareAnalysis(IngestionEvent event) {
+        HighlightEntity savedEntity = highlightRepository
+                .findFirstByFileHashAndUserIdAndAiAnalysisJsonIsNotNull(event.fileHash(), event.userId())
+                .orElse(null);
+
+        if (savedEntity == null) {
+            // Sem linha ainda, só o Redis: a primeira análise está sendo gravada; o retry volta depois dela
+            HighlightEntity source = highlightRepository
+                    .findFirstByFileHashAndAiAnalysisJsonIsNotNullOrderByIdAsc(event.fileHash())
+                    .orElseThrow(() -> new RuntimeException("Análise de " + event.fileHash() + " ainda não gravada"));
+
+            HighlightEntity entity = new HighlightEntity();
+            entity.setFileHash(event.fileHash());
+            entity.setUserId(event.userId());
+            entity.setOriginalText(source.getOriginalText());
+            entity.setAiAnalysisJson(source.getAiAnalysisJson());
+            savedEntity = highlightRepository.save(entity);
+            log.info("💾 Análise compartilhada com {}. ID: {}", event.userId(), savedEntity.getId());
+        }
+
+        // A linha pode ter ficado de uma tentativa que falhou antes do vetor
+        if (!isBinaryFile(event.originalName())
+                && StoredVectors.find(embeddingStore, event.userId(), "dbId", String.valueOf(savedEntity.getId())).isEmpty()) {
+            String content = new String(blobStorageService.downloadRange(event.s3Key(), 0, MAX_TEXT_BYTES), StandardCharsets.UTF_8);
+            storeDocumentVector(event, content, mapLanguageForAi(event.preferredLanguage()), savedEntity.getId());
+        }
+    }
+
+    private void storeDocumentVector(IngestionEvent event, String content, String language, Long dbId) {
+        log.info("▶️ Gerando Embedding do Documento Inteiro...");
+
+        Metadata metadata = Metadata.from("userId", event.userId())
+                                    .put("fileHash", event.fileHash())
+                                    .put("source", event.originalName())
+                                    .put("type", "document")
+                                    .put("language", language)
+                                    .put("dbId", String.valueOf(dbId));
+
+        TextSegment segment = TextSegment.from(content, metadata);
+        Response<Embedding> embeddingResponse = embeddingModel.embed(segment);
+
+        embeddingStore.addAll(
+            Collections.singletonList(embeddingResponse.content()),
+            Collections.singletonList(segment)
+        );
+        log.info("✅ Vetor salvo no Pinecone!");
+    }
+
     public void fallbackOpenAI(IngestionEvent event, Throwable t) {
         log.error("🔥 FALLBACK ATIVADO: OpenAI indisponível. Erro: {}", t.getMessage());
+        // Relança para o evento seguir para o próximo tópico de retry (ou DLT)
+        throw t instanceof RuntimeException re ? re : new RuntimeException("OpenAI indisponível", t);
     }
 
     private String mapLanguageForAi(String langCode) {
@@ -184,23 +230,13 @@ public class ProcessorService {
         }
     }
 
-    private void generateAndUploadCover(byte[] pdfBytes, String fileHash) {
+    private void requestCover(IngestionEvent event) {
         try {
-            byte[] coverBytes = coverGenerator.generateCoverFromPdf(pdfBytes);
-            
-            if (coverBytes != null) {
-                String coverPath = "covers/" + fileHash + ".webp";
-                blobStorageService.upload(coverPath, coverBytes, "image/webp");
-                log.info("🖼️ Capa salva no Storage: {}", coverPath);
-                
-                CoverGeneratedEvent event = new CoverGeneratedEvent(fileHash, coverPath);
-                String jsonEvent = objectMapper.writeValueAsString(event);
-                
-                kafkaTemplate.send("document.cover.generated", fileHash, jsonEvent); 
-                log.info("📨 Evento de capa enviado para Kafka: {}", jsonEvent);
-            }
+            CoverRequestedEvent coverRequest = new CoverRequestedEvent(event.fileHash(), event.s3Key());
+            kafkaTemplate.send(EventTopics.COVER_REQUESTED, event.fileHash(), coverRequest);
+            log.info("📨 Capa enfileirada para geração: {}", event.fileHash());
         } catch (Exception e) {
-            log.warn("⚠️ Não foi possível gerar a capa, mas o fluxo segue sem ela.", e);
+            log.warn("⚠️ Não foi possível enfileirar a capa, mas o fluxo segue sem ela.", e);
         }
     }
 
@@ -1,17 +1,15 @@
 package com.ai.organizer.processor.service;
 
 import com.ai.organizer.processor.ai.BookAssistant;
-import com.ai.organizer.processor.event.RadarUpdateCompletedEvent;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.RadarUpdateCompletedEvent;
+import com.ai.organizer.events.RadarUpdateRequestedEvent;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.stream.Collectors;
-
 /**
  * Serviço responsável por processar a análise de perfil cognitivo do usuário.
  * Transforma trechos de texto em métricas quantitativas para o Radar de Conhecimento.
@@ -22,51 +20,33 @@ import java.util.stream.Collectors;
 public class RadarProcessorService {
 
     private final BookAssistant aiAssistant;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    @KafkaListener(topics = "radar.update.requested", groupId = "ai-processor-radar-group")
-    public void processRadarRequest(String message) {
+    @CircuitBreaker(name = "openai")
+    public void processRadarRequest(RadarUpdateRequestedEvent request) {
         log.info("🧠 [RADAR] Recebida solicitação de análise de perfil.");
 
-        try {
-
-            JsonNode jsonNode = objectMapper.readTree(message);
-            
-            if (jsonNode.isTextual()) {
-                jsonNode = objectMapper.readTree(jsonNode.asText());
-            }
-
-            String userId = jsonNode.get("userId").asText();
+        String userId = request.userId();
       
-            var snippetsNode = jsonNode.get("snippets");
-            String consolidatedText = "";
-            
-            if (snippetsNode != null && snippetsNode.isArray()) {
-                consolidatedText = java.util.stream.StreamSupport.stream(snippetsNode.spliterator(), false)
-                        .map(JsonNode::asText)
-                        .collect(Collectors.joining("\n---\n"));
-            }
-
-            if (consolidatedText.isEmpty()) {
-                log.warn("⚠️ Nenhum texto enviado para o radar do usuário: {}", userId);
-                return;
-            }
-
-            log.info("🤖 Analisando {} caracteres para gerar o radar de {}", consolidatedText.length(), userId);
-            String radarJson = aiAssistant.generateKnowledgeRadar(consolidatedText, "English");
+        String consolidatedText = "";
+        
+        if (request.snippets() != null) {
+            consolidatedText = String.join("\n---\n", request.snippets());
+        }
 
-            String cleanRadarJson = radarJson.replace("```json", "").replace("```", "").trim();
+        if (consolidatedText.isEmpty()) {
+            log.warn("⚠️ Nenhum texto enviado para o radar do usuário: {}", userId);
+            return;
+        }
 
-            RadarUpdateCompletedEvent completionEvent = new RadarUpdateCompletedEvent(userId, cleanRadarJson);
-            String responseMessage = objectMapper.writeValueAsString(completionEvent);
+        log.info("🤖 Analisando {} caracteres para gerar o radar de {}", consolidatedText.length(), userId);
+        String radarJson = aiAssistant.generateKnowledgeRadar(consolidatedText, "English");
 
-            kafkaTemplate.send("radar.update.completed", userId, responseMessage);
-            
-            log.info("✅ [RADAR] Perfil cognitivo atualizado com sucesso para: {}", userId);
+        String cleanRadarJson = radarJson.replace("```json", "").replace("```", "").trim();
 
-        } catch (Exception e) {
-            log.error("❌ Erro ao processar análise de radar:", e);
-        }
+        RadarUpdateCompletedEvent completionEvent = new RadarUpdateCompletedEvent(userId, cleanRadarJson);
+        kafkaTemplate.send(EventTopics.RADAR_UPDATE_COMPLETED, userId, completionEvent).join();
+        
+        log.info("✅ [RADAR] Perfil cognitivo atualizado com sucesso para: {}", userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.ai.organizer.processor.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Busca de um vetor já gravado pelo id do metadado (highlightId, summaryId, dbId), para os retries não
+ * gravarem o mesmo vetor de novo. O langchain4j fixado (0.34) não aceita id próprio junto com o
+ * segmento no EmbeddingStore, então a chave é o metadado, com o vetor dummy do DataDeletionConsumer.
+ */
+final class StoredVectors {
+
+    // Dimensão dos índices (text-embedding-ada-002 / 3-small)
+    private static final int DIMENSION = 1536;
+
+    private StoredVectors() {
+    }
+
+    // Filtra também pelo usuário: ids de convidados não vêm do banco e podem se repetir entre eles
+    static Optional<TextSegment> find(EmbeddingStore<TextSegment> store, String userId, String metadataKey, String id) {
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(new float[DIMENSION]))
+                .filter(MetadataFilterBuilder.metadataKey(metadataKey).isEqualTo(id)
+                        .and(MetadataFilterBuilder.metadataKey("userId").isEqualTo(userId)))
+                .maxResults(1)
+                .build();
+        return store.search(request).matches().stream()
+                .map(EmbeddingMatch::embedded)
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+}
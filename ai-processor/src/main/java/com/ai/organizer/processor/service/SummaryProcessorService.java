@@ -1,16 +1,20 @@
 package com.ai.organizer.processor.service;
 
-import com.ai.organizer.processor.SummaryCompletedEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.SummaryCompletedEvent;
+import com.ai.organizer.events.SummaryRequestedEvent;
 import com.ai.organizer.processor.ai.BookAssistant;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingStore;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 
@@ -20,8 +24,7 @@ public class SummaryProcessorService {
 
     private final BookAssistant aiAssistant;
     private final EmbeddingModel embeddingModel;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
     
     private final EmbeddingStore<TextSegment> userStore;
     private final EmbeddingStore<TextSegment> guestStore;
@@ -29,46 +32,45 @@ public class SummaryProcessorService {
     public SummaryProcessorService(
             BookAssistant aiAssistant,
             EmbeddingModel embeddingModel,
-            KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper,
+            KafkaTemplate<String, Object> kafkaTemplate,
             @Qualifier("userEmbeddingStore") EmbeddingStore<TextSegment> userStore,
             @Qualifier("guestEmbeddingStore") EmbeddingStore<TextSegment> guestStore) {
         this.aiAssistant = aiAssistant;
         this.embeddingModel = embeddingModel;
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
         this.userStore = userStore;
         this.guestStore = guestStore;
     }
 
-    public void processSummaryRequest(String message) {
-        Long summaryId = null;
-        boolean isGuest = false;
-
-        try {
-            JsonNode json = objectMapper.readTree(message);
-            if (json.isTextual()) {
-                json = objectMapper.readTree(json.asText());
-            }
-
-            // Tratamento de ID para Guest (pode vir como negativo ou string numérica grande)
-            summaryId = json.get("summaryId").asLong();
-            String userId = json.path("userId").asText();
-            isGuest = userId.startsWith("guest-");
-
-            String fileHash = json.path("fileHash").asText();
-            String sourceType = json.path("sourceType").asText();
-            String textToSummarize = json.path("textContent").asText();
-            String langCode = json.path("preferredLanguage").asText("en");
-            
-            if (textToSummarize.length() > 30000) {
-                textToSummarize = textToSummarize.substring(0, 30000); 
-            }
-
-            String fullLanguage = mapLanguage(langCode);
-            
+    @CircuitBreaker(name = "openai")
+    public void processSummaryRequest(SummaryRequestedEvent request) {
+        Long summaryId = request.summaryId();
+        String userId = request.userId() != null ? request.userId() : "";
+        boolean isGuest = userId.startsWith("guest-");
+
+        String fileHash = request.fileHash();
+        String textToSummarize = request.textContent() != null ? request.textContent() : "";
+        String langCode = request.preferredLanguage() != null ? request.preferredLanguage() : "en";
+        
+        if (textToSummarize.length() > 30000) {
+            textToSummarize = textToSummarize.substring(0, 30000); 
+        }
+
+        String fullLanguage = mapLanguage(langCode);
+        EmbeddingStore<TextSegment> targetStore = isGuest ? guestStore : userStore;
+
+        // Retry depois de o vetor já estar gravado (ex: falhou o envio do evento): o resumo sai do
+        // vetor, sem pagar outra chamada à OpenAI nem gravar um vetor duplicado
+        String summaryText = summaryId == null ? null : StoredVectors.find(targetStore, userId, "summaryId", String.valueOf(summaryId))
+                .map(TextSegment::text)
+                .orElse(null);
+
+        if (summaryText != null) {
+            log.info("♻️ Resumo {} já vetorizado: reaproveitando o texto", summaryId);
+        } else {
+            // Falhas da OpenAI/Pinecone sobem para o container e são re-tentadas nos tópicos de retry
             log.info("🤖 Gerando resumo para {} (Guest: {})", userId, isGuest);
-            String summaryText = aiAssistant.summarizeInTopics(textToSummarize, fullLanguage);
+            summaryText = aiAssistant.summarizeInTopics(textToSummarize, fullLanguage);
 
             Metadata metadata = Metadata.from("userId", userId)
                     .put("fileHash", fileHash)
@@ -78,32 +80,36 @@ public class SummaryProcessorService {
 
             var segment = TextSegment.from(summaryText, metadata);
             var embedding = embeddingModel.embed(segment).content();
-            
-            EmbeddingStore<TextSegment> targetStore = isGuest ? guestStore : userStore;
             targetStore.add(embedding, segment);
+        }
 
-            if (!isGuest) {
-                sendCompletionEvent(summaryId, summaryText, "COMPLETED");
-            }
-            
-            log.info("✅ Resumo concluído e vetorizado no index {}", isGuest ? "guest-data" : "logos");
-
-        } catch (Exception e) {
-            log.error("❌ Falha ao gerar resumo: {}", e.getMessage());
-            if (summaryId != null && !isGuest) {
-                sendCompletionEvent(summaryId, "Falha na IA: " + e.getMessage(), "FAILED");
-            }
+        if (!isGuest) {
+            sendCompletionEvent(summaryId, summaryText, "COMPLETED");
         }
+        
+        log.info("✅ Resumo concluído e vetorizado no index {}", isGuest ? "guest-data" : "logos");
     }
 
-    private void sendCompletionEvent(Long id, String text, String status) {
-        try {
-            SummaryCompletedEvent event = new SummaryCompletedEvent(id, text, status);
-            String json = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send("summary.completed", id.toString(), json);
-        } catch (Exception e) {
-            log.error("Erro ao enviar evento de conclusão", e);
+    /**
+     * Chamado pelo DLT de summary.requested quando todas as tentativas falharam:
+     * só aqui o resumo é marcado como FAILED no library-service.
+     */
+    public void handleDeadLetter(SummaryRequestedEvent request,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error,
+                                 Acknowledgment ack) {
+        log.error("💀 [DLT] Resumo {} esgotou as tentativas: {}", request.summaryId(), error);
+
+        String userId = request.userId() != null ? request.userId() : "";
+        if (request.summaryId() != null && !userId.startsWith("guest-")) {
+            sendCompletionEvent(request.summaryId(), "Falha na IA: " + error, "FAILED");
         }
+        ack.acknowledge();
+    }
+
+    private void sendCompletionEvent(Long id, String text, String status) {
+        SummaryCompletedEvent event = new SummaryCompletedEvent(id, text, status);
+        // Aguarda o ack: se o broker recusar, o pedido volta para o retry em vez de se perder
+        kafkaTemplate.send(EventTopics.SUMMARY_COMPLETED, id.toString(), event).join();
     }
 
     private String mapLanguage(String langCode) {
@@ -225,23 +225,7 @@ public class AiGalaxyController {
 
         try {
             Response<Embedding> embeddingResponse = embeddingModel.embed(term);
-            
-            Filter filter = MetadataFilterBuilder.metadataKey("userId").isEqualTo(userId)
-                    .and(MetadataFilterBuilder.metadataKey("type").isEqualTo("highlight")); // Só atrai highlights, não outras galáxias
-
-            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
-                    .queryEmbedding(embeddingResponse.content())
-                    .filter(filter) 
-                    .maxResults(50) 
-                    .minScore(0.60) 
-                    .build();
-
-           EmbeddingSearchResult<TextSegment> result = embeddingStore.search(request);
-
-            List<GravityResponse.StarMatch> matches = result.matches().stream()
-                    .filter(m -> m.embedded() != null && m.embedded().metadata() != null)
-                    .map(this::toMatch) 
-                    .collect(Collectors.toList());
+            List<GravityResponse.StarMatch> matches = gravityMatches(userId, embeddingResponse.content());
 
             log.info("🧲 Galáxia recém-nascida atraiu {} estrelas existentes.", matches.size());
             
@@ -253,6 +237,26 @@ public class AiGalaxyController {
         }
     }
 
+    // Busca da gravidade a partir de um embedding já calculado (o gRPC em lote calcula todos de uma vez)
+    public List<GravityResponse.StarMatch> gravityMatches(String userId, Embedding embedding) {
+        Filter filter = MetadataFilterBuilder.metadataKey("userId").isEqualTo(userId)
+                .and(MetadataFilterBuilder.metadataKey("type").isEqualTo("highlight")); // Só atrai highlights, não outras galáxias
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(embedding)
+                .filter(filter) 
+                .maxResults(50) 
+                .minScore(0.60) 
+                .build();
+
+        EmbeddingSearchResult<TextSegment> result = embeddingStore.search(request);
+
+        return result.matches().stream()
+                .filter(m -> m.embedded() != null && m.embedded().metadata() != null)
+                .map(this::toMatch) 
+                .collect(Collectors.toList());
+    }
+
     @PostMapping("/register")
     public void registerGalaxy(@RequestBody RegisterGalaxyRequest request) {
         log.info("🪐 Indexando nova galáxia no Pinecone: {}", request.name());
@@ -0,0 +1,82 @@
+package com.ai.organizer.processor.web;
+
+import com.ai.organizer.processor.domain.DocumentEntity;
+import com.ai.organizer.processor.repository.DocumentOwnerRepository;
+import com.ai.organizer.processor.repository.DocumentRepository;
+import com.ai.organizer.processor.service.PageImageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/ai/pages")
+@RequiredArgsConstructor
+@Slf4j
+public class PageImageController {
+
+    private final PageImageService pageImageService;
+    private final DocumentRepository documentRepository;
+    private final DocumentOwnerRepository documentOwnerRepository;
+
+    /**
+     * Página N do livro como imagem. A resposta é imutável (mesmo hash + página + largura
+     * = mesma imagem), então vai com cache longo, ETag e suporte a Range via Resource.
+     */
+    @GetMapping("/{fileHash}/{page}")
+    public ResponseEntity<Resource> getPage(
+            @PathVariable String fileHash,
+            @PathVariable int page,
+            @RequestParam(defaultValue = "960") int width,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
+    ) {
+        DocumentEntity doc = documentRepository.findByFileHash(fileHash)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Documento não encontrado"));
+
+        String userId = extractUserId(jwt);
+        // documents.user_id é só quem enviou primeiro; a posse de cada usuário está em document_owners
+        if (!documentOwnerRepository.existsByFileHashAndUserId(fileHash, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Documento de outro usuário");
+        }
+
+        try {
+            PageImageService.PageImage image = pageImageService.getPage(fileHash, doc.getStoragePath(), page, width);
+            // Solta a reserva no cache só depois que o corpo foi escrito (fim do request)
+            request.registerDestructionCallback("page-tile", image.tile()::close, RequestAttributes.SCOPE_REQUEST);
+
+            if (request.checkNotModified(image.etag())) {
+                return null;
+            }
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                    .eTag(image.etag())
+                    .contentType(MediaType.parseMediaType(image.contentType()))
+                    .body(new FileSystemResource(image.file()));
+
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (Exception e) {
+            log.error("❌ Falha ao gerar página {} de {}", page, fileHash, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao renderizar página");
+        }
+    }
+
+    private String extractUserId(Jwt jwt) {
+        String claim = jwt.getClaimAsString("preferred_username");
+        return claim != null ? claim : jwt.getSubject();
+    }
+}
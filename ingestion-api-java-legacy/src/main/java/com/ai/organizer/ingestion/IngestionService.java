@@ -1,36 +1,40 @@
 package com.ai.organizer.ingestion;
 
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.IngestionEvent;
 import com.ai.organizer.ingestion.dto.UrlIngestionRequest;
 import com.ai.organizer.ingestion.service.BlobStorageService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.Optional;
 
 @Service
 public class IngestionService {
 
     private final BlobStorageService blobStorage;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
     private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
 
     public IngestionService(BlobStorageService blobStorage, 
-                            KafkaTemplate<String, String> kafkaTemplate, 
-                            ObjectMapper objectMapper) {
+                            KafkaTemplate<String, Object> kafkaTemplate) {
         this.blobStorage = blobStorage;
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -38,60 +42,55 @@ public class IngestionService {
      * AGORA RECEBE O IDIOMA COMO PARÂMETRO
      */
     public Mono<String> processUpload(FilePart filePart, String userId, String language) {
-        // 1. Carrega o arquivo para a memória de forma reativa
-        return DataBufferUtils.join(filePart.content())
-            .flatMap(dataBuffer -> {
-                try {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-
+        // 1. Grava o arquivo em disco de forma reativa (o livro nunca fica inteiro na memória)
+        return Mono.fromCallable(() -> Files.createTempFile("upload-", ".tmp"))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(tempFile -> filePart.transferTo(tempFile)
+                .then(Mono.fromCallable(() -> {
                     // 2. Captura Tamanho (Para controle de quota)
-                    long fileSize = bytes.length;
+                    long fileSize = Files.size(tempFile);
 
-                    // 3. Calcula Hash SHA-256 (Identidade única do conteúdo)
+                    // 3. Calcula Hash SHA-256 (Identidade única do conteúdo), lendo o arquivo em blocos
                     MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                    byte[] hashBytes = digest.digest(bytes);
-                    String hash = bytesToHex(hashBytes);
-                    
-                    // Define caminho no Google Cloud
-                    String storageFilename = "uploads/" + hash + "/" + filePart.filename();
-                    String contentType = filePart.headers().getContentType() != null 
-                            ? filePart.headers().getContentType().toString() 
-                            : "application/octet-stream";
-
-                    // 4. Upload para o Google Cloud (Bloqueante envolvido em thread pool elástica)
-                    return Mono.fromRunnable(() -> {
-                        blobStorage.upload(storageFilename, bytes, contentType);
-                        log.info("☁️ Upload concluído no GCS: {} ({} bytes)", storageFilename, fileSize);
-                    }).subscribeOn(Schedulers.boundedElastic())
-                    .then(Mono.defer(() -> {
-                        try {
-                            // 5. Sucesso -> Envia evento Kafka com o tamanho do arquivo E O IDIOMA
-                            IngestionEvent event = new IngestionEvent(
-                                hash, 
-                                storageFilename, // Path no GCS
-                                filePart.filename(), 
-                                userId, 
-                                System.currentTimeMillis(),
-                                fileSize,
-                                language // <--- PASSANDO O IDIOMA AQUI
-                            );
-                            
-                            // Serializa para JSON String (evita problemas de tipo no consumer)
-                            String jsonEvent = objectMapper.writeValueAsString(event);
-                            kafkaTemplate.send("document.ingestion", hash, jsonEvent);
-                            
-                            return Mono.just(hash);
-                        } catch (Exception e) {
-                            return Mono.error(e);
+                    try (InputStream in = new DigestInputStream(Files.newInputStream(tempFile), digest)) {
+                        in.transferTo(OutputStream.nullOutputStream());
+                    }
+                    String hash = bytesToHex(digest.digest());
+
+                    // Define caminho no Google Cloud (ou reaproveita o do mesmo conteúdo já armazenado)
+                    String storageFilename = storedPath(hash).orElse(null);
+                    if (storageFilename != null) {
+                        log.info("♻️ Conteúdo já armazenado: upload ignorado, reaproveitando {}", storageFilename);
+                    } else {
+                        storageFilename = "uploads/" + hash + "/" + filePart.filename();
+                        String contentType = filePart.headers().getContentType() != null
+                                ? filePart.headers().getContentType().toString()
+                                : "application/octet-stream";
+
+                        // 4. Upload resumível para o Google Cloud a partir do arquivo (bloqueante, na thread pool elástica)
+                        try (FileChannel channel = FileChannel.open(tempFile)) {
+                            blobStorage.upload(storageFilename, channel, contentType);
                         }
-                    }));
-
-                } catch (Exception e) {
-                    return Mono.error(e);
-                }
-            });
+                        log.info("☁️ Upload concluído no GCS: {} ({} bytes)", storageFilename, fileSize);
+                    }
+
+                    // 5. Sucesso -> Envia evento Kafka com o tamanho do arquivo E O IDIOMA
+                    IngestionEvent event = new IngestionEvent(
+                        hash,
+                        storageFilename, // Path no GCS
+                        filePart.filename(),
+                        userId,
+                        System.currentTimeMillis(),
+                        fileSize,
+                        language // <--- PASSANDO O IDIOMA AQUI
+                    );
+
+                    // EventSerializer codifica o record em Avro binário
+                    kafkaTemplate.send(EventTopics.DOCUMENT_INGESTION, hash, event);
+
+                    return hash;
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .doFinally(signal -> deleteQuietly(tempFile)));
     }
 
     /**
@@ -101,38 +100,40 @@ public class IngestionService {
         // Envolvemos em Mono.fromCallable porque IO de rede (URL.openStream) é bloqueante
         return Mono.fromCallable(() -> {
             log.info("🌐 Baixando PDF remoto: {}", request.title());
-            
-            // 1. Download do arquivo remoto para memória
-            try (InputStream in = new URL(request.pdfUrl()).openStream();
-                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = in.read(buffer)) != -1) {
-                    out.write(buffer, 0, bytesRead);
-                }
-                byte[] fileBytes = out.toByteArray();
-
-                // 2. Captura Tamanho
-                long fileSize = fileBytes.length;
 
-                // 3. Calcula Hash
+            Path tempFile = Files.createTempFile("url-upload-", ".pdf");
+            try {
+                // 1. Download do arquivo remoto para disco, calculando o Hash no caminho
                 MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                byte[] hashBytes = digest.digest(fileBytes);
-                String hash = bytesToHex(hashBytes);
-
-                // 4. Sanitiza nome do arquivo
-                String safeFilename = request.title().replaceAll("[^a-zA-Z0-9.-]", "_") + ".pdf";
-                String storagePath = "uploads/" + hash + "/" + safeFilename;
+                try (InputStream in = new DigestInputStream(new URL(request.pdfUrl()).openStream(), digest)) {
+                    Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                }
 
-                // 5. Upload para o Bucket
-                blobStorage.upload(storagePath, fileBytes, "application/pdf");
-                log.info("☁️ Download remoto salvo no GCS: {} ({} bytes)", storagePath, fileSize);
+                // 2. Captura Tamanho
+                long fileSize = Files.size(tempFile);
+
+                // 3. Hash
+                String hash = bytesToHex(digest.digest());
+
+                String storagePath = storedPath(hash).orElse(null);
+                if (storagePath != null) {
+                    log.info("♻️ Conteúdo já armazenado: upload ignorado, reaproveitando {}", storagePath);
+                } else {
+                    // 4. Sanitiza nome do arquivo
+                    String safeFilename = request.title().replaceAll("[^a-zA-Z0-9.-]", "_") + ".pdf";
+                    storagePath = "uploads/" + hash + "/" + safeFilename;
+
+                    // 5. Upload resumível para o Bucket
+                    try (FileChannel channel = FileChannel.open(tempFile)) {
+                        blobStorage.upload(storagePath, channel, "application/pdf");
+                    }
+                    log.info("☁️ Download remoto salvo no GCS: {} ({} bytes)", storagePath, fileSize);
+                }
 
                 // 6. Dispara evento Kafka
                 IngestionEvent event = new IngestionEvent(
                     hash,
-                    storagePath, 
+                    storagePath,
                     request.title() + ".pdf", // Nome bonito para a biblioteca
                     userId,
                     System.currentTimeMillis(),
@@ -140,14 +141,32 @@ public class IngestionService {
                     "en" // Default para URL externa por enquanto (ou passe via request se quiser)
                 );
 
-                String jsonEvent = objectMapper.writeValueAsString(event);
-                kafkaTemplate.send("document.ingestion", hash, jsonEvent);
+                kafkaTemplate.send(EventTopics.DOCUMENT_INGESTION, hash, event);
 
                 return hash;
+            } finally {
+                deleteQuietly(tempFile);
             }
         }).subscribeOn(Schedulers.boundedElastic()); // Executa em thread pool apropriada para I/O
     }
 
+    /**
+     * Os arquivos ficam em uploads/{sha256}/: se o hash já tem objeto no bucket (enviado por qualquer
+     * usuário), o conteúdo é o mesmo e o upload é dispensado. O evento sai do mesmo jeito, com o caminho
+     * existente: a library-service registra a posse do novo usuário e o ai-processor não reprocessa.
+     */
+    private Optional<String> storedPath(String hash) {
+        return blobStorage.findFirst("uploads/" + hash + "/");
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠️ Não foi possível apagar o temporário {}: {}", file, e.getMessage());
+        }
+    }
+
     private String bytesToHex(byte[] hash) {
         StringBuilder hexString = new StringBuilder(2 * hash.length);
         for (byte b : hash) {
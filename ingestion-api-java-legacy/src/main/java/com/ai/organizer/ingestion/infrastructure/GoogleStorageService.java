@@ -1,13 +1,23 @@
 package com.ai.organizer.ingestion.infrastructure;
 
 import com.ai.organizer.ingestion.service.BlobStorageService;
+import com.google.api.gax.paging.Page;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -15,6 +25,9 @@ import java.util.concurrent.TimeUnit;
 // @Profile("prod") // Descomente se quiser usar só em produção
 public class GoogleStorageService implements BlobStorageService {
 
+    // Tamanho de cada parte do upload resumível e de cada leitura (múltiplo de 256 KiB, exigido pelo GCS)
+    static final int CHUNK_SIZE = 2 * 1024 * 1024;
+
     private final Storage storage;
 
     @Value("${gcp.storage.bucket-name}")
@@ -36,6 +49,18 @@ public class GoogleStorageService implements BlobStorageService {
         System.out.println("☁️ Uploaded to GCS: " + filename);
     }
 
+    @Override
+    public Optional<String> findFirst(String prefix) {
+        // Uma página de um item: uma chamada de listagem, sem baixar nada
+        Page<Blob> page = storage.list(bucketName,
+                Storage.BlobListOption.prefix(prefix),
+                Storage.BlobListOption.pageSize(1));
+        for (Blob blob : page.getValues()) {
+            return Optional.of(blob.getName());
+        }
+        return Optional.empty();
+    }
+
     @Override
     public byte[] download(String filename) {
         BlobId blobId = BlobId.of(bucketName, filename);
@@ -48,6 +73,63 @@ public class GoogleStorageService implements BlobStorageService {
         return blob.getContent();
     }
 
+    @Override
+    public void upload(String filename, ReadableByteChannel content, String contentType) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, filename))
+                .setContentType(contentType)
+                .build();
+
+        try (WriteChannel writer = storage.writer(blobInfo)) {
+            writer.setChunkSize(CHUNK_SIZE);
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            while (content.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    writer.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha no upload para o GCS: " + filename, e);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openReader(String filename, long offset, long length) {
+        ReadChannel reader = storage.reader(BlobId.of(bucketName, filename));
+        reader.setChunkSize(CHUNK_SIZE);
+        try {
+            if (offset > 0) reader.seek(offset);
+            if (length >= 0) reader.limit(offset + length);
+        } catch (IOException e) {
+            reader.close();
+            throw new UncheckedIOException("Falha ao abrir leitura no GCS: " + filename, e);
+        }
+        return reader;
+    }
+
+    @Override
+    public Path downloadToTempFile(String filename) {
+        Blob blob = storage.get(BlobId.of(bucketName, filename));
+        if (blob == null) {
+            throw new RuntimeException("Arquivo não encontrado no GCS: " + filename);
+        }
+
+        Path file;
+        try {
+            file = Files.createTempFile("blob-", extension(filename));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar arquivo temporário para " + filename, e);
+        }
+        try {
+            blob.downloadTo(file);
+            return file;
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
     @Override
     public URL getSignedUrl(String filename, int minutesToExpire) {
         BlobId blobId = BlobId.of(bucketName, filename);
@@ -61,4 +143,19 @@ public class GoogleStorageService implements BlobStorageService {
                 Storage.SignUrlOption.withV4Signature()
         );
     }
-}
\ No newline at end of file
+
+    // Só a extensão: o nome original pode passar do limite do sistema de arquivos
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > filename.lastIndexOf('/') ? filename.substring(dot) : ".tmp";
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // arquivo temporário: o sistema limpa depois
+        }
+    }
+}
@@ -1,13 +1,51 @@
 package com.ai.organizer.ingestion.service; // Ajuste o pacote
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
 
 public interface BlobStorageService {
     // Sobe o arquivo e retorna o caminho/ID
     void upload(String filename, byte[] content, String contentType);
+
+    // Upload resumível em partes: só um bloco do conteúdo fica na memória por vez
+    void upload(String filename, ReadableByteChannel content, String contentType);
+
+    default void upload(String filename, InputStream content, String contentType) {
+        upload(filename, Channels.newChannel(content), contentType);
+    }
     
+    // Primeiro objeto com o prefixo (ex: uploads/{hash}/), para saber se o conteúdo já está no bucket
+    Optional<String> findFirst(String prefix);
+
     // Baixa o conteúdo (para a IA processar)
     byte[] download(String filename);
+
+    // Faixa [offset, offset + length) do objeto; length negativo lê até o fim. Quem chama fecha o canal
+    ReadableByteChannel openReader(String filename, long offset, long length);
+
+    default byte[] downloadRange(String filename, long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (ReadableByteChannel reader = openReader(filename, offset, length)) {
+            while (buffer.hasRemaining()) {
+                if (reader.read(buffer) < 0) break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + filename, e);
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    // Baixa em stream para um arquivo temporário; quem chama apaga o arquivo
+    Path downloadToTempFile(String filename);
     
     // Gera link temporário para o Frontend (O Pulo do Gato)
     URL getSignedUrl(String filename, int minutesToExpire);
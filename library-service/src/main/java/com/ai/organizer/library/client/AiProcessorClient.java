@@ -1,90 +1,338 @@
 package com.ai.organizer.library.client;
 
 import com.ai.organizer.library.client.dto.AiGravityResponse;
-import java.util.List;
-import java.util.Map;
-
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cliente do ai-processor, assíncrono: a thread de quem chama não fica presa enquanto o upstream responde.
+ * Dois transportes (ai.processor.transport):
+ *
+ * - http (padrão): HttpClient do JDK com conexões reaproveitadas (HTTP/2 via h2c quando o ai-processor
+ *   aceita, HTTP/1.1 keep-alive senão), JSON e o JWT do usuário repassado; retry e hedge implementados aqui.
+ * - grpc: {@link AiProcessorGrpcTransport} (logos-rpc), protobuf num canal HTTP/2 multiplexado, com
+ *   retry/hedge pela política do canal e o prazo propagado ao servidor.
+ *
+ * O resto vale para os dois:
+ *
+ * - Prazo por chamada (ai.processor.*-deadline-ms) que vale para todas as tentativas juntas.
+ * - Buscas (sugestões do workbench, gravidade) são idempotentes: até max-attempts tentativas com
+ *   backoff exponencial e jitter em erro de rede, 429 e 502..504, e uma requisição de reserva
+ *   (hedge) se a primeira não responder em hedge-delay-ms; vale a primeira que responder.
+ * - Buscas idênticas simultâneas compartilham uma única requisição ({@link SingleFlight}).
+ * - O registro de galáxia não é idempotente no Pinecone (cada add é um vetor novo): uma tentativa só.
+ *
+ * Métricas: ai.processor.client.requests (histograma por endpoint, transporte e resultado), .retries,
+ * .hedges (só HTTP; no gRPC as tentativas ficam nas métricas do canal) e .coalesced.
+ */
 @Component
+@Slf4j
 public class AiProcessorClient {
 
-    private final RestClient restClient;
+    private enum Endpoint {
+        SUGGEST_LINKS("suggest-links", "/workbench/suggest-links", true),
+        GRAVITY("gravity", "/galaxy/gravity", true),
+        REGISTER_GALAXY("register-galaxy", "/galaxy/register", false);
+
+        private final String tag;
+        private final String path;
+        private final boolean idempotent;
 
-    public AiProcessorClient(RestClient.Builder builder, 
-                            @Value("${ai.processor.url:http://localhost:8081}") String aiUrl) {
-        this.restClient = builder.baseUrl(aiUrl + "/api/ai").build();
+        Endpoint(String tag, String path, boolean idempotent) {
+            this.tag = tag;
+            this.path = path;
+            this.idempotent = idempotent;
+        }
     }
 
-    public List<AiGravityResponse.StarMatch> getWorkbenchSuggestions(String text, String fileHash, String userId) {
+    private record Call(Endpoint endpoint, String contentType, String body, Map<String, String> headers, long deadlineAt) {}
+
+    private record SuggestionKey(String userId, String fileHash, String text) {}
+
+    private record GravityKey(String userId, String term) {}
+
+    private static final TypeReference<List<AiGravityResponse.StarMatch>> MATCH_LIST = new TypeReference<>() {};
+    private static final TypeReference<AiGravityResponse> GRAVITY_RESPONSE = new TypeReference<>() {};
+
+    private static final long BACKOFF_BASE_MS = 100;
+    private static final long BACKOFF_MAX_MS = 1000;
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration searchDeadline;
+    private final Duration writeDeadline;
+    private final Duration hedgeDelay;
+    private final int maxAttempts;
+    private final AiProcessorGrpcTransport grpc;
+
+    private final SingleFlight<SuggestionKey, List<AiGravityResponse.StarMatch>> suggestionFlights;
+    private final SingleFlight<GravityKey, AiGravityResponse> gravityFlights;
+
+    public AiProcessorClient(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             ObjectProvider<AiProcessorGrpcTransport> grpcTransport,
+                             @Value("${ai.processor.url:http://localhost:8081}") String aiUrl,
+                             @Value("${ai.processor.connect-timeout-ms:1000}") long connectTimeoutMs,
+                             @Value("${ai.processor.search-deadline-ms:3000}") long searchDeadlineMs,
+                             @Value("${ai.processor.write-deadline-ms:5000}") long writeDeadlineMs,
+                             @Value("${ai.processor.hedge-delay-ms:400}") long hedgeDelayMs,
+                             @Value("${ai.processor.max-attempts:3}") int maxAttempts) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.baseUrl = aiUrl + "/api/ai";
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.searchDeadline = Duration.ofMillis(searchDeadlineMs);
+        this.writeDeadline = Duration.ofMillis(writeDeadlineMs);
+        this.hedgeDelay = Duration.ofMillis(hedgeDelayMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.grpc = grpcTransport.getIfAvailable();
+        this.suggestionFlights = new SingleFlight<>(
+                meterRegistry.counter("ai.processor.client.coalesced", "endpoint", Endpoint.SUGGEST_LINKS.tag));
+        this.gravityFlights = new SingleFlight<>(
+                meterRegistry.counter("ai.processor.client.coalesced", "endpoint", Endpoint.GRAVITY.tag));
+    }
+
+    public CompletableFuture<List<AiGravityResponse.StarMatch>> getWorkbenchSuggestionsAsync(String text, String fileHash, String userId) {
         var payload = Map.of(
             "text", text,
             "fileHash", fileHash,
             "userId", userId,
             "topK", 5
         );
+        // O token é lido aqui, na thread da requisição; o resto roda fora dela
+        Map<String, String> headers = Map.of(HttpHeaders.AUTHORIZATION, "Bearer " + getJwtTokenFromContext());
 
-        try {
-            return restClient.post()
-                    .uri("/workbench/suggest-links") 
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + getJwtTokenFromContext())
-                    .body(payload)
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<AiGravityResponse.StarMatch>>() {}); 
-        } catch (Exception e) {
-            System.err.println("⚠️ Erro ao buscar sugestões no AI Processor: " + e.getMessage());
-            return List.of();
+        return suggestionFlights.run(new SuggestionKey(userId, fileHash, text),
+                        () -> grpc != null
+                                ? timed(Endpoint.SUGGEST_LINKS, () -> grpc.suggestLinks(userId, fileHash, text, 5, searchDeadline))
+                                : execute(Endpoint.SUGGEST_LINKS, MediaType.APPLICATION_JSON_VALUE, toJson(payload), headers,
+                                        searchDeadline, MATCH_LIST))
+                .exceptionally(e -> {
+                    log.warn("⚠️ Erro ao buscar sugestões no AI Processor: {}", describe(e));
+                    return List.of();
+                });
+    }
+
+    public List<AiGravityResponse.StarMatch> getWorkbenchSuggestions(String text, String fileHash, String userId) {
+        return getWorkbenchSuggestionsAsync(text, fileHash, userId).join();
+    }
+
+    public CompletableFuture<AiGravityResponse> getGravityMatchesAsync(String term) {
+        String userId = getUserIdFromContext();
+        Map<String, String> headers = Map.of(
+                HttpHeaders.AUTHORIZATION, "Bearer " + getJwtTokenFromContext(),
+                "X-User-Id", userId);
+
+        return gravityFlights.run(new GravityKey(userId, term),
+                        () -> grpc != null
+                                ? timed(Endpoint.GRAVITY, () -> grpc.gravity(userId, term, searchDeadline))
+                                : execute(Endpoint.GRAVITY, MediaType.TEXT_PLAIN_VALUE, term, headers,
+                                        searchDeadline, GRAVITY_RESPONSE))
+                .exceptionally(e -> {
+                    log.warn("⚠️ Falha ao contatar AI Processor: {}", describe(e));
+                    return new AiGravityResponse(term, List.of());
+                });
+    }
+
+    public AiGravityResponse getGravityMatches(String term) {
+        return getGravityMatchesAsync(term).join();
+    }
+
+    // Não espera a indexação: a galáxia já existe no banco e a falha só é registrada no log
+    public void registerGalaxy(String id, String name, String userId) {
+        var payload = Map.of("id", id, "name", name, "userId", userId);
+        Map<String, String> headers = Map.of(HttpHeaders.AUTHORIZATION, "Bearer " + getJwtTokenFromContext());
+        CompletableFuture<Void> call = grpc != null
+                ? timed(Endpoint.REGISTER_GALAXY, () -> grpc.registerGalaxy(id, name, userId, writeDeadline))
+                : execute(Endpoint.REGISTER_GALAXY, MediaType.APPLICATION_JSON_VALUE, toJson(payload), headers, writeDeadline, null);
+        call.exceptionally(e -> {
+            log.error("⚠️ Falha ao registrar galáxia no Pinecone: {}", describe(e));
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> execute(Endpoint endpoint, String contentType, String body, Map<String, String> headers,
+                                             Duration deadline, TypeReference<T> type) {
+        Call call = new Call(endpoint, contentType, body, headers, System.nanoTime() + deadline.toNanos());
+        return timed(endpoint, () -> attempt(call, 1).thenApply(response -> decode(response, type)));
+    }
+
+    private <T> CompletableFuture<T> timed(Endpoint endpoint, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((value, error) -> Timer.builder("ai.processor.client.requests")
+                .tag("endpoint", endpoint.tag)
+                .tag("transport", grpc != null ? "grpc" : "http")
+                .tag("outcome", error == null ? "success" : outcome(error))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> attempt(Call call, int attempt) {
+        CompletableFuture<HttpResponse<byte[]>> sent = call.endpoint().idempotent ? hedged(call) : send(call);
+        return sent.handle((response, error) -> {
+            Throwable cause = unwrap(error);
+            if (cause == null && isSuccess(response)) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Throwable failure = cause != null ? cause
+                    : new IllegalStateException("AI Processor respondeu " + response.statusCode());
+            if (!call.endpoint().idempotent || attempt >= maxAttempts || !isRetryable(response, cause)) {
+                return CompletableFuture.<HttpResponse<byte[]>>failedFuture(failure);
+            }
+            // Backoff exponencial com jitter total; se não cabe mais no prazo, desiste já
+            long backoffMs = ThreadLocalRandom.current().nextLong(
+                    Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << (attempt - 1)) + 1);
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs) >= call.deadlineAt()) {
+                return CompletableFuture.<HttpResponse<byte[]>>failedFuture(failure);
+            }
+            meterRegistry.counter("ai.processor.client.retries", "endpoint", call.endpoint().tag).increment();
+            return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> attempt(call, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Manda a requisição e, se ela não responder em hedge-delay-ms, uma segunda igual. A primeira
+     * resposta de sucesso vence e a outra é cancelada; só falha quando todas as enviadas falharem.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> hedged(Call call) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(call.deadlineAt() - System.nanoTime());
+        if (hedgeDelay.isZero() || remainingMs <= hedgeDelay.toMillis()) {
+            return send(call);
         }
+
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<byte[]>>> sent = new CopyOnWriteArrayList<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<HttpResponse<byte[]>, Throwable> settle = (response, error) -> {
+            if (error == null && isSuccess(response)) {
+                if (result.complete(response)) sent.forEach(f -> f.cancel(true));
+            } else if (outstanding.decrementAndGet() == 0) {
+                if (error != null) result.completeExceptionally(error);
+                else result.complete(response);
+            }
+        };
+
+        CompletableFuture<HttpResponse<byte[]>> primary = send(call);
+        sent.add(primary);
+        primary.whenComplete(settle);
+
+        CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            // Se a primeira já terminou (mesmo com erro) não há o que cobrir: quem decide é o retry
+            if (result.isDone() || outstanding.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) return;
+            meterRegistry.counter("ai.processor.client.hedges", "endpoint", call.endpoint().tag).increment();
+            CompletableFuture<HttpResponse<byte[]>> backup = send(call);
+            sent.add(backup);
+            backup.whenComplete(settle);
+        });
+        return result;
     }
 
-    private String getJwtTokenFromContext() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication instanceof JwtAuthenticationToken jwtToken) {
-            return jwtToken.getToken().getTokenValue();
+    private CompletableFuture<HttpResponse<byte[]>> send(Call call) {
+        long remainingNanos = call.deadlineAt() - System.nanoTime();
+        if (remainingNanos <= 0) {
+            return CompletableFuture.failedFuture(new HttpTimeoutException("Prazo esgotado antes do envio"));
         }
-        return "";
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + call.endpoint().path))
+                .timeout(Duration.ofNanos(remainingNanos))
+                .header(HttpHeaders.CONTENT_TYPE, call.contentType())
+                .POST(HttpRequest.BodyPublishers.ofString(call.body()));
+        call.headers().forEach(request::header);
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
     }
 
-    public AiGravityResponse getGravityMatches(String term) {
-        
-        String token = getJwtTokenFromContext();
-        String userId = getUserIdFromContext();
+    private <T> T decode(HttpResponse<byte[]> response, TypeReference<T> type) {
+        if (type == null || response.body().length == 0) return null;
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new CompletionException("Resposta inválida do AI Processor", e);
+        }
+    }
 
+    private String toJson(Object payload) {
         try {
-            return restClient.post()
-                    .uri("/galaxy/gravity")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                    .header("X-User-Id", userId) 
-                    .body(term)
-                    .retrieve()
-                    .body(AiGravityResponse.class);
-        } catch (Exception e) {
-            System.err.println("⚠️ Falha ao contatar AI Processor: " + e.getMessage());
-            return new AiGravityResponse(term, java.util.List.of());
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload inválido para o AI Processor", e);
         }
     }
 
-    
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
 
-     public void registerGalaxy(String id, String name, String userId) {
-        try {
-            var payload = Map.of("id", id, "name", name, "userId", userId);
-            restClient.post()
-                    .uri("/galaxy/register")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + getJwtTokenFromContext())
-                    .body(payload)
-                    .retrieve()
-                    .toBodilessEntity();
-        } catch (Exception e) {
-            System.err.println("⚠️ Falha ao registrar galáxia no Pinecone: " + e.getMessage());
+    // Erro de rede antes do prazo, sobrecarga ou gateway: vale tentar de novo
+    private static boolean isRetryable(HttpResponse<?> response, Throwable cause) {
+        if (cause != null) return cause instanceof IOException;
+        int status = response.statusCode();
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static String outcome(Throwable error) {
+        Throwable cause = unwrap(error);
+        boolean timeout = cause instanceof HttpTimeoutException
+                || cause instanceof StatusRuntimeException grpcError && grpcError.getStatus().getCode() == Status.Code.DEADLINE_EXCEEDED;
+        return timeout ? "timeout" : "error";
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+    }
+
+    private String getJwtTokenFromContext() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtToken) {
+            return jwtToken.getToken().getTokenValue();
         }
+        return "";
     }
 
     private String getUserIdFromContext() {
@@ -99,4 +347,4 @@ public class AiProcessorClient {
         }
         return "unknown_user";
     }
-}
\ No newline at end of file
+}
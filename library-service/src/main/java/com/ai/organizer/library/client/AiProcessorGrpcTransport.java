@@ -0,0 +1,149 @@
+package com.ai.organizer.library.client;
+
+import com.ai.organizer.library.client.dto.AiGravityResponse;
+import com.ai.organizer.rpc.ai.v1.AiProcessorGrpc;
+import com.ai.organizer.rpc.ai.v1.GravityRequest;
+import com.ai.organizer.rpc.ai.v1.GravityResponse;
+import com.ai.organizer.rpc.ai.v1.RegisterGalaxyRequest;
+import com.ai.organizer.rpc.ai.v1.StarMatch;
+import com.ai.organizer.rpc.ai.v1.SuggestLinksRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Transporte gRPC do {@link AiProcessorClient} (ai.processor.transport=grpc): um canal HTTP/2 para o
+ * ai-processor, multiplexando todas as chamadas, com o usuário no próprio pedido em vez do JWT.
+ *
+ * O prazo de cada chamada vai no grpc-timeout e o servidor descarta o que já venceu. Retry e hedge das
+ * buscas ficam na política de serviço do canal (mesmos max-attempts / hedge-delay-ms do HTTP); o
+ * registro de galáxia não tem política, é uma tentativa só.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.processor.transport", havingValue = "grpc")
+@Slf4j
+public class AiProcessorGrpcTransport {
+
+    private static final Metadata.Key<String> TOKEN = Metadata.Key.of("x-internal-token", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ManagedChannel channel;
+    private final AiProcessorGrpc.AiProcessorStub stub;
+
+    public AiProcessorGrpcTransport(@Value("${ai.processor.grpc-target:localhost:9090}") String target,
+                                    @Value("${ai.processor.grpc-token:}") String token,
+                                    @Value("${ai.processor.max-attempts:3}") int maxAttempts,
+                                    @Value("${ai.processor.hedge-delay-ms:400}") long hedgeDelayMs) {
+        this.channel = NettyChannelBuilder.forTarget(target)
+                .usePlaintext()
+                .defaultServiceConfig(serviceConfig(Math.max(1, maxAttempts), hedgeDelayMs))
+                .enableRetry()
+                .keepAliveTime(30, TimeUnit.SECONDS)
+                .keepAliveWithoutCalls(true)
+                .build();
+        Metadata headers = new Metadata();
+        if (!token.isBlank()) headers.put(TOKEN, token);
+        this.stub = AiProcessorGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        log.info("📡 AI Processor via gRPC em {}", target);
+    }
+
+    CompletableFuture<AiGravityResponse> gravity(String userId, String term, Duration deadline) {
+        CompletableFuture<GravityResponse> future = new CompletableFuture<>();
+        withDeadline(deadline).gravity(GravityRequest.newBuilder().setUserId(userId).setTerm(term).build(), unary(future));
+        return future.thenApply(AiProcessorGrpcTransport::fromProto);
+    }
+
+    CompletableFuture<List<AiGravityResponse.StarMatch>> suggestLinks(String userId, String fileHash, String text, int topK,
+                                                                      Duration deadline) {
+        CompletableFuture<com.ai.organizer.rpc.ai.v1.SuggestLinksResponse> future = new CompletableFuture<>();
+        withDeadline(deadline).suggestLinks(SuggestLinksRequest.newBuilder()
+                .setUserId(userId)
+                .setFileHash(fileHash)
+                .setText(text)
+                .setTopK(topK)
+                .build(), unary(future));
+        return future.thenApply(response -> response.getMatchesList().stream().map(AiProcessorGrpcTransport::fromProto).toList());
+    }
+
+    CompletableFuture<Void> registerGalaxy(String galaxyId, String name, String userId, Duration deadline) {
+        CompletableFuture<com.ai.organizer.rpc.ai.v1.RegisterGalaxyResponse> future = new CompletableFuture<>();
+        withDeadline(deadline).registerGalaxy(RegisterGalaxyRequest.newBuilder()
+                .setGalaxyId(galaxyId)
+                .setName(name)
+                .setUserId(userId)
+                .build(), unary(future));
+        return future.thenApply(response -> null);
+    }
+
+    private AiProcessorGrpc.AiProcessorStub withDeadline(Duration deadline) {
+        return stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> StreamObserver<T> unary(CompletableFuture<T> future) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                future.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                future.complete(null);
+            }
+        };
+    }
+
+    private static AiGravityResponse fromProto(GravityResponse response) {
+        return new AiGravityResponse(response.getTerm(),
+                response.getMatchesList().stream().map(AiProcessorGrpcTransport::fromProto).toList());
+    }
+
+    private static AiGravityResponse.StarMatch fromProto(StarMatch match) {
+        return new AiGravityResponse.StarMatch(match.getHighlightId(), match.getScore(), match.getText());
+    }
+
+    /**
+     * Política de serviço do gRPC (formato JSON do service config, números como Double). Buscas unárias
+     * com hedge, que também repete na hora em UNAVAILABLE / RESOURCE_EXHAUSTED.
+     */
+    private static Map<String, Object> serviceConfig(int maxAttempts, long hedgeDelayMs) {
+        if (maxAttempts < 2 || hedgeDelayMs <= 0) return Map.of();
+        String service = AiProcessorGrpc.SERVICE_NAME;
+        double attempts = Math.min(maxAttempts, 5);
+
+        Map<String, Object> searches = Map.of(
+                "name", List.of(
+                        Map.of("service", service, "method", "Gravity"),
+                        Map.of("service", service, "method", "SuggestLinks")),
+                "hedgingPolicy", Map.of(
+                        "maxAttempts", attempts,
+                        "hedgingDelay", (hedgeDelayMs / 1000.0) + "s",
+                        "nonFatalStatusCodes", List.of("UNAVAILABLE", "RESOURCE_EXHAUSTED")));
+        return Map.of("methodConfig", List.of(searches));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        channel.shutdown();
+        if (!channel.awaitTermination(5, TimeUnit.SECONDS)) channel.shutdownNow();
+    }
+}
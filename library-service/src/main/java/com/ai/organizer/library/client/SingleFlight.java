@@ -0,0 +1,44 @@
+package com.ai.organizer.library.client;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Chamadas idênticas em andamento compartilham uma única ida ao upstream: quem chega enquanto a
+ * primeira ainda não terminou recebe o mesmo resultado. Terminada a chamada a chave sai do mapa,
+ * então nada fica guardado (não é cache).
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    SingleFlight(Counter coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    CompletableFuture<V> run(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        try {
+            call.get().whenComplete((value, error) -> {
+                inFlight.remove(key, shared);
+                if (error != null) shared.completeExceptionally(error);
+                else shared.complete(value);
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+        // Cópia: quem chamou não consegue completar/cancelar o resultado dos outros
+        return shared.copy();
+    }
+}
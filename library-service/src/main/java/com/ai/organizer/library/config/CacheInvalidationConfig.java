@@ -0,0 +1,31 @@
+package com.ai.organizer.library.config;
+
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Assinatura do canal de invalidação do {@link ReadModelCache}: cada réplica descarta a própria
+ * cópia local quando outra escreve.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.cache.redis-enabled", havingValue = "true")
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   ReadModelCache cache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ReadModelCache.CHANNEL));
+        return container;
+    }
+}
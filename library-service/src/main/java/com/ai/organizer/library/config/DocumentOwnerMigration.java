@@ -0,0 +1,32 @@
+package com.ai.organizer.library.config;
+
+import com.ai.organizer.library.repository.StatsCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria a posse (document_owners) dos documentos que entraram antes da deduplicação, idempotente a cada
+ * subida. Como em IdSequenceMigration, roda depois do ddl-auto e antes dos consumidores: quando o
+ * primeiro lote chega, toda estante antiga já tem suas linhas. Durante um deploy gradual, documentos
+ * gravados por réplicas antigas ganham a posse na próxima subida.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentOwnerMigration {
+
+    private final StatsCounterRepository counters;
+    // Só para garantir a ordem: as tabelas já existem quando este bean inicializa
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void migrate() {
+        int created = counters.backfillOwners();
+        if (created > 0) {
+            log.info("📚 Estantes migradas: {} posses criadas a partir de documents", created);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ai.organizer.library.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Migra os ids de IDENTITY para sequência com incremento 50 (allocationSize das entidades), idempotente
+ * a cada subida. Roda depois do ddl-auto (depende do EntityManagerFactory) e antes dos consumidores
+ * e do servidor web, então nenhum insert acontece com a sequência ainda em incremento 1.
+ *
+ * - Banco antigo: a coluna IDENTITY continua, só que a sequência dela passa a andar de 50 em 50.
+ * - Banco novo: o Hibernate cria a sequência mas não o DEFAULT; ele é adicionado aqui.
+ * Nos dois casos os INSERTs sem id (LibraryBatchWriter, BulkWriter) seguem usando a mesma sequência:
+ * cada nextval é o topo de um bloco que ninguém mais recebe, então não colidem com os blocos do Hibernate.
+ * A sequência é sempre posta acima do maior id existente.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IdSequenceMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    // Tabela → sequência (mesmo nome do @SequenceGenerator)
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "user_highlights", "user_highlights_id_seq",
+            "user_summaries", "user_summaries_id_seq",
+            "user_galaxies", "user_galaxies_id_seq",
+            "star_galaxy_links", "star_galaxy_links_id_seq");
+
+    private static final String MIGRATION = """
+            DO $$
+            DECLARE
+                current_sequence text;
+                is_identity boolean;
+                next_free bigint;
+            BEGIN
+                IF to_regclass('%1$s') IS NULL THEN
+                    RETURN;
+                END IF;
+                current_sequence := pg_get_serial_sequence('%1$s', 'id');
+                SELECT attidentity <> '' INTO is_identity
+                FROM pg_attribute WHERE attrelid = '%1$s'::regclass AND attname = 'id';
+
+                IF is_identity THEN
+                    IF current_sequence <> 'public.%2$s' THEN
+                        IF to_regclass('%2$s') IS NOT NULL THEN
+                            DROP SEQUENCE %2$s;
+                        END IF;
+                        EXECUTE format('ALTER SEQUENCE %%s RENAME TO %2$s', current_sequence);
+                    END IF;
+                    ALTER TABLE %1$s ALTER COLUMN id SET INCREMENT BY %3$s;
+                ELSE
+                    CREATE SEQUENCE IF NOT EXISTS %2$s INCREMENT BY %3$s;
+                    ALTER SEQUENCE %2$s INCREMENT BY %3$s OWNED BY %1$s.id;
+                    ALTER TABLE %1$s ALTER COLUMN id SET DEFAULT nextval('%2$s');
+                END IF;
+
+                SELECT COALESCE(MAX(id), 0) + %3$s INTO next_free FROM %1$s;
+                IF next_free > (SELECT last_value FROM %2$s) THEN
+                    PERFORM setval('%2$s', next_free);
+                END IF;
+            END $$
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    // Só para garantir a ordem: as tabelas já existem quando este bean inicializa
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void migrate() {
+        SEQUENCES.forEach((table, sequence) ->
+                jdbcTemplate.execute(MIGRATION.formatted(table, sequence, ALLOCATION_SIZE)));
+        log.info("🔢 Sequências de id conferidas (incremento {}): {}", ALLOCATION_SIZE, SEQUENCES.keySet());
+    }
+}
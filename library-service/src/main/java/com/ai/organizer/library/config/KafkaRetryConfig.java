@@ -0,0 +1,54 @@
+package com.ai.organizer.library.config;
+
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.kafka.RetryPolicy;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Mesma política de retry do ai-processor (5s → 1min → 10min → DLT).
+ * Listeners de registro único usam tópicos de retry; os listeners em lote não são suportados
+ * pelos tópicos de retry, então re-tentam no lugar com o mesmo backoff e depois publicam no DLT.
+ */
+@Configuration
+public class KafkaRetryConfig {
+
+    @Value("${library.kafka.retry-topic-partitions:1}")
+    private int partitions;
+
+    @Value("${library.kafka.retry-topic-replication:-1}")
+    private short replication;
+
+    @Bean
+    public RetryTopicConfiguration radarRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .exponentialBackoff(RetryPolicy.INITIAL_DELAY_MS, RetryPolicy.MULTIPLIER, RetryPolicy.MAX_DELAY_MS)
+                .maxAttempts(RetryPolicy.MAX_ATTEMPTS)
+                .dltSuffix(RetryPolicy.DLT_SUFFIX)
+                .autoCreateTopicsWith(partitions, replication)
+                .includeTopic(EventTopics.RADAR_UPDATE_COMPLETED)
+                .create(kafkaTemplate);
+    }
+
+    // Aplicado pelo Spring Boot à fábrica padrão (usada pelos listeners em lote)
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<String, Object> kafkaTemplate) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(RetryPolicy.dltTopic(record.topic()), -1));
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(RetryPolicy.MAX_ATTEMPTS - 1);
+        backOff.setInitialInterval(RetryPolicy.INITIAL_DELAY_MS);
+        backOff.setMultiplier(RetryPolicy.MULTIPLIER);
+        backOff.setMaxInterval(RetryPolicy.MAX_DELAY_MS);
+
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+}
@@ -1,24 +1,25 @@
 package com.ai.organizer.library.controller;
 
-import com.ai.organizer.library.domain.Document;
-import com.ai.organizer.library.domain.UserHighlight;
-import com.ai.organizer.library.domain.UserSummary; 
+import com.ai.organizer.library.dto.StarColumnsDTO;
 import com.ai.organizer.library.dto.StarDTO;
-import com.ai.organizer.library.repository.DocumentRepository;
-import com.ai.organizer.library.repository.UserHighlightRepository;
-import com.ai.organizer.library.repository.UserSummaryRepository; 
+import com.ai.organizer.library.dto.UniverseChangesDTO;
+import com.ai.organizer.library.layout.TileIndex;
+import com.ai.organizer.library.service.UniverseTileService;
+import com.ai.organizer.library.service.UniverseViewService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/galaxy")
@@ -26,49 +27,80 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GalaxyController {
 
-    private final UserHighlightRepository highlightRepository;
-    private final UserSummaryRepository summaryRepository; 
-    private final DocumentRepository documentRepository;
+    static final String CBOR = "application/cbor";
 
-    @GetMapping("/stars")
-    public List<StarDTO> getMyStars(@AuthenticationPrincipal Jwt jwt) {
-        final String userId = extractUserId(jwt);
+    private final UniverseViewService universeViewService;
+    private final UniverseTileService universeTileService;
 
-        
-        Map<String, String> titleMap = documentRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-                .collect(Collectors.toMap(Document::getFileHash, Document::getTitle, (a, b) -> a));
+    // Sem limit devolve todas as estrelas; com limit, a próxima página vem em X-Next-Cursor
+    @GetMapping("/stars")
+    public ResponseEntity<List<StarDTO>> getMyStars(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String userId = extractUserId(jwt);
+        Long version = paged(cursor, limit) ? null : universeViewService.version(userId);
+        if (version != null && request.checkNotModified(etag(version))) {
+            return null;
+        }
+        return universeViewService.stars(userId, cursor, limit).toResponse();
+    }
 
-        List<StarDTO> stars = new ArrayList<>();
+    // Mesmo contrato de /stars em colunas, para Accept: application/cbor
+    @GetMapping(value = "/stars", produces = CBOR)
+    public ResponseEntity<StarColumnsDTO> getMyStarsColumnar(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String userId = extractUserId(jwt);
+        Long version = paged(cursor, limit) ? null : universeViewService.version(userId);
+        if (version != null && request.checkNotModified(etag(version, CBOR))) {
+            return null;
+        }
+        return universeViewService.stars(userId, cursor, limit).toResponse(StarColumnsDTO::of);
+    }
 
-        
-        List<UserHighlight> highlights = highlightRepository.findAll().stream()
-                .filter(h -> h.getUserId().equals(userId))
-                .toList();
+    /**
+     * Recorte do canvas para viewport/nível de detalhe: no máximo TileIndex.MAX_ITEMS_PER_TILE entradas,
+     * estrelas individuais quando cabem, clusters com representante quando não. Tile 0/0/0 é o mundo todo.
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<TileIndex.Tile<StarDTO>> getTile(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            WebRequest request) {
+        String userId = extractUserId(jwt);
+        Long version = universeViewService.version(userId);
+        if (version != null && request.checkNotModified(etag(version))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(universeTileService.userTile(userId, version, z, x, y));
+    }
 
-        stars.addAll(highlights.stream().map(h -> new StarDTO(
-                String.valueOf(h.getId()),
-                h.getContent(),
-                h.getFileHash(),
-                titleMap.getOrDefault(h.getFileHash(), "Documento Desconhecido"),
-                h.getCreatedAt(),
-                h.getType(),
-                h.getPositionJson()
-        )).toList());
+    // Só o que mudou desde a versão "since" (o número no ETag de /stars e /management/state)
+    @GetMapping("/changes")
+    public UniverseChangesDTO getChanges(@AuthenticationPrincipal Jwt jwt, @RequestParam long since) {
+        return universeViewService.changes(extractUserId(jwt), since);
+    }
 
-        
-        List<UserSummary> summaries = summaryRepository.findByUserId(userId);
+    // Páginas vêm do Postgres: o ETag da visão materializada pode estar atrás delas, então não valida
+    private static boolean paged(String cursor, Integer limit) {
+        return cursor != null || limit != null;
+    }
 
-        stars.addAll(summaries.stream().map(s -> new StarDTO(
-                "summary-" + s.getId(), 
-                "Resumo IA: " + (s.getGeneratedText() != null ? s.getGeneratedText().substring(0, Math.min(50, s.getGeneratedText().length())) + "..." : "Gerando..."),
-                s.getFileHash(),
-                titleMap.getOrDefault(s.getFileHash(), "Documento"),
-                s.getCreatedAt(),
-                "RESUME", 
-                null 
-        )).toList());
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
 
-        return stars;
+    // ETag forte é por representação: JSON e CBOR da mesma versão não podem compartilhar
+    static String etag(long version, String format) {
+        return "\"" + version + "-" + format.substring(format.indexOf('/') + 1) + "\"";
     }
 
     private String extractUserId(Jwt jwt) {
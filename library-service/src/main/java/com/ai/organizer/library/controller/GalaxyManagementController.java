@@ -6,12 +6,14 @@ import com.ai.organizer.library.domain.UserGalaxy;
 import com.ai.organizer.library.dto.CreateGalaxyRequest;
 import com.ai.organizer.library.dto.GalaxyCreationResponse;
 import com.ai.organizer.library.dto.GalaxyStateDTO;
+import com.ai.organizer.library.dto.UniverseStateColumnsDTO;
 import com.ai.organizer.library.service.GalaxyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -44,10 +46,24 @@ public class GalaxyManagementController {
     }
 
     @GetMapping("/state")
-    public GalaxyStateDTO getFullState(@AuthenticationPrincipal Jwt jwt) {
+    public GalaxyStateDTO getFullState(@AuthenticationPrincipal Jwt jwt, WebRequest request) {
         String userId = extractUserId(jwt);
+        Long version = galaxyService.getUniverseVersion(userId);
+        if (version != null && request.checkNotModified(GalaxyController.etag(version))) {
+            return null;
+        }
         return galaxyService.getUniverseState(userId);
     }
+
+    @GetMapping(value = "/state", produces = GalaxyController.CBOR)
+    public UniverseStateColumnsDTO getFullStateColumnar(@AuthenticationPrincipal Jwt jwt, WebRequest request) {
+        String userId = extractUserId(jwt);
+        Long version = galaxyService.getUniverseVersion(userId);
+        if (version != null && request.checkNotModified(GalaxyController.etag(version, GalaxyController.CBOR))) {
+            return null;
+        }
+        return UniverseStateColumnsDTO.of(galaxyService.getUniverseState(userId));
+    }
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteGalaxy(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt) {
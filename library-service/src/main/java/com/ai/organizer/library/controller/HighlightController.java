@@ -1,18 +1,27 @@
 package com.ai.organizer.library.controller;
 
 import com.ai.organizer.library.domain.UserHighlight;
-import com.ai.organizer.library.event.HighlightEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.HighlightEvent;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.infrastructure.ReadModelCache.Region;
 import com.ai.organizer.library.repository.UserHighlightRepository;
+import com.ai.organizer.library.service.GalaxyLayoutService;
+import com.ai.organizer.library.service.OutboxService;
 import com.ai.organizer.library.service.RadarTriggerService;
+import com.ai.organizer.library.service.StatsService;
+import com.ai.organizer.library.service.UniverseViewService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
@@ -22,12 +31,17 @@ import java.util.concurrent.ThreadLocalRandom;
 public class HighlightController {
 
     private final UserHighlightRepository userHighlightRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxService outboxService;
     private final RadarTriggerService radarTriggerService;
+    private final StatsService statsService;
+    private final GalaxyLayoutService layoutService;
+    private final ReadModelCache readModelCache;
+    private final UniverseViewService universeViewService;
 
     public record CreateHighlightRequest(String fileHash, String content, String type, String position) {}
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Long> createHighlight(
             @RequestBody CreateHighlightRequest request,
             @AuthenticationPrincipal Jwt jwt,
@@ -38,6 +52,7 @@ public class HighlightController {
         String userId = isGuest ? guestUserId : jwt.getClaimAsString("preferred_username");
         
         Long highlightId;
+        LocalDateTime createdAt = null;
 
         if (isGuest) {
             highlightId = -Math.abs(ThreadLocalRandom.current().nextLong(1000000, 9999999));
@@ -52,31 +67,28 @@ public class HighlightController {
             
             UserHighlight saved = userHighlightRepository.save(hl);
             highlightId = saved.getId();
+            createdAt = saved.getCreatedAt();
             log.info("💾 Highlight salvo no SQL. ID: {}", highlightId);
             
+            statsService.recordHighlight(userId, saved.getFileHash(), 1);
+            layoutService.requestLayout(userId, List.of(String.valueOf(highlightId)));
+            readModelCache.invalidateAfterCommit(Region.BOOK_HIGHLIGHTS, userId);
             radarTriggerService.checkAndTrigger(userId);
         }
 
-        try {
-            HighlightEvent event = new HighlightEvent(
-                highlightId,
-                request.fileHash(),
-                userId,
-                request.content(),
-                request.type()
-            );
-            var future = kafkaTemplate.send("highlight.created", String.valueOf(highlightId), event);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("✅ Evento enviado para Kafka com sucesso. Offset: {}", result.getRecordMetadata().offset());
-                } else {
-                    log.error("❌ FALHA AO ENVIAR PARA KAFKA!", ex);
-                }
-            });
-
-        } catch (Exception e) {
-            log.error("⚠️ Falha no envio Kafka: {}", e.getMessage());
+        HighlightEvent event = new HighlightEvent(
+            highlightId,
+            request.fileHash(),
+            userId,
+            request.content(),
+            request.type(),
+            request.position()
+        );
+        // Publicado pelo OutboxRelay só depois do commit: o ai-processor sempre encontra a linha
+        outboxService.enqueue(EventTopics.HIGHLIGHT_CREATED, String.valueOf(highlightId), event);
+        if (!isGuest) {
+            // Quem criou vê a estrela no próximo /stars, sem esperar o evento voltar pelo Kafka
+            universeViewService.applyAfterCommit(EventTopics.HIGHLIGHT_CREATED, event, createdAt);
         }
         
         return ResponseEntity.status(HttpStatus.CREATED).body(highlightId);
@@ -84,17 +96,17 @@ public class HighlightController {
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void deleteHighlight(@PathVariable Long id) {
-        if (userHighlightRepository.existsById(id)) {
-            userHighlightRepository.deleteById(id);
+        userHighlightRepository.findById(id).ifPresent(highlight -> {
+            userHighlightRepository.delete(highlight);
+            statsService.recordHighlight(highlight.getUserId(), highlight.getFileHash(), -1);
+            readModelCache.invalidateAfterCommit(Region.BOOK_HIGHLIGHTS, highlight.getUserId());
             
            
-            try {
-                kafkaTemplate.send("data.deleted", "HIGHLIGHT:" + id);
-                log.info("🗑️ Evento de deleção enviado para Highlight {}", id);
-            } catch (Exception e) {
-                log.error("Erro ao enviar evento de deleção", e);
-            }
-        }
+            outboxService.enqueue(EventTopics.DATA_DELETED, "HIGHLIGHT:" + id, "HIGHLIGHT:" + id);
+            universeViewService.applyAfterCommit(EventTopics.DATA_DELETED, "HIGHLIGHT:" + id, LocalDateTime.now());
+            log.info("🗑️ Evento de deleção enfileirado para Highlight {}", id);
+        });
     }
 }
\ No newline at end of file
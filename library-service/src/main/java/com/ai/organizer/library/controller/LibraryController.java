@@ -1,19 +1,31 @@
 package com.ai.organizer.library.controller;
 
 import com.ai.organizer.library.domain.Document;
+import com.ai.organizer.library.domain.DocumentOwner;
 import com.ai.organizer.library.domain.UserHighlight;
+import com.ai.organizer.library.dto.KeysetCursor;
+import com.ai.organizer.library.dto.KeysetPage;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.repository.DocumentOwnerRepository;
 import com.ai.organizer.library.repository.DocumentRepository;
 import com.ai.organizer.library.repository.UserHighlightRepository;
 import com.ai.organizer.library.service.BlobStorageService; 
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,41 +36,61 @@ public class LibraryController {
 
     private final UserHighlightRepository userHighlightRepository;
     private final DocumentRepository documentRepository;
+    private final DocumentOwnerRepository documentOwnerRepository;
     private final BlobStorageService blobStorageService; 
+    private final ReadModelCache readModelCache;
     
     @GetMapping("/books")
     public List<Map<String, Object>> getMyBooks(@AuthenticationPrincipal Jwt jwt) {
         String userId = extractUserId(jwt);
-        List<Document> docs = documentRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        // Estante do usuário (título, data e contadores dele) + conteúdo compartilhado (capas)
+        List<DocumentOwner> shelf = documentOwnerRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        Map<String, Document> docs = documentRepository.findByFileHashIn(
+                shelf.stream().map(DocumentOwner::getFileHash).toList()).stream()
+                .collect(Collectors.toMap(Document::getFileHash, Function.identity()));
 
-        return docs.stream().map(doc -> {
-            String coverUrl = null;
-            
-            if (doc.getCoverPath() != null) {
-                coverUrl = blobStorageService.getSignedUrl(doc.getCoverPath(), 60).toString();
-            }
+        // Todas as capas da estante assinadas de uma vez (e reaproveitadas do cache)
+        Map<String, URL> coverUrls = blobStorageService.getSignedUrls(
+                docs.values().stream().map(LibraryController::shelfCoverPath).filter(Objects::nonNull).toList(), 60);
+
+        return shelf.stream().filter(owner -> docs.containsKey(owner.getFileHash())).map(owner -> {
+            String shelfCoverPath = shelfCoverPath(docs.get(owner.getFileHash()));
+            URL signed = shelfCoverPath != null ? coverUrls.get(shelfCoverPath) : null;
+            String coverUrl = signed != null ? signed.toString() : null;
 
             return Map.<String, Object>of(
-                "id", doc.getFileHash(),
-                "title", doc.getTitle(),
-                "preview", "Importado em " + (doc.getCreatedAt() != null ? doc.getCreatedAt().toLocalDate() : "N/A"),
+                "id", owner.getFileHash(),
+                "title", owner.getTitle(),
+                "preview", "Importado em " + (owner.getCreatedAt() != null ? owner.getCreatedAt().toLocalDate() : "N/A"),
                 "coverUrl", coverUrl != null ? coverUrl : "", 
-                "highlightsCount", 0,
-                "lastRead", doc.getCreatedAt() != null ? doc.getCreatedAt() : java.time.LocalDateTime.now()
+                "highlightsCount", owner.getHighlights(),
+                "lastRead", owner.getCreatedAt() != null ? owner.getCreatedAt() : java.time.LocalDateTime.now()
             );
         }).collect(Collectors.toList());
     }
 
+    // Estante usa a miniatura; capas antigas (sem tamanhos) caem para a capa única
+    private static String shelfCoverPath(Document doc) {
+        return doc.getThumbnailPath() != null ? doc.getThumbnailPath() : doc.getCoverPath();
+    }
+
    
     @GetMapping("/books/{fileHash}/highlights")
-    public List<UserHighlight> getBookHighlights(
+    public ResponseEntity<List<UserHighlight>> getBookHighlights(
             @PathVariable String fileHash, 
-            @AuthenticationPrincipal Jwt jwt) {
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         
         String userId = extractUserId(jwt);
+        KeysetCursor after = KeysetCursor.decode(cursor);
         
-        
-        return userHighlightRepository.findByUserIdAndFileHash(userId, fileHash);
+        return readModelCache.get(ReadModelCache.Region.BOOK_HIGHLIGHTS, userId, fileHash + "|" + cursor + "|" + limit,
+                new TypeReference<KeysetPage<UserHighlight>>() {}, () -> {
+                    List<UserHighlight> rows = userHighlightRepository.findBookPage(
+                            userId, fileHash, after.createdAt(), after.longId(), Limit.of(KeysetPage.fetchSize(limit)));
+                    return KeysetPage.of(rows, limit, h -> new KeysetCursor(h.getCreatedAt(), String.valueOf(h.getId())));
+                }).toResponse();
     }
 
     
@@ -73,9 +105,9 @@ public class LibraryController {
 
         
         String userId = extractUserId(jwt);
-        if (!doc.getUserId().equals(userId)) {
-             log.warn("⚠️ Usuário {} tentou acessar documento de outro usuário ({})", userId, doc.getUserId());
-             
+        if (!documentOwnerRepository.existsByFileHashAndUserId(fileHash, userId)) {
+             log.warn("⚠️ Usuário {} tentou acessar documento fora da sua estante ({})", userId, fileHash);
+             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Documento fora da sua estante");
         }
 
         
@@ -90,7 +122,9 @@ public class LibraryController {
         
         return Map.of(
             "url", signedUrl.toString(),
-            "type", "application/pdf"
+            "type", "application/pdf",
+            // Páginas pré-renderizadas no ai-processor (troque {page} pelo número da página)
+            "pageTemplate", "/api/ai/pages/" + fileHash + "/{page}"
         );
     }
 
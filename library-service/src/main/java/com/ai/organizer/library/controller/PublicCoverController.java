@@ -0,0 +1,64 @@
+package com.ai.organizer.library.controller;
+
+import com.ai.organizer.library.domain.Document;
+import com.ai.organizer.library.repository.DocumentRepository;
+import com.ai.organizer.library.service.BlobStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.channels.Channels;
+import java.time.Duration;
+
+/**
+ * Capas servidas pelo próprio serviço, cacheáveis por CDN e navegador sem URL assinada.
+ * As capas ficam em covers/{fileHash}/..., então o caminho identifica o conteúdo: o ETag sai do
+ * caminho e a revalidação responde 304 sem tocar no GCS.
+ */
+@RestController
+@RequestMapping("/api/public/covers")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "library.covers.public-streaming", havingValue = "true")
+public class PublicCoverController {
+
+    private final DocumentRepository documentRepository;
+    private final BlobStorageService blobStorageService;
+
+    @GetMapping("/{fileHash}")
+    public ResponseEntity<Resource> getCover(
+            @PathVariable String fileHash,
+            @RequestParam(defaultValue = "full") String size,
+            WebRequest request) {
+
+        Document doc = documentRepository.findByFileHash(fileHash)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Documento não encontrado"));
+
+        String path = "thumb".equals(size) && doc.getThumbnailPath() != null ? doc.getThumbnailPath() : doc.getCoverPath();
+        if (path == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Documento sem capa");
+        }
+
+        String etag = "\"" + Integer.toHexString(path.hashCode()) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .eTag(etag)
+                .contentType(MediaTypeFactory.getMediaType(path).orElse(MediaType.IMAGE_JPEG))
+                // Copiado do GCS para a resposta em partes, sem montar a imagem inteira na memória
+                .body(new InputStreamResource(Channels.newInputStream(blobStorageService.openReader(path, 0, -1))));
+    }
+}
@@ -1,12 +1,22 @@
 package com.ai.organizer.library.controller;
 
 import com.ai.organizer.library.domain.PublicUniverse;
+import com.ai.organizer.library.dto.PublicStarDTO;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.layout.TileIndex;
 import com.ai.organizer.library.repository.PublicUniverseRepository;
+import com.ai.organizer.library.service.UniverseTileService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,9 +25,31 @@ import java.util.List;
 public class PublicUniverseController {
 
     private final PublicUniverseRepository repository;
+    private final UniverseTileService universeTileService;
+    private final ReadModelCache readModelCache;
 
     @GetMapping
     public List<PublicUniverse> getAvailableUniverses() {
-        return repository.findByIsActiveTrue();
+        return readModelCache.get(ReadModelCache.Region.PUBLIC_UNIVERSES, "all", "active",
+                new TypeReference<List<PublicUniverse>>() {}, repository::findByIsActiveTrue);
     }
-}
\ No newline at end of file
+
+    // Tiles do tour: mesmo contrato de /api/galaxy/tiles, cacheável por CDN (muda só na importação)
+    @GetMapping("/{universeId}/{lang}/tiles/{z}/{x}/{y}")
+    public ResponseEntity<TileIndex.Tile<PublicStarDTO>> getTile(
+            @PathVariable String universeId,
+            @PathVariable String lang,
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            WebRequest request) {
+        String etag = "\"" + Long.toHexString(universeTileService.publicVersion(universeId, lang)) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .eTag(etag)
+                .body(universeTileService.publicTile(universeId, lang, z, x, y));
+    }
+}
@@ -3,17 +3,29 @@ package com.ai.organizer.library.controller;
 import com.ai.organizer.library.domain.UserSummary;
 import com.ai.organizer.library.domain.enums.SummarySourceType;
 import com.ai.organizer.library.dto.CreateSummaryRequest;
-import com.ai.organizer.library.event.SummaryRequestedEvent;
+import com.ai.organizer.library.dto.KeysetCursor;
+import com.ai.organizer.library.dto.KeysetPage;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.SummaryRequestedEvent;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.infrastructure.ReadModelCache.Region;
 import com.ai.organizer.library.repository.UserSummaryRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.organizer.library.service.GalaxyLayoutService;
+import com.ai.organizer.library.service.OutboxService;
+import com.ai.organizer.library.service.StatsService;
+import com.ai.organizer.library.service.UniverseViewService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -24,11 +36,15 @@ import java.util.concurrent.ThreadLocalRandom;
 public class SummaryController {
 
     private final UserSummaryRepository summaryRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
+    private final StatsService statsService;
+    private final GalaxyLayoutService layoutService;
+    private final ReadModelCache readModelCache;
+    private final UniverseViewService universeViewService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.ACCEPTED)
+    @Transactional
     public UserSummary requestSummary(
             @RequestBody CreateSummaryRequest request,
             @RequestHeader(name = "Accept-Language", defaultValue = "en") String lang,
@@ -58,27 +74,27 @@ public class SummaryController {
             );
             summary.setPositionJson(request.position());
             summary = summaryRepository.save(summary);
+            statsService.recordSummary(userId, summary.getFileHash(), 1);
+            layoutService.requestLayout(userId, List.of("summary-" + summary.getId()));
+            readModelCache.invalidateAfterCommit(Region.BOOK_SUMMARIES, userId);
             summaryId = summary.getId();
             responseObj = summary;
         }
 
-        try {
-            SummaryRequestedEvent event = new SummaryRequestedEvent(
-                    summaryId,
-                    request.fileHash(),
-                    userId,
-                    request.sourceType(),
-                    request.content(), 
-                    request.startPage(),
-                    request.endPage(),
-                    lang 
-            );
-
-            String jsonEvent = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send("summary.requested", String.valueOf(summaryId), jsonEvent);
-
-        } catch (Exception e) {
-            log.error("Erro Kafka", e);
+        SummaryRequestedEvent event = new SummaryRequestedEvent(
+                summaryId,
+                request.fileHash(),
+                userId,
+                request.sourceType(),
+                request.content(), 
+                request.startPage(),
+                request.endPage(),
+                lang 
+        );
+        outboxService.enqueue(EventTopics.SUMMARY_REQUESTED, String.valueOf(summaryId), event);
+        if (!isGuest) {
+            // Quem pediu vê a estrela "Gerando..." no próximo /stars, sem esperar o evento voltar pelo Kafka
+            universeViewService.applyAfterCommit(EventTopics.SUMMARY_REQUESTED, event, responseObj.getCreatedAt());
         }
 
         return responseObj;
@@ -86,26 +102,34 @@ public class SummaryController {
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void deleteSummary(@PathVariable Long id) {
-        if (summaryRepository.existsById(id)) {
-            summaryRepository.deleteById(id);
+        summaryRepository.findById(id).ifPresent(summary -> {
+            summaryRepository.delete(summary);
+            statsService.recordSummary(summary.getUserId(), summary.getFileHash(), -1);
+            readModelCache.invalidateAfterCommit(Region.BOOK_SUMMARIES, summary.getUserId());
             
-            try {
-                kafkaTemplate.send("data.deleted", "SUMMARY:" + id);
-                log.info("🗑️ Resumo {} deletado. Evento de limpeza enviado.", id);
-            } catch (Exception e) {
-                log.error("Erro ao enviar evento de deleção", e);
-            }
-        }
+            outboxService.enqueue(EventTopics.DATA_DELETED, "SUMMARY:" + id, "SUMMARY:" + id);
+            universeViewService.applyAfterCommit(EventTopics.DATA_DELETED, "SUMMARY:" + id, LocalDateTime.now());
+            log.info("🗑️ Resumo {} deletado. Evento de limpeza enfileirado.", id);
+        });
     }
 
     @GetMapping("/{fileHash}")
-    public List<UserSummary> getSummariesByBook(
+    public ResponseEntity<List<UserSummary>> getSummariesByBook(
             @PathVariable String fileHash,
-            @AuthenticationPrincipal Jwt jwt
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
         String userId = extractUserId(jwt);
-        return summaryRepository.findByUserIdAndFileHashOrderByCreatedAtDesc(userId, fileHash);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return readModelCache.get(Region.BOOK_SUMMARIES, userId, fileHash + "|" + cursor + "|" + limit,
+                new TypeReference<KeysetPage<UserSummary>>() {}, () -> {
+                    List<UserSummary> rows = summaryRepository.findBookPage(
+                            userId, fileHash, after.createdAt(), after.longId(), Limit.of(KeysetPage.fetchSize(limit)));
+                    return KeysetPage.of(rows, limit, s -> new KeysetCursor(s.getCreatedAt(), String.valueOf(s.getId())));
+                }).toResponse();
     }
 
     private String extractUserId(Jwt jwt) {
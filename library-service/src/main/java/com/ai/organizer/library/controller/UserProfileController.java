@@ -1,8 +1,10 @@
 package com.ai.organizer.library.controller;
 
 import com.ai.organizer.library.domain.UserProfile;
+import com.ai.organizer.library.domain.UserStats;
 import com.ai.organizer.library.dto.ProfileDTO;
-import com.ai.organizer.library.repository.*;
+import com.ai.organizer.library.repository.UserProfileRepository;
+import com.ai.organizer.library.service.StatsService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -22,10 +24,7 @@ import java.util.Map;
 public class UserProfileController {
 
     private final UserProfileRepository repository;
-    private final UserHighlightRepository highlightRepository;
-    private final UserSummaryRepository summaryRepository;
-    private final StarGalaxyLinkRepository linkRepository;
-    private final DocumentRepository documentRepository;
+    private final StatsService statsService;
     private final ObjectMapper objectMapper;
 
     @GetMapping
@@ -40,15 +39,16 @@ public class UserProfileController {
                 });
 
         
-        Long usedBytes = documentRepository.getTotalStorageUsed(userId);
-        long usedMB = usedBytes != null ? usedBytes / (1024 * 1024) : 0;
+        // Contadores materializados: uma busca por chave em vez de quatro agregações
+        UserStats counters = statsService.userStats(userId);
+        long usedMB = counters.getStorageBytes() / (1024 * 1024);
         long limitMB = 100;
 
         
         ProfileDTO.UserStats stats = new ProfileDTO.UserStats(
-                highlightRepository.countByUserId(userId),
-                summaryRepository.countByUserId(userId),
-                linkRepository.countByUserId(userId),
+                counters.getHighlights(),
+                counters.getSummaries(),
+                counters.getLinks(),
                 usedMB,    
                 limitMB    
         );
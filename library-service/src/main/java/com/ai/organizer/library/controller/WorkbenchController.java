@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -38,7 +39,7 @@ public class WorkbenchController {
     }
 
     @PostMapping("/suggest")
-    public List<AiGravityResponse.StarMatch> getSuggestions(
+    public CompletableFuture<List<AiGravityResponse.StarMatch>> getSuggestions(
             @RequestBody Map<String, String> payload,
             @AuthenticationPrincipal Jwt jwt
     ) {
@@ -48,7 +49,7 @@ public class WorkbenchController {
         
         log.info("🤖 Solicitando sugestões para o workbench. Arquivo: {}", fileHash);
         
-        return aiClient.getWorkbenchSuggestions(text, fileHash, userId);
+        return aiClient.getWorkbenchSuggestionsAsync(text, fileHash, userId);
     }
 
     private String extractUserId(Jwt jwt) {
@@ -27,6 +27,7 @@ public class Document {
     @Column(name = "file_hash", nullable = false, unique = true)
     private String fileHash;
 
+    // Quem enviou o conteúdo primeiro; a estante de cada usuário está em DocumentOwner
     @Column(nullable = false)
     private String userId;
 
@@ -49,6 +50,13 @@ public class Document {
 
     @Column(name = "cover_path")
     private String coverPath; 
+
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
+    @Column(name = "card_path")
+    private String cardPath;
+
     public Document(String title, String fileHash, String userId, String storagePath, Long fileSize) {
         this.title = title;
         this.fileHash = fileHash;
@@ -0,0 +1,45 @@
+package com.ai.organizer.library.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Livro na estante de um usuário. O conteúdo (documents) é um só por hash; cada usuário que enviou
+ * o mesmo arquivo tem aqui a sua linha, com o nome que deu e os contadores dos seus highlights e resumos
+ * (mantidos por StatsCounterRepository, como user_stats).
+ */
+@Entity
+@Table(name = "DOCUMENT_OWNERS", indexes = {
+    @Index(name = "idx_doc_owner_hash_user", columnList = "file_hash, user_id", unique = true),
+    @Index(name = "idx_doc_owner_user_created", columnList = "user_id, created_at")
+})
+@Data
+@NoArgsConstructor
+public class DocumentOwner {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_hash", nullable = false)
+    private String fileHash;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    private long highlights;
+
+    private long summaries;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.ai.organizer.library.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento Kafka gravado na mesma transação da escrita de domínio. O OutboxRelay reserva as linhas
+ * pendentes (claimedUntil), publica e preenche sentAt.
+ */
+@Entity
+@Table(name = "OUTBOX_EVENTS", indexes = {
+    @Index(name = "idx_outbox_pending", columnList = "sent_at, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "event_key")
+    private String eventKey;
+
+    // Já serializado pelo EventSerializer (Avro ou texto)
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Reserva de quem está publicando; vencida, a linha volta para o próximo ciclo
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @PrePersist
+    void prePersist() {
+        if (this.createdAt == null) this.createdAt = LocalDateTime.now();
+    }
+
+    public OutboxEvent(String topic, String eventKey, byte[] payload) {
+        this.topic = topic;
+        this.eventKey = eventKey;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ai.organizer.library.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Estrela de um universo público (versículo etc.), pré-calculada pelo pipeline de importação
+ * que também alimenta o índice "universes" no Pinecone. Sem x/y, o tile usa a dispersão do front.
+ */
+@Entity
+@Table(name = "public_universe_stars", indexes = {
+        @Index(name = "idx_public_star_universe", columnList = "universe_id, lang")
+})
+@Data
+public class PublicUniverseStar {
+
+    @Id
+    private String id;
+
+    @Column(name = "universe_id", nullable = false)
+    private String universeId;
+
+    @Column(nullable = false)
+    private String lang;
+
+    private String ref;
+
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    @Column(name = "canvas_x")
+    private Double canvasX;
+
+    @Column(name = "canvas_y")
+    private Double canvasY;
+}
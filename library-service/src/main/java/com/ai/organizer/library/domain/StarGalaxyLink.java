@@ -17,7 +17,8 @@ import lombok.NoArgsConstructor;
 public class StarGalaxyLink {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "star_galaxy_links_id_seq")
+    @SequenceGenerator(name = "star_galaxy_links_id_seq", sequenceName = "star_galaxy_links_id_seq", allocationSize = 50)
     private Long id;
 
     
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class UserGalaxy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_galaxies_id_seq")
+    @SequenceGenerator(name = "user_galaxies_id_seq", sequenceName = "user_galaxies_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
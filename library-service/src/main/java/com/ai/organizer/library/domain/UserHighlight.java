@@ -7,12 +7,18 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "USER_HIGHLIGHTS")
+@Table(name = "USER_HIGHLIGHTS", indexes = {
+    @Index(name = "idx_highlight_user_created", columnList = "USER_ID, createdAt, id"),
+    @Index(name = "idx_highlight_user_book", columnList = "USER_ID, FILE_HASH, createdAt, id"),
+    // Conferência de conteúdo já processado pelo ai-processor
+    @Index(name = "idx_highlight_hash", columnList = "FILE_HASH")
+})
 @Data
 public class UserHighlight {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_highlights_id_seq")
+    @SequenceGenerator(name = "user_highlights_id_seq", sequenceName = "user_highlights_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "FILE_HASH", nullable = false)
@@ -34,6 +40,13 @@ public class UserHighlight {
     @Column(name = "STATUS")
     private String status;
 
+    // Posição no canvas da galáxia, calculada pelo GalaxyLayoutService (null até o primeiro layout)
+    @Column(name = "CANVAS_X")
+    private Double canvasX;
+
+    @Column(name = "CANVAS_Y")
+    private Double canvasY;
+
     private LocalDateTime createdAt;
 
     @PrePersist
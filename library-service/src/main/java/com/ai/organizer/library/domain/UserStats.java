@@ -0,0 +1,38 @@
+package com.ai.organizer.library.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contadores do perfil, mantidos pelos caminhos de escrita (StatsCounterRepository)
+ * e conferidos periodicamente com as tabelas de origem.
+ */
+@Entity
+@Table(name = "USER_STATS")
+@Data
+@NoArgsConstructor
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    private long highlights;
+
+    private long summaries;
+
+    private long links;
+
+    @Column(name = "storage_bytes")
+    private long storageBytes;
+
+    // Total (highlights + resumos) no último disparo do radar; null = nunca disparou
+    @Column(name = "radar_total")
+    private Long radarTotal;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
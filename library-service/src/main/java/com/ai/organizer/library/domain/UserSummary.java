@@ -8,13 +8,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "USER_SUMMARIES")
+@Table(name = "USER_SUMMARIES", indexes = {
+    @Index(name = "idx_summary_user_created", columnList = "userId, createdAt, id"),
+    @Index(name = "idx_summary_user_book", columnList = "userId, fileHash, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 public class UserSummary {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_summaries_id_seq")
+    @SequenceGenerator(name = "user_summaries_id_seq", sequenceName = "user_summaries_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +46,11 @@ public class UserSummary {
     @Column(name = "POSITION_JSON", columnDefinition = "TEXT")
     private String positionJson;
 
+    // Posição no canvas da galáxia (GalaxyLayoutService)
+    private Double canvasX;
+
+    private Double canvasY;
+
     @PrePersist
     void prePersist() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,40 @@
+package com.ai.organizer.library.dto;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Uma página da paginação por cursor. Sem limit o endpoint devolve a lista inteira, como antes.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_LIMIT = 500;
+
+    // Quantas linhas buscar: uma a mais que o pedido, para saber se existe próxima página
+    public static int fetchSize(Integer limit) {
+        return limit == null ? Integer.MAX_VALUE : Math.min(Math.max(limit, 1), MAX_LIMIT) + 1;
+    }
+
+    public static <T> KeysetPage<T> of(List<T> rows, Integer limit, Function<T, KeysetCursor> cursorOf) {
+        int size = fetchSize(limit) - 1;
+        if (limit == null || rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        return toResponse(Function.identity());
+    }
+
+    // Mesma página em outro formato (ex: colunas em CBOR)
+    public <R> ResponseEntity<R> toResponse(Function<List<T>, R> body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) response.header(NEXT_CURSOR_HEADER, nextCursor);
+        return response.body(body.apply(items));
+    }
+}
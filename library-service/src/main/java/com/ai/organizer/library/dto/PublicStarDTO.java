@@ -0,0 +1,10 @@
+package com.ai.organizer.library.dto;
+
+// Estrela de universo público nos tiles (mesmos campos que o front monta a partir do tour)
+public record PublicStarDTO(
+    String id,
+    String ref,
+    String text,
+    double x,
+    double y
+) {}
@@ -0,0 +1,92 @@
+package com.ai.organizer.library.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estrelas em colunas (application/cbor): um array por campo em vez de um objeto por estrela.
+ *
+ * ids + kinds substituem "123" / "summary-45" (kind 0 = highlight, 1 = resumo).
+ * Documento e tipo vêm por dicionário: documentIndex aponta para documents/documentTitles,
+ * typeIndex para types. createdAt em epoch millis; x/y (posição no canvas) NaN enquanto não há layout.
+ */
+public record StarColumnsDTO(
+    int count,
+    long[] ids,
+    byte[] kinds,
+    String[] contents,
+    int[] documentIndex,
+    String[] documents,
+    String[] documentTitles,
+    long[] createdAt,
+    int[] typeIndex,
+    String[] types,
+    String[] positionJson,
+    float[] x,
+    float[] y
+) {
+    public static final byte KIND_HIGHLIGHT = 0;
+    public static final byte KIND_SUMMARY = 1;
+
+    private static final String SUMMARY_PREFIX = "summary-";
+
+    public static StarColumnsDTO of(Collection<StarDTO> stars) {
+        int n = stars.size();
+        long[] ids = new long[n];
+        byte[] kinds = new byte[n];
+        String[] contents = new String[n];
+        int[] documentIndex = new int[n];
+        long[] createdAt = new long[n];
+        int[] typeIndex = new int[n];
+        String[] positionJson = new String[n];
+        float[] x = new float[n];
+        float[] y = new float[n];
+
+        Map<String, Integer> documents = new LinkedHashMap<>();
+        List<String> titles = new ArrayList<>();
+        Map<String, Integer> types = new LinkedHashMap<>();
+
+        int i = 0;
+        for (StarDTO star : stars) {
+            kinds[i] = kindOf(star.id());
+            ids[i] = idOf(star.id());
+            contents[i] = star.content();
+            documentIndex[i] = documents.computeIfAbsent(String.valueOf(star.documentId()), hash -> {
+                titles.add(star.documentTitle());
+                return titles.size() - 1;
+            });
+            createdAt[i] = epochMillis(star.createdAt());
+            typeIndex[i] = types.computeIfAbsent(String.valueOf(star.type()), t -> types.size());
+            positionJson[i] = star.positionJson();
+            x[i] = star.x() != null ? star.x().floatValue() : Float.NaN;
+            y[i] = star.y() != null ? star.y().floatValue() : Float.NaN;
+            i++;
+        }
+
+        return new StarColumnsDTO(n, ids, kinds, contents, documentIndex,
+                documents.keySet().toArray(String[]::new), titles.toArray(String[]::new),
+                createdAt, typeIndex, types.keySet().toArray(String[]::new), positionJson, x, y);
+    }
+
+    static byte kindOf(String starId) {
+        return starId != null && starId.startsWith(SUMMARY_PREFIX) ? KIND_SUMMARY : KIND_HIGHLIGHT;
+    }
+
+    static long idOf(String starId) {
+        if (starId == null) return -1;
+        try {
+            return Long.parseLong(starId.startsWith(SUMMARY_PREFIX) ? starId.substring(SUMMARY_PREFIX.length()) : starId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static long epochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+}
@@ -11,5 +11,7 @@ public record StarDTO(
     String documentTitle,
     LocalDateTime createdAt,
     String type,
-    String positionJson
+    String positionJson,
+    Double x,
+    Double y
 ) {}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.ai.organizer.library.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Uma mudança no universo do usuário.
+ * kind: STAR, GALAXY ou LINK. op: UPSERT (value traz o item completo) ou DELETE (value nulo).
+ * O id segue as chaves do estado completo: StarDTO.id, id da galáxia e "galaxyId:starId".
+ */
+public record UniverseChange(
+    long seq,
+    String kind,
+    String id,
+    String op,
+    JsonNode value
+) {}
@@ -0,0 +1,14 @@
+package com.ai.organizer.library.dto;
+
+import java.util.List;
+
+/**
+ * Resposta de /api/galaxy/changes. Com reset=true o "since" não está mais no log e o cliente
+ * deve recarregar /stars e /management/state; com hasMore=true ele repete a chamada com since=seq.
+ */
+public record UniverseChangesDTO(
+    long seq,
+    boolean reset,
+    boolean hasMore,
+    List<UniverseChange> changes
+) {}
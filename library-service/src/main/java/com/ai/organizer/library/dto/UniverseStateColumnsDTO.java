@@ -0,0 +1,61 @@
+package com.ai.organizer.library.dto;
+
+import com.ai.organizer.library.domain.UserGalaxy;
+
+import java.util.List;
+
+/**
+ * GalaxyStateDTO em colunas (application/cbor), sem os campos internos da entidade
+ * (userId, vectorId). Os links usam o mesmo par id/kind das estrelas em StarColumnsDTO.
+ */
+public record UniverseStateColumnsDTO(
+    int galaxyCount,
+    long[] galaxyIds,
+    String[] names,
+    String[] colors,
+    double[] x,
+    double[] y,
+    long[] galaxyCreatedAt,
+    int linkCount,
+    long[] linkGalaxyIds,
+    long[] linkStarIds,
+    byte[] linkStarKinds,
+    float[] scores
+) {
+    public static UniverseStateColumnsDTO of(GalaxyStateDTO state) {
+        List<UserGalaxy> galaxies = state.galaxies();
+        int g = galaxies.size();
+        long[] galaxyIds = new long[g];
+        String[] names = new String[g];
+        String[] colors = new String[g];
+        double[] x = new double[g];
+        double[] y = new double[g];
+        long[] galaxyCreatedAt = new long[g];
+        for (int i = 0; i < g; i++) {
+            UserGalaxy galaxy = galaxies.get(i);
+            galaxyIds[i] = galaxy.getId() != null ? galaxy.getId() : -1;
+            names[i] = galaxy.getName();
+            colors[i] = galaxy.getColor();
+            x[i] = galaxy.getX() != null ? galaxy.getX() : Double.NaN;
+            y[i] = galaxy.getY() != null ? galaxy.getY() : Double.NaN;
+            galaxyCreatedAt[i] = StarColumnsDTO.epochMillis(galaxy.getCreatedAt());
+        }
+
+        List<GalaxyStateDTO.LinkDTO> links = state.links();
+        int l = links.size();
+        long[] linkGalaxyIds = new long[l];
+        long[] linkStarIds = new long[l];
+        byte[] linkStarKinds = new byte[l];
+        float[] scores = new float[l];
+        for (int i = 0; i < l; i++) {
+            GalaxyStateDTO.LinkDTO link = links.get(i);
+            linkGalaxyIds[i] = StarColumnsDTO.idOf(link.galaxyId());
+            linkStarIds[i] = StarColumnsDTO.idOf(link.highlightId());
+            linkStarKinds[i] = StarColumnsDTO.kindOf(link.highlightId());
+            scores[i] = link.score() != null ? link.score().floatValue() : 0f;
+        }
+
+        return new UniverseStateColumnsDTO(g, galaxyIds, names, colors, x, y, galaxyCreatedAt,
+                l, linkGalaxyIds, linkStarIds, linkStarKinds, scores);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ai.organizer.library.dto;
+
+import com.ai.organizer.library.domain.UserGalaxy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estado completo do universo de um usuário, como fica gravado na visão materializada.
+ * Chaves: id da galáxia, id da estrela (StarDTO.id) e "galaxyId:starId" para os links.
+ */
+public record UniverseView(
+    Map<Long, UserGalaxy> galaxies,
+    Map<String, StarDTO> stars,
+    Map<String, GalaxyStateDTO.LinkDTO> links,
+    Map<String, String> documentTitles
+) {
+    public static UniverseView empty() {
+        return new UniverseView(new LinkedHashMap<>(), new LinkedHashMap<>(), new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+}
@@ -1,6 +0,0 @@
-package com.ai.organizer.library.event; // Ajuste o pacote conforme o serviço (library.event ou processor)
-
-public record CoverGeneratedEvent(
-    String fileHash,
-    String coverPath 
-) {}
\ No newline at end of file
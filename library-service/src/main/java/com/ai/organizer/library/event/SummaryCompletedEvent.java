@@ -1,7 +0,0 @@
-package com.ai.organizer.library.event; 
-
-public record SummaryCompletedEvent(
-    Long summaryId,
-    String generatedText,
-    String status 
-) {}
\ No newline at end of file
@@ -1,20 +1,49 @@
 package com.ai.organizer.library.infrastructure;
 
 import com.ai.organizer.library.service.BlobStorageService; 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.cloud.ReadChannel;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Service
 @Primary
 public class GoogleStorageService implements BlobStorageService {
 
+    // Tamanho de cada parte do upload resumível e de cada leitura (múltiplo de 256 KiB, exigido pelo GCS)
+    static final int CHUNK_SIZE = 2 * 1024 * 1024;
+
     private final Storage storage;
 
+    /**
+     * URLs assinadas reaproveitadas por (arquivo, validade, janela). A janela dura metade da validade:
+     * uma URL assinada em qualquer ponto da janela ainda vale pelo menos validade/2 quando é servida,
+     * e cada capa custa uma assinatura RSA por janela em vez de uma por requisição.
+     */
+    private final Cache<SignedUrlKey, URL> signedUrls = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            // A janela faz parte da chave; a expiração só libera memória das janelas passadas
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
     @Value("${gcp.storage.bucket-name}")
     private String bucketName;
 
@@ -45,6 +74,63 @@ public class GoogleStorageService implements BlobStorageService {
         return blob.getContent();
     }
 
+    @Override
+    public void upload(String filename, ReadableByteChannel content, String contentType) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, filename))
+                .setContentType(contentType)
+                .build();
+
+        try (WriteChannel writer = storage.writer(blobInfo)) {
+            writer.setChunkSize(CHUNK_SIZE);
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            while (content.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    writer.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha no upload para o GCS: " + filename, e);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openReader(String filename, long offset, long length) {
+        ReadChannel reader = storage.reader(BlobId.of(bucketName, filename));
+        reader.setChunkSize(CHUNK_SIZE);
+        try {
+            if (offset > 0) reader.seek(offset);
+            if (length >= 0) reader.limit(offset + length);
+        } catch (IOException e) {
+            reader.close();
+            throw new UncheckedIOException("Falha ao abrir leitura no GCS: " + filename, e);
+        }
+        return reader;
+    }
+
+    @Override
+    public Path downloadToTempFile(String filename) {
+        Blob blob = storage.get(BlobId.of(bucketName, filename));
+        if (blob == null) {
+            throw new RuntimeException("Arquivo não encontrado no GCS: " + filename);
+        }
+
+        Path file;
+        try {
+            file = Files.createTempFile("blob-", extension(filename));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar arquivo temporário para " + filename, e);
+        }
+        try {
+            blob.downloadTo(file);
+            return file;
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
     @Override
     public URL getSignedUrl(String filename, int minutesToExpire) {
         
@@ -52,6 +138,32 @@ public class GoogleStorageService implements BlobStorageService {
             throw new IllegalArgumentException("O nome do arquivo não pode ser nulo para gerar URL assinada.");
         }
 
+        return signedUrls.get(SignedUrlKey.of(filename, minutesToExpire), key -> sign(filename, minutesToExpire));
+    }
+
+    @Override
+    public Map<String, URL> getSignedUrls(Collection<String> filenames, int minutesToExpire) {
+        List<SignedUrlKey> keys = filenames.stream()
+                .filter(filename -> filename != null && !filename.isEmpty())
+                .distinct()
+                .map(filename -> SignedUrlKey.of(filename, minutesToExpire))
+                .toList();
+
+        // Só as que não estão no cache são assinadas, numa única passada
+        Map<SignedUrlKey, URL> found = signedUrls.getAll(keys, missing -> {
+            Map<SignedUrlKey, URL> signed = new LinkedHashMap<>();
+            for (SignedUrlKey key : missing) {
+                signed.put(key, sign(key.filename(), minutesToExpire));
+            }
+            return signed;
+        });
+
+        Map<String, URL> urls = new LinkedHashMap<>();
+        keys.forEach(key -> urls.put(key.filename(), found.get(key)));
+        return urls;
+    }
+
+    private URL sign(String filename, int minutesToExpire) {
         BlobId blobId = BlobId.of(bucketName, filename);
         BlobInfo blobInfo = BlobInfo.newBuilder(blobId).build();
         
@@ -63,4 +175,27 @@ public class GoogleStorageService implements BlobStorageService {
                 Storage.SignUrlOption.withV4Signature()
         );
     }
-}
\ No newline at end of file
+
+    // Só a extensão: o nome original pode passar do limite do sistema de arquivos
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > filename.lastIndexOf('/') ? filename.substring(dot) : ".tmp";
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // arquivo temporário: o sistema limpa depois
+        }
+    }
+
+    private record SignedUrlKey(String filename, int minutes, long window) {
+
+        static SignedUrlKey of(String filename, int minutes) {
+            long windowSeconds = Math.max(1, minutes * 60L / 2);
+            return new SignedUrlKey(filename, minutes, System.currentTimeMillis() / 1000 / windowSeconds);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.ai.organizer.library.infrastructure;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache em dois níveis dos modelos de leitura que ainda vão ao Postgres (galáxias, universos públicos,
+ * highlights e resumos por livro): Caffeine local na frente, Redis compartilhado entre as réplicas atrás.
+ *
+ * Cada dono (região + usuário) tem uma geração no Redis. Os valores ficam num hash por geração e
+ * invalidar é INCR da geração + PUBLISH no canal: as réplicas trocam a entrada local por uma vazia da
+ * geração nova, e uma leitura que começou antes da escrita não consegue gravar o valor antigo por cima
+ * (a geração dela ficou para trás). Sem Redis (library.cache.redis-enabled=false) só o nível local vale.
+ *
+ * Invalidações vindas de outra réplica também saem como {@link Invalidated} (evento do Spring), para
+ * estado local que não mora aqui, como a visão materializada do universo.
+ *
+ * Os valores do nível local são compartilhados entre requisições: quem lê não pode alterá-los.
+ */
+@Component
+@Slf4j
+public class ReadModelCache {
+
+    public static final String CHANNEL = "library:cache:invalidate";
+
+    public enum Region {
+        GALAXIES(Duration.ofMinutes(30)),
+        PUBLIC_UNIVERSES(Duration.ofHours(1)),   // sem caminho de escrita no serviço: só expira
+        BOOK_HIGHLIGHTS(Duration.ofMinutes(30)),
+        BOOK_SUMMARIES(Duration.ofMinutes(30)),
+        UNIVERSE_VIEW(Duration.ZERO),            // só o aviso entre réplicas (a visão fica no MVStore)
+        UNIVERSE_LAYOUT(Duration.ZERO);          // idem, só as posições do canvas mudaram
+
+        private final Duration ttl;
+
+        Region(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public record Invalidated(Region region, String ownerId) {}
+
+    private static final Duration GENERATION_TTL = Duration.ofDays(7);
+
+    private record Owner(Region region, String id) {}
+
+    private static final class Entry {
+        final long generation;
+        final ConcurrentMap<String, Object> values = new ConcurrentHashMap<>();
+
+        Entry(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private final Cache<Owner, Entry> near;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ReadModelCache(ObjectProvider<StringRedisTemplate> redisTemplate,
+                          ObjectMapper objectMapper,
+                          ApplicationEventPublisher events,
+                          @Value("${library.cache.redis-enabled:false}") boolean redisEnabled,
+                          @Value("${library.cache.near-size:10000}") long nearSize,
+                          @Value("${library.cache.near-ttl-seconds:120}") long nearTtlSeconds) {
+        this.redis = redisEnabled ? redisTemplate.getIfAvailable() : null;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        // O TTL local limita por quanto tempo uma réplica fica velha se perder uma mensagem do pub/sub
+        this.near = Caffeine.newBuilder()
+                .maximumSize(nearSize)
+                .expireAfterWrite(Duration.ofSeconds(nearTtlSeconds))
+                .build();
+        log.info("🧊 Cache de leitura: local{}", redis != null ? " + Redis" : " (sem Redis)");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Region region, String ownerId, String key, TypeReference<T> type, Supplier<T> loader) {
+        Owner owner = new Owner(region, ownerId);
+        Entry local = near.getIfPresent(owner);
+        if (local != null) {
+            Object value = local.values.get(key);
+            if (value != null) return (T) value;
+        }
+
+        long generation;
+        T value = null;
+        try {
+            generation = local != null ? local.generation : remoteGeneration(owner);
+            if (redis != null) {
+                String json = (String) redis.opsForHash().get(dataKey(owner, generation), key);
+                if (json != null) value = objectMapper.readValue(json, type);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Redis indisponível para o cache ({}): lendo direto do banco", e.getMessage());
+            return loader.get();
+        }
+
+        if (value == null) {
+            value = loader.get();
+            if (value == null) return null;
+            putRemote(owner, generation, key, value);
+        }
+        putLocal(owner, generation, key, value);
+        return value;
+    }
+
+    // Depois do commit, para a próxima leitura (aqui ou em outra réplica) já ver a escrita
+    public void invalidateAfterCommit(Region region, String ownerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(region, ownerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(region, ownerId);
+            }
+        });
+    }
+
+    public void invalidate(Region region, String ownerId) {
+        Owner owner = new Owner(region, ownerId);
+        if (redis == null) {
+            near.asMap().compute(owner, (k, current) -> new Entry(current != null ? current.generation + 1 : 1));
+            return;
+        }
+        try {
+            String generationKey = generationKey(owner);
+            long generation = redis.opsForValue().increment(generationKey);
+            redis.expire(generationKey, GENERATION_TTL);
+            redis.delete(dataKey(owner, generation - 1));
+            redis.convertAndSend(CHANNEL, String.join("|", region.name(), String.valueOf(generation), instanceId, ownerId));
+            onInvalidation(owner, generation);
+        } catch (Exception e) {
+            // As outras réplicas ficam velhas até o TTL local; esta pelo menos descarta o que tem
+            log.error("❌ Falha ao publicar invalidação de {} {}: {}", region, ownerId, e.getMessage());
+            near.invalidate(owner);
+        }
+    }
+
+    // Mensagem do canal: "REGIÃO|geração|instância|dono"
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 4);
+        if (parts.length != 4) return;
+        Owner owner;
+        try {
+            owner = new Owner(Region.valueOf(parts[0]), parts[3]);
+            onInvalidation(owner, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Invalidação de cache ignorada: {}", message);
+            return;
+        }
+        if (!instanceId.equals(parts[2])) {
+            events.publishEvent(new Invalidated(owner.region(), owner.id()));
+        }
+    }
+
+    private void onInvalidation(Owner owner, long generation) {
+        near.asMap().compute(owner, (k, current) ->
+                current != null && current.generation >= generation ? current : new Entry(generation));
+    }
+
+    private long remoteGeneration(Owner owner) {
+        if (redis == null) return 0;
+        String generation = redis.opsForValue().get(generationKey(owner));
+        return generation != null ? Long.parseLong(generation) : 0;
+    }
+
+    private void putRemote(Owner owner, long generation, String key, Object value) {
+        if (redis == null) return;
+        try {
+            String dataKey = dataKey(owner, generation);
+            redis.opsForHash().put(dataKey, key, objectMapper.writeValueAsString(value));
+            redis.expire(dataKey, owner.region().ttl);
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao gravar no Redis ({}): {}", owner.region(), e.getMessage());
+        }
+    }
+
+    // Só grava se a entrada local ainda é da geração lida; uma invalidação no meio do caminho vence
+    private void putLocal(Owner owner, long generation, String key, Object value) {
+        near.asMap().compute(owner, (k, current) -> {
+            Entry target = current == null || current.generation < generation ? new Entry(generation) : current;
+            if (target.generation == generation) target.values.put(key, value);
+            return target;
+        });
+    }
+
+    private static String generationKey(Owner owner) {
+        return "library:cache:gen:" + owner.region().name() + ":" + owner.id();
+    }
+
+    private static String dataKey(Owner owner, long generation) {
+        return "library:cache:" + owner.region().name() + ":" + owner.id() + ":" + generation;
+    }
+}
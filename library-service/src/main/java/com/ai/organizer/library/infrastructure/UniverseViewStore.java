@@ -0,0 +1,178 @@
+package com.ai.organizer.library.infrastructure;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Arquivo local (H2 MVStore) com a visão materializada do universo de cada usuário.
+ *
+ * Auto-commit desligado: visões e offsets do Kafka são gravados juntos em {@link #commit()},
+ * então depois de um crash o arquivo volta a uma versão em que os dois batem.
+ *
+ * As sequências do /changes são locais ao arquivo. Cada arquivo sorteia um storeId e numera as mudanças
+ * a partir de storeId * 2^33, então um "since" ou ETag vindo de outra réplica (ou de um arquivo apagado)
+ * cai fora da faixa e vira reset, nunca um delta errado. Delta sync e 304 só funcionam com o cliente
+ * preso à mesma réplica (sticky routing); sem isso continuam corretos, só baixam tudo de novo.
+ */
+@Component
+@Slf4j
+public class UniverseViewStore {
+
+    private final MVStore store;
+    private final MVMap<String, byte[]> views;
+    private final MVMap<String, String> owners;
+    private final MVMap<String, Long> tombstones;
+    private final MVMap<String, Long> offsets;
+    private final MVMap<String, Long> sequences;
+    private final MVMap<String, Long> changeFloors;
+    private final MVMap<String, byte[]> changes;
+    private final long storeId;
+
+    private static final int SEQUENCE_BITS = 33;
+    // storeId em [2^19, 2^20): a maior sequência fica abaixo de 2^53, exata num number do JavaScript
+    private static final long MIN_STORE_ID = 1L << 19;
+
+    public UniverseViewStore(@Value("${library.universe-view.path:./data/universe-view.mv}") String path) {
+        File file = new File(path);
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+
+        this.store = new MVStore.Builder()
+                .fileName(file.getAbsolutePath())
+                .autoCommitDisabled()
+                .compress()
+                .open();
+        this.views = store.openMap("views");
+        this.owners = store.openMap("owners");
+        this.tombstones = store.openMap("tombstones");
+        this.offsets = store.openMap("offsets");
+        this.sequences = store.openMap("sequences");
+        this.changeFloors = store.openMap("changeFloors");
+        this.changes = store.openMap("changes");
+
+        MVMap<String, Long> meta = store.openMap("meta");
+        Long existing = meta.get("storeId");
+        if (existing == null) {
+            // Arquivo novo ou anterior ao storeId: sequências antigas podem colidir com outra réplica, recomeça o log
+            existing = MIN_STORE_ID + ThreadLocalRandom.current().nextLong(MIN_STORE_ID);
+            sequences.clear();
+            changeFloors.clear();
+            changes.clear();
+            meta.put("storeId", existing);
+            store.commit();
+        }
+        this.storeId = existing;
+        log.info("🪐 Visão materializada aberta em {} ({} usuários)", file.getAbsolutePath(), views.size());
+    }
+
+    public byte[] view(String userId) {
+        return views.get(userId);
+    }
+
+    public void putView(String userId, byte[] view) {
+        views.put(userId, view);
+    }
+
+    public boolean putViewIfAbsent(String userId, byte[] view) {
+        return views.putIfAbsent(userId, view) == null;
+    }
+
+    // Dono de cada estrela/galáxia ("H:12", "S:7", "G:3"), para eventos que não trazem o userId
+    public String owner(String ref) {
+        return owners.get(ref);
+    }
+
+    public void putOwner(String ref, String userId) {
+        owners.put(ref, userId);
+    }
+
+    // Itens apagados: um "created" atrasado (outro tópico, outra partição) não pode ressuscitá-los
+    public boolean isDeleted(String ref) {
+        return tombstones.containsKey(ref);
+    }
+
+    public void markDeleted(String ref) {
+        tombstones.put(ref, System.currentTimeMillis());
+        owners.remove(ref);
+    }
+
+    public Long offset(TopicPartition partition) {
+        return offsets.get(partition.topic() + ":" + partition.partition());
+    }
+
+    public void putOffset(TopicPartition partition, long offset) {
+        offsets.put(partition.topic() + ":" + partition.partition(), offset);
+    }
+
+    // Última mudança registrada para o usuário (0 se nenhuma)
+    public long sequence(String userId) {
+        return sequences.getOrDefault(userId, 0L);
+    }
+
+    // Mudanças com seq > floor estão no log; abaixo disso o cliente precisa recarregar tudo
+    public long changeFloor(String userId) {
+        return changeFloors.getOrDefault(userId, 0L);
+    }
+
+    public void putChange(String userId, long seq, byte[] change) {
+        changes.put(changeKey(userId, seq), change);
+        sequences.put(userId, seq);
+    }
+
+    // Mantém só as últimas {@code keep} mudanças do usuário
+    public void trimChanges(String userId, long keep) {
+        long floor = changeFloor(userId);
+        long newFloor = sequence(userId) - keep;
+        if (newFloor <= floor) return;
+        for (long seq = floor + 1; seq <= newFloor; seq++) {
+            changes.remove(changeKey(userId, seq));
+        }
+        changeFloors.put(userId, newFloor);
+    }
+
+    // Recomeça o log na sequência atual (visão recarregada do banco); usuário novo começa na faixa do arquivo
+    public void resetChanges(String userId) {
+        if (!sequences.containsKey(userId)) {
+            long start = storeId << SEQUENCE_BITS;
+            sequences.put(userId, start);
+            changeFloors.put(userId, start);
+            return;
+        }
+        trimChanges(userId, 0);
+    }
+
+    public List<byte[]> changesSince(String userId, long since, int max) {
+        List<byte[]> result = new ArrayList<>();
+        String prefix = userId + '\u0000';
+        Iterator<String> keys = changes.keyIterator(changeKey(userId, since + 1));
+        while (keys.hasNext() && result.size() < max) {
+            String key = keys.next();
+            if (!key.startsWith(prefix)) break;
+            result.add(changes.get(key));
+        }
+        return result;
+    }
+
+    private static String changeKey(String userId, long seq) {
+        return userId + '\u0000' + String.format("%019d", seq);
+    }
+
+    public void commit() {
+        store.commit();
+    }
+
+    @PreDestroy
+    void close() {
+        store.close();
+    }
+}
@@ -1,40 +1,42 @@
 package com.ai.organizer.library.kafka;
 
-import com.ai.organizer.library.event.CoverGeneratedEvent;
-import com.ai.organizer.library.repository.DocumentRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.CoverGeneratedEvent;
+import com.ai.organizer.library.repository.LibraryBatchWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class CoverConsumer {
 
-    private final DocumentRepository documentRepository;
-    private final ObjectMapper objectMapper;
+    private final LibraryBatchWriter batchWriter;
 
-    @KafkaListener(topics = "document.cover.generated", groupId = "library-service-covers")
+    @KafkaListener(topics = EventTopics.COVER_GENERATED, groupId = "library-service-covers", batch = "true")
     @Transactional
-    public void consumeCoverEvent(String message) {
-        try {
-            CoverGeneratedEvent event = objectMapper.readValue(message, CoverGeneratedEvent.class);
-            log.info("🖼️ Recebido aviso de capa para: {}", event.fileHash());
+    public void consumeCoverEvents(List<CoverGeneratedEvent> events) {
+        
+        // Último aviso de cada hash vence
+        Map<String, CoverGeneratedEvent> latest = new LinkedHashMap<>();
+        for (CoverGeneratedEvent event : KafkaPayloads.present(events, EventTopics.COVER_GENERATED)) {
+            latest.put(event.fileHash(), event);
+        }
+        if (latest.isEmpty()) return;
 
-            
-            documentRepository.findByFileHash(event.fileHash()).ifPresentOrElse(doc -> {
-                doc.setCoverPath(event.coverPath());
-                documentRepository.save(doc);
-                log.info("✅ Capa atualizada no banco para o livro: {}", doc.getTitle());
-            }, () -> {
-                log.warn("⚠️ Documento não encontrado para o hash: {}", event.fileHash());
-            });
+        int[] updated = batchWriter.updateCovers(new ArrayList<>(latest.values()));
+        long changed = Arrays.stream(updated).filter(n -> n > 0).count();
 
-        } catch (Exception e) {
-            log.error("❌ Erro ao processar evento de capa", e);
-        }
+        log.info("🖼️ Lote de capas processado: {} mensagens, {} documentos atualizados ({} sem mudança ou inexistentes)",
+                events.size(), changed, latest.size() - changed);
     }
-}
\ No newline at end of file
+}
@@ -1,49 +1,46 @@
 package com.ai.organizer.library.kafka;
 
-import com.ai.organizer.library.domain.Document;
-import com.ai.organizer.library.event.IngestionEvent;
-import com.ai.organizer.library.repository.DocumentRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.IngestionEvent;
+import com.ai.organizer.library.repository.LibraryBatchWriter;
+import com.ai.organizer.library.service.StatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class DocumentIngestionConsumer {
 
-    private final DocumentRepository documentRepository;
-    private final ObjectMapper objectMapper;
-
-    @KafkaListener(topics = "document.ingestion", groupId = "library-service-group")
-    public void consume(String message) {
-        try {
-            
-            IngestionEvent event = objectMapper.readValue(message, IngestionEvent.class);
-            log.info("📚 Ingestão recebida na Biblioteca: {}", event.originalName());
-
-            
-            if (documentRepository.findByFileHash(event.fileHash()).isPresent()) {
-                log.info("Documento já existe na biblioteca: {}", event.fileHash());
-                return;
-            }
-
-            
-            Document doc = new Document(
-                event.originalName(),
-                event.fileHash(),
-                event.userId(),
-                event.s3Key(),
-                event.fileSize() 
-            );
-
-            documentRepository.save(doc);
-            log.info("✅ Documento registrado na estante: {}", doc.getTitle());
-
-        } catch (Exception e) {
-            log.error("❌ Erro ao processar ingestão na biblioteca", e);
+    private final LibraryBatchWriter batchWriter;
+    private final StatsService statsService;
+
+    @KafkaListener(topics = EventTopics.DOCUMENT_INGESTION, groupId = "library-service-group", batch = "true")
+    @Transactional
+    public void consume(List<IngestionEvent> events) {
+        
+        // Conteúdo: primeiro evento de cada hash vence (documento já existe = ignora).
+        // Estante: um por (hash, usuário), então o mesmo livro enviado por outro usuário entra na estante dele
+        Map<String, IngestionEvent> unique = new LinkedHashMap<>();
+        Map<String, IngestionEvent> owners = new LinkedHashMap<>();
+        for (IngestionEvent event : KafkaPayloads.present(events, EventTopics.DOCUMENT_INGESTION)) {
+            unique.putIfAbsent(event.fileHash(), event);
+            owners.putIfAbsent(event.fileHash() + "|" + event.userId(), event);
         }
+        if (unique.isEmpty()) return;
+
+        batchWriter.insertDocuments(new ArrayList<>(unique.values()));
+        List<IngestionEvent> created = batchWriter.insertOwners(new ArrayList<>(owners.values()));
+        statsService.recordDocuments(created);
+        log.info("📚 Lote de ingestão registrado na estante: {} mensagens, {} documentos distintos, {} posses novas",
+                events.size(), unique.size(), created.size());
     }
-}
\ No newline at end of file
+}
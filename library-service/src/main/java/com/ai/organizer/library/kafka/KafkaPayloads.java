@@ -0,0 +1,24 @@
+package com.ai.organizer.library.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Nos listeners em lote, registros que o EventDeserializer não conseguiu ler chegam
+ * como null (ErrorHandlingDeserializer); eles são descartados aqui com log.
+ */
+@Slf4j
+final class KafkaPayloads {
+
+    private KafkaPayloads() {}
+
+    static <T> List<T> present(List<T> events, String topic) {
+        List<T> valid = events.stream().filter(Objects::nonNull).toList();
+        if (valid.size() < events.size()) {
+            log.error("❌ {} payload(s) inválido(s) descartado(s) no tópico {}", events.size() - valid.size(), topic);
+        }
+        return valid;
+    }
+}
@@ -1,8 +1,8 @@
 package com.ai.organizer.library.kafka;
 
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.RadarUpdateCompletedEvent;
 import com.ai.organizer.library.repository.UserProfileRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -15,32 +15,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class RadarCompletedConsumer {
 
     private final UserProfileRepository profileRepository;
-    private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "radar.update.completed", groupId = "library-radar-updater-v3")
+    @KafkaListener(topics = EventTopics.RADAR_UPDATE_COMPLETED, groupId = "library-radar-updater-v3")
     @Transactional
-    public void consumeRadarResult(String message) {
-        log.info("📩 [RADAR] Recebida mensagem de conclusão: {}", message);
-        try {
-            
-            JsonNode jsonNode = objectMapper.readTree(message);
-            if (jsonNode.isTextual()) {
-                jsonNode = objectMapper.readTree(jsonNode.asText());
-            }
+    public void consumeRadarResult(RadarUpdateCompletedEvent event) {
+        log.info("📩 [RADAR] Recebida mensagem de conclusão para: {}", event.userId());
+        String userId = event.userId();
 
-            
-            String userId = jsonNode.get("userId").asText();
-            String radarContent = jsonNode.get("radarJson").asText();
-
-           
-            profileRepository.findById(userId).ifPresentOrElse(profile -> {
-                profile.setRadarData(radarContent);
-                profileRepository.save(profile);
-                log.info("✅ Radar persistido com sucesso para o usuário: {}", userId);
-            }, () -> log.warn("⚠️ Perfil não encontrado para o usuário: {}", userId));
-
-        } catch (Exception e) {
-            log.error("❌ Erro ao persistir resultado do radar. Payload: {}", message, e);
-        }
+        // Erros de banco sobem para o container (tópicos de retry → DLT)
+        profileRepository.findById(userId).ifPresentOrElse(profile -> {
+            profile.setRadarData(event.radarJson());
+            profileRepository.save(profile);
+            log.info("✅ Radar persistido com sucesso para o usuário: {}", userId);
+        }, () -> log.warn("⚠️ Perfil não encontrado para o usuário: {}", userId));
     }
-}
\ No newline at end of file
+}
@@ -1,44 +1,74 @@
 package com.ai.organizer.library.kafka;
 
-import com.ai.organizer.library.domain.StarGalaxyLink;
 import com.ai.organizer.library.domain.UserGalaxy;
-import com.ai.organizer.library.event.StarLinkedEvent;
-import com.ai.organizer.library.repository.StarGalaxyLinkRepository;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.StarLinkedEvent;
+import com.ai.organizer.library.repository.LibraryBatchWriter;
 import com.ai.organizer.library.repository.UserGalaxyRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ai.organizer.library.service.GalaxyLayoutService;
+import com.ai.organizer.library.service.StatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class StarLinkedConsumer {
 
-    private final StarGalaxyLinkRepository linkRepository;
+    private final LibraryBatchWriter batchWriter;
     private final UserGalaxyRepository galaxyRepository;
-    private final ObjectMapper objectMapper;
+    private final StatsService statsService;
+    private final GalaxyLayoutService layoutService;
 
-    @KafkaListener(topics = "star.linked", groupId = "library-linker-v1")
+    @KafkaListener(topics = EventTopics.STAR_LINKED, groupId = "library-linker-v1", batch = "true")
     @Transactional
-    public void consumeLink(String message) {
-        try {
-            
-            String clean = message.startsWith("\"") ? message.substring(1, message.length()-1).replace("\\\"", "\"") : message;
-            
-            StarLinkedEvent event = objectMapper.readValue(clean, StarLinkedEvent.class);
-            
-            UserGalaxy galaxy = galaxyRepository.findById(Long.valueOf(event.galaxyId())).orElseThrow();
-
-            StarGalaxyLink link = new StarGalaxyLink(galaxy, event.starId(), event.score());
-            linkRepository.save(link);
-            
-            log.info("🔗 Link persistido: Estrela {} atraída por Galáxia {}", event.starId(), event.galaxyId());
-
-        } catch (Exception e) {
-            log.error("Erro ao persistir link automático", e);
+    public void consumeLinks(List<StarLinkedEvent> events) {
+        
+        // Último score de cada par (galáxia, estrela) vence
+        Map<String, StarLinkedEvent> latest = new LinkedHashMap<>();
+        for (StarLinkedEvent event : KafkaPayloads.present(events, EventTopics.STAR_LINKED)) {
+            if (!isNumeric(event.galaxyId()) || event.starId() == null) {
+                log.warn("⚠️ Link ignorado, referência inválida: {}", event);
+                continue;
+            }
+            latest.put(event.galaxyId() + ":" + event.starId(), event);
         }
+        if (latest.isEmpty()) return;
+
+        
+        // Uma consulta para todas as galáxias do lote; links para galáxias apagadas são descartados
+        Set<Long> galaxyIds = latest.values().stream()
+                .map(e -> Long.valueOf(e.galaxyId()))
+                .collect(Collectors.toSet());
+        Map<Long, String> ownerByGalaxy = galaxyRepository.findAllById(galaxyIds).stream()
+                .collect(Collectors.toMap(UserGalaxy::getId, UserGalaxy::getUserId));
+
+        List<StarLinkedEvent> valid = latest.values().stream()
+                .filter(e -> ownerByGalaxy.containsKey(Long.valueOf(e.galaxyId())))
+                .toList();
+
+        // Só pares inéditos contam; os demais são apenas atualização de score
+        Map<String, Long> newLinksByUser = batchWriter.upsertLinks(valid).stream()
+                .collect(Collectors.groupingBy(e -> ownerByGalaxy.get(Long.valueOf(e.galaxyId())), Collectors.counting()));
+        statsService.recordLinks(newLinksByUser);
+        valid.stream()
+                .collect(Collectors.groupingBy(e -> ownerByGalaxy.get(Long.valueOf(e.galaxyId())),
+                        Collectors.mapping(StarLinkedEvent::starId, Collectors.toSet())))
+                .forEach(layoutService::requestLayout);
+        log.info("🔗 Lote de links persistido: {} mensagens, {} links distintos, {} para galáxias inexistentes",
+                events.size(), valid.size(), latest.size() - valid.size());
+    }
+
+    private boolean isNumeric(String value) {
+        return value != null && !value.isEmpty() && value.chars().allMatch(Character::isDigit);
     }
-}
\ No newline at end of file
+}
@@ -1,59 +1,81 @@
 package com.ai.organizer.library.kafka;
 
-import com.ai.organizer.library.event.SummaryCompletedEvent;
+import com.ai.organizer.library.domain.UserSummary;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.SummaryCompletedEvent;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.repository.LibraryBatchWriter;
 import com.ai.organizer.library.repository.UserSummaryRepository;
 import com.ai.organizer.library.service.RadarTriggerService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class SummaryCompletedConsumer {
 
+    private final LibraryBatchWriter batchWriter;
     private final UserSummaryRepository summaryRepository;
     private final RadarTriggerService radarTriggerService; 
-    private final ObjectMapper objectMapper;
+    private final ReadModelCache readModelCache;
 
-    @KafkaListener(topics = "summary.completed", groupId = "library-summary-updater")
+    @KafkaListener(topics = EventTopics.SUMMARY_COMPLETED, groupId = "library-summary-updater", batch = "true")
     @Transactional
-    public void consume(String message) {
-        try {
-            
-            JsonNode jsonNode = objectMapper.readTree(message);
-            if (jsonNode.isTextual()) {
-                jsonNode = objectMapper.readTree(jsonNode.asText());
+    public void consume(List<SummaryCompletedEvent> events) {
+        
+        // Último status de cada resumo vence
+        Map<Long, SummaryCompletedEvent> latest = new LinkedHashMap<>();
+        for (SummaryCompletedEvent event : KafkaPayloads.present(events, EventTopics.SUMMARY_COMPLETED)) {
+            if (event.summaryId() != null) latest.put(event.summaryId(), event);
+        }
+        if (latest.isEmpty()) return;
+
+        Map<Long, UserSummary> summaries = summaryRepository.findAllById(latest.keySet()).stream()
+                .collect(Collectors.toMap(UserSummary::getId, Function.identity()));
+
+        List<SummaryCompletedEvent> known = new ArrayList<>();
+        latest.forEach((id, event) -> {
+            if (summaries.containsKey(id)) known.add(event);
+            else log.warn("⚠️ Tentativa de atualizar resumo inexistente. ID: {}", id);
+        });
+        if (known.isEmpty()) return;
+
+        int[] updated = batchWriter.updateSummaries(known);
+
+        
+        // Reentrega não muda nada (linha já igual), então o radar só é avaliado para mudanças reais
+        Set<String> usersToCheck = new LinkedHashSet<>();
+        Set<String> usersChanged = new LinkedHashSet<>();
+        for (int i = 0; i < known.size(); i++) {
+            SummaryCompletedEvent event = known.get(i);
+            if (updated[i] > 0) {
+                usersChanged.add(summaries.get(event.summaryId()).getUserId());
+            }
+            if (updated[i] > 0 && "COMPLETED".equalsIgnoreCase(event.status())) {
+                usersToCheck.add(summaries.get(event.summaryId()).getUserId());
             }
+        }
+        usersChanged.forEach(userId -> readModelCache.invalidateAfterCommit(ReadModelCache.Region.BOOK_SUMMARIES, userId));
+
+        log.info("📩 [RESUMO COMPLETO] Lote processado: {} mensagens, {} resumos, {} usuários para o radar",
+                events.size(), known.size(), usersToCheck.size());
 
-            
-            SummaryCompletedEvent event = objectMapper.treeToValue(jsonNode, SummaryCompletedEvent.class);
-            
-            log.info("📩 [RESUMO COMPLETO] Processando conclusão do resumo ID: {}", event.summaryId());
-
-            
-            summaryRepository.findById(event.summaryId()).ifPresentOrElse(summary -> {
-                summary.setGeneratedText(event.generatedText());
-                summary.setStatus(event.status());
-                
-                
-                summaryRepository.save(summary);
-                log.info("✅ Status do resumo {} atualizado para: {}", event.summaryId(), event.status());
-
-                
-                if ("COMPLETED".equalsIgnoreCase(event.status())) {
-                    log.info("🎯 Disparando verificação de marco para o radar do usuário: {}", summary.getUserId());
-                    radarTriggerService.checkAndTrigger(summary.getUserId());
-                }
-                
-            }, () -> log.warn("⚠️ Tentativa de atualizar resumo inexistente. ID: {}", event.summaryId()));
-
-        } catch (Exception e) {
-            log.error("❌ Erro crítico ao processar conclusão de resumo no Kafka", e);
+        for (String userId : usersToCheck) {
+            log.info("🎯 Disparando verificação de marco para o radar do usuário: {}", userId);
+            radarTriggerService.checkAndTrigger(userId);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.ai.organizer.library.kafka;
+
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.library.service.UniverseViewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alimenta a visão materializada. Cada instância tem o próprio grupo e guarda os offsets junto
+ * com a visão no arquivo local: no startup ela retoma do último offset gravado e reaplica o que
+ * perdeu. Sem arquivo (instância nova) começa do fim; os usuários são carregados do Postgres sob demanda.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UniverseViewConsumer implements ConsumerSeekAware {
+
+    private final UniverseViewService universeViewService;
+
+    @KafkaListener(topics = {
+            EventTopics.HIGHLIGHT_CREATED, EventTopics.STAR_LINKED, EventTopics.SUMMARY_REQUESTED,
+            EventTopics.SUMMARY_COMPLETED, EventTopics.DATA_DELETED, EventTopics.DOCUMENT_INGESTION
+    }, groupId = "library-universe-view-${HOSTNAME:local}", batch = "true")
+    public void consume(List<ConsumerRecord<String, Object>> records) {
+        universeViewService.apply(records);
+        log.debug("🪐 Visão materializada: {} eventos aplicados", records.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> {
+            Long last = universeViewService.checkpoint(partition);
+            if (last != null) {
+                callback.seek(partition.topic(), partition.partition(), last + 1);
+            } else {
+                callback.seekToEnd(partition.topic(), partition.partition());
+            }
+        });
+    }
+}
@@ -0,0 +1,305 @@
+package com.ai.organizer.library.layout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Layout force-directed do canvas (mesmo desenho da física do front: estrelas orbitam as galáxias
+ * a uma distância que cai com o score, estrelas sem link ficam no anel do "caos").
+ *
+ * - Repulsão local entre estrelas por Barnes-Hut (quadtree, O(n log n) por iteração).
+ * - Molas estrela → galáxia com repouso MIN_ORBIT..MAX_ORBIT pelo score, peso score³.
+ * - Só os índices "ativos" se movem; os demais repelem mas ficam parados (layout incremental).
+ * - Forças e deslocamentos são calculados em paralelo no ForkJoinPool recebido.
+ *
+ * Galáxias são âncoras fixas: a posição delas é escolhida pelo usuário no canvas.
+ */
+public final class BarnesHutLayout {
+
+    static final double SPACING = 60;
+    static final double MIN_ORBIT = 180;
+    static final double MAX_ORBIT = 1000;
+    static final double CHAOS_RADIUS = 3000;
+
+    // Repulsão só evita sobreposição local; a forma do canvas vem das molas (como no front)
+    private static final double REPULSION_RANGE = 5 * SPACING;
+    private static final double THETA = 0.7;
+    private static final double SPRING = 0.4;
+    private static final double CHAOS_SPRING = 0.05;
+    private static final int MAX_DEPTH = 24;
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] anchorX;
+    private final double[] anchorY;
+    private final int[][] links;
+    private final double[][] scores;
+
+    /**
+     * @param x, y       posições das estrelas (alteradas no lugar)
+     * @param anchorX/Y  posições das galáxias
+     * @param links      por estrela, índices das galáxias ligadas
+     * @param scores     por estrela, score de cada link (mesma ordem de links)
+     */
+    public BarnesHutLayout(double[] x, double[] y, double[] anchorX, double[] anchorY, int[][] links, double[][] scores) {
+        this.x = x;
+        this.y = y;
+        this.anchorX = anchorX;
+        this.anchorY = anchorY;
+        this.links = links;
+        this.scores = scores;
+    }
+
+    public void run(int[] active, int iterations, double initialTemperature, ForkJoinPool pool) {
+        if (active.length == 0) return;
+        double[] fx = new double[active.length];
+        double[] fy = new double[active.length];
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            Quad root = build();
+            double temperature = initialTemperature * (1 - (double) iteration / iterations) + 1;
+            pool.invoke(new ForceTask(root, active, fx, fy, 0, active.length));
+            // Desloca só depois de calcular todas as forças: a árvore da iteração continua válida
+            pool.invoke(new MoveTask(active, fx, fy, temperature, 0, active.length));
+        }
+    }
+
+    /**
+     * Estrelas a até {@code radius} de alguma semente (incluindo as sementes): a vizinhança que se
+     * reacomoda quando estrelas novas entram. Grade com células do tamanho do raio, O(n).
+     */
+    public static int[] neighbourhood(double[] x, double[] y, int[] seeds, double radius) {
+        Map<Long, List<Integer>> grid = new HashMap<>();
+        for (int i = 0; i < x.length; i++) {
+            grid.computeIfAbsent(cell(x[i], y[i], radius), c -> new ArrayList<>()).add(i);
+        }
+
+        boolean[] selected = new boolean[x.length];
+        double r2 = radius * radius;
+        for (int seed : seeds) {
+            selected[seed] = true;
+            long cx = (long) Math.floor(x[seed] / radius);
+            long cy = (long) Math.floor(y[seed] / radius);
+            for (long gx = cx - 1; gx <= cx + 1; gx++) {
+                for (long gy = cy - 1; gy <= cy + 1; gy++) {
+                    List<Integer> bucket = grid.get(key(gx, gy));
+                    if (bucket == null) continue;
+                    for (int j : bucket) {
+                        double dx = x[j] - x[seed];
+                        double dy = y[j] - y[seed];
+                        if (dx * dx + dy * dy <= r2) selected[j] = true;
+                    }
+                }
+            }
+        }
+
+        int count = 0;
+        for (boolean s : selected) if (s) count++;
+        int[] result = new int[count];
+        for (int i = 0, k = 0; i < selected.length; i++) if (selected[i]) result[k++] = i;
+        return result;
+    }
+
+    // FNV-1a normalizado para [0, 1), igual ao pseudoRandom do front
+    public static double unit(String seed) {
+        int h = 0x811c9dc5;
+        for (int c = 0; c < seed.length(); c++) {
+            h ^= seed.charAt(c);
+            h *= 0x01000193;
+        }
+        return (h & 0xffffffffL) / 4294967296.0;
+    }
+
+    private static long cell(double px, double py, double size) {
+        return key((long) Math.floor(px / size), (long) Math.floor(py / size));
+    }
+
+    private static long key(long cx, long cy) {
+        return (cx << 32) ^ (cy & 0xffffffffL);
+    }
+
+    private Quad build() {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < x.length; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double half = Math.max(maxX - minX, maxY - minY) / 2 + 1;
+        Quad root = new Quad((minX + maxX) / 2, (minY + maxY) / 2, half);
+        for (int i = 0; i < x.length; i++) {
+            root.insert(x[i], y[i], 0);
+        }
+        return root;
+    }
+
+    private void force(Quad root, int i, double[] out) {
+        double fx = 0, fy = 0;
+
+        // Repulsão (Fruchterman-Reingold: k²/d) aproximada pela árvore, até REPULSION_RANGE
+        Quad[] stack = new Quad[MAX_DEPTH * 4 + 4];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Quad q = stack[--top];
+            if (q.mass == 0) continue;
+            double outX = Math.max(Math.abs(x[i] - q.cx) - q.half, 0);
+            double outY = Math.max(Math.abs(y[i] - q.cy) - q.half, 0);
+            if (outX * outX + outY * outY > REPULSION_RANGE * REPULSION_RANGE) continue;
+            double dx = x[i] - q.mx / q.mass;
+            double dy = y[i] - q.my / q.mass;
+            double d2 = dx * dx + dy * dy;
+            boolean far = 4 * q.half * q.half < THETA * THETA * d2;
+            if (q.children == null || far) {
+                if (d2 < 1e-9 || d2 > REPULSION_RANGE * REPULSION_RANGE) continue; // a própria estrela, ou longe
+                double f = SPACING * SPACING * q.mass / d2;
+                fx += dx * f;
+                fy += dy * f;
+            } else {
+                for (Quad child : q.children) {
+                    if (child != null) stack[top++] = child;
+                }
+            }
+        }
+
+        int[] myLinks = links[i];
+        if (myLinks.length == 0) {
+            double r = Math.hypot(x[i], y[i]) + 1e-9;
+            double pull = -CHAOS_SPRING * (r - CHAOS_RADIUS) / r;
+            fx += x[i] * pull;
+            fy += y[i] * pull;
+        } else {
+            for (int l = 0; l < myLinks.length; l++) {
+                double score = Math.max(0, Math.min(1, scores[i][l]));
+                double dx = anchorX[myLinks[l]] - x[i];
+                double dy = anchorY[myLinks[l]] - y[i];
+                double d = Math.hypot(dx, dy) + 1e-9;
+                double rest = MIN_ORBIT + (1 - score) * (MAX_ORBIT - MIN_ORBIT);
+                double pull = SPRING * (d - rest) * score * score * score / d;
+                fx += dx * pull;
+                fy += dy * pull;
+            }
+        }
+        out[0] = fx;
+        out[1] = fy;
+    }
+
+    private final class ForceTask extends RecursiveAction {
+        private final Quad root;
+        private final int[] active;
+        private final double[] fx, fy;
+        private final int from, to;
+
+        ForceTask(Quad root, int[] active, double[] fx, double[] fy, int from, int to) {
+            this.root = root;
+            this.active = active;
+            this.fx = fx;
+            this.fy = fy;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ForceTask(root, active, fx, fy, from, mid), new ForceTask(root, active, fx, fy, mid, to));
+                return;
+            }
+            double[] out = new double[2];
+            for (int k = from; k < to; k++) {
+                force(root, active[k], out);
+                fx[k] = out[0];
+                fy[k] = out[1];
+            }
+        }
+    }
+
+    private final class MoveTask extends RecursiveAction {
+        private final int[] active;
+        private final double[] fx, fy;
+        private final double temperature;
+        private final int from, to;
+
+        MoveTask(int[] active, double[] fx, double[] fy, double temperature, int from, int to) {
+            this.active = active;
+            this.fx = fx;
+            this.fy = fy;
+            this.temperature = temperature;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD * 8) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MoveTask(active, fx, fy, temperature, from, mid),
+                        new MoveTask(active, fx, fy, temperature, mid, to));
+                return;
+            }
+            for (int k = from; k < to; k++) {
+                double length = Math.hypot(fx[k], fy[k]);
+                if (length < 1e-9) continue;
+                double step = Math.min(length, temperature) / length;
+                x[active[k]] += fx[k] * step;
+                y[active[k]] += fy[k] * step;
+            }
+        }
+    }
+
+    // Célula da quadtree com massa e soma das posições (centro de massa = m / mass)
+    private static final class Quad {
+        final double cx, cy, half;
+        double mass, mx, my;
+        double bx, by; // posição do único corpo enquanto a célula é folha
+        Quad[] children;
+
+        Quad(double cx, double cy, double half) {
+            this.cx = cx;
+            this.cy = cy;
+            this.half = half;
+        }
+
+        void insert(double px, double py, int depth) {
+            if (mass == 0) {
+                mass = 1;
+                mx = px;
+                my = py;
+                bx = px;
+                by = py;
+                return;
+            }
+            if (children == null) {
+                // Pontos (quase) coincidentes no fundo da árvore viram uma massa só
+                if (depth >= MAX_DEPTH) {
+                    mass++;
+                    mx += px;
+                    my += py;
+                    return;
+                }
+                children = new Quad[4];
+                child(bx, by).insert(bx, by, depth + 1);
+            }
+            mass++;
+            mx += px;
+            my += py;
+            child(px, py).insert(px, py, depth + 1);
+        }
+
+        private Quad child(double px, double py) {
+            int index = (px >= cx ? 1 : 0) + (py >= cy ? 2 : 0);
+            if (children[index] == null) {
+                double h = half / 2;
+                children[index] = new Quad(cx + (px >= cx ? h : -h), cy + (py >= cy ? h : -h), h);
+            }
+            return children[index];
+        }
+    }
+}
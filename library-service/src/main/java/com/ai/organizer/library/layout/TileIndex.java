@@ -0,0 +1,170 @@
+package com.ai.organizer.library.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Índice espacial imutável (quadtree linear) sobre as coordenadas do canvas.
+ *
+ * O mundo é um quadrado de lado 2 * HALF_EXTENT centrado na origem. Cada ponto vira um código Morton
+ * de DEPTH níveis e os itens ficam ordenados por ele, então um nó da quadtree (e portanto um tile z/x/y)
+ * é um intervalo contíguo do array, achado com duas buscas binárias.
+ *
+ * Um tile devolve no máximo MAX_ITEMS_PER_TILE entradas: se tem poucos itens, vão todos; senão o tile
+ * é dividido em 16x16 células e cada célula com mais de um item vira um cluster (centroide, contagem e
+ * o item mais perto do centroide como representante).
+ */
+public final class TileIndex<T> {
+
+    public static final double HALF_EXTENT = 8192;
+    public static final int MAX_ZOOM = 12;
+    public static final int MAX_ITEMS_PER_TILE = 256;
+
+    private static final int CLUSTER_LEVELS = 4;
+    private static final int DEPTH = MAX_ZOOM + CLUSTER_LEVELS;
+    private static final int CELLS = 1 << DEPTH;
+
+    private final List<T> items;
+    private final long[] codes;
+    private final double[] xs;
+    private final double[] ys;
+
+    public record Cluster<T>(double x, double y, int count, T representative) {}
+
+    public record Tile<T>(int z, int x, int y, int total, List<T> items, List<Cluster<T>> clusters) {}
+
+    private TileIndex(List<T> items, long[] codes, double[] xs, double[] ys) {
+        this.items = items;
+        this.codes = codes;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    // Itens sem coordenada (NaN ou nulos mapeados para NaN) ficam fora; fora do mundo são presos na borda
+    public static <T> TileIndex<T> build(List<T> source, ToDoubleFunction<T> x, ToDoubleFunction<T> y) {
+        long[] keyed = new long[source.size()];
+        int n = 0;
+        for (int i = 0; i < source.size(); i++) {
+            double px = x.applyAsDouble(source.get(i));
+            double py = y.applyAsDouble(source.get(i));
+            if (!Double.isFinite(px) || !Double.isFinite(py)) continue;
+            // Código nos bits altos, posição original nos 31 baixos: um sort de long[] ordena os dois
+            keyed[n++] = (morton(cell(px), cell(py)) << 31) | i;
+        }
+        keyed = Arrays.copyOf(keyed, n);
+        Arrays.sort(keyed);
+
+        List<T> items = new ArrayList<>(n);
+        long[] codes = new long[n];
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int k = 0; k < n; k++) {
+            T item = source.get((int) (keyed[k] & Integer.MAX_VALUE));
+            items.add(item);
+            codes[k] = keyed[k] >>> 31;
+            xs[k] = x.applyAsDouble(item);
+            ys[k] = y.applyAsDouble(item);
+        }
+        return new TileIndex<>(items, codes, xs, ys);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    // Hash das posições: muda quando algum item entra, sai ou troca de célula
+    public long fingerprint() {
+        return Arrays.hashCode(codes) * 31L + codes.length;
+    }
+
+    public static boolean isValid(int z, int x, int y) {
+        return z >= 0 && z <= MAX_ZOOM && x >= 0 && y >= 0 && x < (1 << z) && y < (1 << z);
+    }
+
+    public Tile<T> tile(int z, int x, int y) {
+        if (!isValid(z, x, y)) {
+            throw new IllegalArgumentException("Tile inválido: " + z + "/" + x + "/" + y);
+        }
+        int shift = 2 * (DEPTH - z);
+        long prefix = morton(x, y);
+        int from = lowerBound(prefix << shift);
+        int to = lowerBound((prefix + 1) << shift);
+        int total = to - from;
+
+        if (total <= MAX_ITEMS_PER_TILE) {
+            return new Tile<>(z, x, y, total, List.copyOf(items.subList(from, to)), List.of());
+        }
+
+        // Células de 2 * CLUSTER_LEVELS bits abaixo do tile: também são intervalos contíguos
+        int cellShift = shift - 2 * CLUSTER_LEVELS;
+        List<T> singles = new ArrayList<>();
+        List<Cluster<T>> clusters = new ArrayList<>();
+        int start = from;
+        while (start < to) {
+            long cell = codes[start] >>> cellShift;
+            int end = start + 1;
+            while (end < to && codes[end] >>> cellShift == cell) end++;
+            if (end - start == 1) {
+                singles.add(items.get(start));
+            } else {
+                clusters.add(cluster(start, end));
+            }
+            start = end;
+        }
+        return new Tile<>(z, x, y, total, singles, clusters);
+    }
+
+    private Cluster<T> cluster(int from, int to) {
+        double cx = 0, cy = 0;
+        for (int i = from; i < to; i++) {
+            cx += xs[i];
+            cy += ys[i];
+        }
+        int count = to - from;
+        cx /= count;
+        cy /= count;
+
+        int nearest = from;
+        double best = Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            double d = (xs[i] - cx) * (xs[i] - cx) + (ys[i] - cy) * (ys[i] - cy);
+            if (d < best) {
+                best = d;
+                nearest = i;
+            }
+        }
+        return new Cluster<>(cx, cy, count, items.get(nearest));
+    }
+
+    private int lowerBound(long code) {
+        int lo = 0, hi = codes.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (codes[mid] < code) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int cell(double v) {
+        int c = (int) Math.floor((v + HALF_EXTENT) / (2 * HALF_EXTENT) * CELLS);
+        return Math.max(0, Math.min(CELLS - 1, c));
+    }
+
+    // Intercala os bits de x (posições pares) e y (ímpares)
+    private static long morton(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(long v) {
+        v &= 0xffffffffL;
+        v = (v | (v << 16)) & 0x0000ffff0000ffffL;
+        v = (v | (v << 8)) & 0x00ff00ff00ff00ffL;
+        v = (v | (v << 4)) & 0x0f0f0f0f0f0f0f0fL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
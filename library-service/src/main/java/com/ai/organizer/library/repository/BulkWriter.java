@@ -0,0 +1,113 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.events.StarLinkedEvent;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserções muito grandes por COPY ... FROM STDIN, na conexão da transação atual.
+ *
+ * COPY não tem ON CONFLICT, então os upserts copiam para uma tabela temporária (ON COMMIT DELETE ROWS,
+ * reaproveitada pela conexão do pool) e terminam com um único INSERT ... SELECT. Precisa de transação:
+ * em auto-commit a tabela temporária seria esvaziada entre o COPY e o INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkWriter {
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Mesma semântica de LibraryBatchWriter.upsertLinks: devolve os pares "galaxyId:starId" criados
+    public List<String> upsertLinks(List<StarLinkedEvent> events) {
+        if (events.isEmpty()) return List.of();
+        requireTransaction();
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE IF NOT EXISTS star_galaxy_links_stage (
+                    galaxy_id bigint, star_id text, score double precision
+                ) ON COMMIT DELETE ROWS
+                """);
+        copy("star_galaxy_links_stage", List.of("galaxy_id", "star_id", "score"), events.stream()
+                .map(e -> new Object[]{Long.parseLong(e.galaxyId()), e.starId(), e.score() != null ? e.score() : 0.0})
+                .toList());
+        return jdbcTemplate.queryForList("""
+                WITH upserted AS (
+                    INSERT INTO star_galaxy_links (galaxy_id, star_id, score)
+                    SELECT galaxy_id, star_id, score FROM star_galaxy_links_stage
+                    ON CONFLICT (galaxy_id, star_id) DO UPDATE SET score = EXCLUDED.score
+                    WHERE star_galaxy_links.score IS DISTINCT FROM EXCLUDED.score
+                    RETURNING galaxy_id, star_id, xmax = 0 AS inserted)
+                SELECT galaxy_id || ':' || star_id FROM upserted WHERE inserted
+                """, String.class);
+    }
+
+    /**
+     * COPY em CSV das linhas (valores na ordem de columns; null vira NULL). Colunas omitidas usam o
+     * DEFAULT da tabela, inclusive o id pela sequência. Devolve o número de linhas copiadas.
+     */
+    public long copy(String table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) return 0;
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+            try {
+                StringBuilder chunk = new StringBuilder(CHUNK_BYTES + 1024);
+                for (Object[] row : rows) {
+                    appendCsv(chunk, row);
+                    if (chunk.length() >= CHUNK_BYTES) {
+                        write(copyIn, chunk);
+                    }
+                }
+                write(copyIn, chunk);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) copyIn.cancelCopy();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha no COPY para " + table, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) return;
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static void appendCsv(StringBuilder out, Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) out.append(',');
+            Object value = row[i];
+            if (value == null) continue;
+            if (value instanceof Number || value instanceof Boolean) {
+                out.append(value);
+            } else {
+                out.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        out.append('\n');
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BulkWriter precisa de uma transação ativa");
+        }
+    }
+}
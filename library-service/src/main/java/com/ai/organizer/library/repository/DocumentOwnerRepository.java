@@ -0,0 +1,13 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.library.domain.DocumentOwner;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DocumentOwnerRepository extends JpaRepository<DocumentOwner, Long> {
+
+    List<DocumentOwner> findByUserIdOrderByCreatedAtDesc(String userId);
+
+    boolean existsByFileHashAndUserId(String fileHash, String userId);
+}
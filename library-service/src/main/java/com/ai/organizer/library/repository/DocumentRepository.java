@@ -6,16 +6,22 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     
     
-    List<Document> findByUserIdOrderByCreatedAtDesc(String userId);
-
     Optional<Document> findByFileHash(String fileHash);
 
-    @Query("SELECT SUM(d.fileSize) FROM Document d WHERE d.userId = :userId")
+    List<Document> findByFileHashIn(Collection<String> fileHashes);
+
+    @Query("SELECT d.fileHash FROM Document d WHERE d.fileHash IN :fileHashes")
+    Set<String> findExistingHashes(@Param("fileHashes") Collection<String> fileHashes);
+
+    // Cada livro da estante conta para o usuário, mesmo o conteúdo sendo compartilhado
+    @Query("SELECT SUM(d.fileSize) FROM Document d WHERE d.fileHash IN (SELECT o.fileHash FROM DocumentOwner o WHERE o.userId = :userId)")
     Long getTotalStorageUsed(@Param("userId") String userId);
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.events.CoverGeneratedEvent;
+import com.ai.organizer.events.IngestionEvent;
+import com.ai.organizer.events.StarLinkedEvent;
+import com.ai.organizer.events.SummaryCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Escritas em lote dos consumidores Kafka. Todas são idempotentes: reentregar o mesmo
+ * lote não altera nada (ON CONFLICT / IS DISTINCT FROM), e cada método devolve o
+ * resultado por linha na mesma ordem da lista recebida.
+ * Com reWriteBatchedInserts o driver devolve SUCCESS_NO_INFO nos INSERTs; só os UPDATEs
+ * têm contagem confiável.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LibraryBatchWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkWriter bulkWriter;
+
+    // A partir daqui o lote vai por COPY (mesmo resultado, sem montar e planejar os INSERTs multi-linha)
+    @Value("${library.bulk.copy-threshold:5000}")
+    private int copyThreshold;
+
+    public int[] insertDocuments(List<IngestionEvent> events) {
+        if (events.isEmpty()) return new int[0];
+        return jdbcTemplate.batchUpdate("""
+                INSERT INTO documents (title, file_hash, user_id, storage_path, file_size, created_at)
+                VALUES (?, ?, ?, ?, ?, now())
+                ON CONFLICT (file_hash) DO NOTHING
+                """,
+                events, events.size(), (ps, e) -> {
+                    ps.setString(1, e.originalName());
+                    ps.setString(2, e.fileHash());
+                    ps.setString(3, e.userId());
+                    ps.setString(4, e.s3Key());
+                    ps.setLong(5, e.fileSize());
+                })[0];
+    }
+
+    /**
+     * Uma linha por (hash, usuário) na estante. Exceção à regra da classe: devolve os eventos que
+     * criaram posse nova (RETURNING), que é o que os contadores precisam, com um único INSERT para o lote.
+     */
+    public List<IngestionEvent> insertOwners(List<IngestionEvent> events) {
+        if (events.isEmpty()) return List.of();
+        Set<String> created = new HashSet<>(jdbcTemplate.query("""
+                INSERT INTO document_owners (file_hash, user_id, title, created_at, highlights, summaries, updated_at)
+                SELECT o.file_hash, o.user_id, o.title, now(), 0, 0, now()
+                FROM unnest(?, ?, ?) AS o(file_hash, user_id, title)
+                ON CONFLICT (file_hash, user_id) DO NOTHING
+                RETURNING file_hash || '|' || user_id
+                """, ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("varchar",
+                            events.stream().map(IngestionEvent::fileHash).toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar",
+                            events.stream().map(IngestionEvent::userId).toArray()));
+                    ps.setArray(3, ps.getConnection().createArrayOf("varchar",
+                            events.stream().map(IngestionEvent::originalName).toArray()));
+                }, (rs, i) -> rs.getString(1)));
+        return events.stream()
+                .filter(e -> created.contains(e.fileHash() + "|" + e.userId()))
+                .toList();
+    }
+
+    /**
+     * Upsert dos links, sem pares repetidos no lote. Como insertOwners, devolve só os eventos que
+     * criaram link novo (xmax = 0 no RETURNING), o resto foi atualização de score.
+     */
+    public List<StarLinkedEvent> upsertLinks(List<StarLinkedEvent> events) {
+        if (events.isEmpty()) return List.of();
+        Set<String> created = new HashSet<>(events.size() >= copyThreshold
+                ? bulkWriter.upsertLinks(events)
+                : jdbcTemplate.query("""
+                WITH upserted AS (
+                    INSERT INTO star_galaxy_links (galaxy_id, star_id, score)
+                    SELECT l.galaxy_id, l.star_id, l.score
+                    FROM unnest(?, ?, ?) AS l(galaxy_id, star_id, score)
+                    ON CONFLICT (galaxy_id, star_id) DO UPDATE SET score = EXCLUDED.score
+                    WHERE star_galaxy_links.score IS DISTINCT FROM EXCLUDED.score
+                    RETURNING galaxy_id, star_id, xmax = 0 AS inserted)
+                SELECT galaxy_id || ':' || star_id FROM upserted WHERE inserted
+                """, ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                            events.stream().map(e -> Long.valueOf(e.galaxyId())).toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar",
+                            events.stream().map(StarLinkedEvent::starId).toArray()));
+                    ps.setArray(3, ps.getConnection().createArrayOf("float8",
+                            events.stream().map(e -> e.score() != null ? e.score() : 0.0).toArray()));
+                }, (rs, i) -> rs.getString(1)));
+        return events.stream()
+                .filter(e -> created.contains(e.galaxyId() + ":" + e.starId()))
+                .toList();
+    }
+
+    public int[] updateCovers(List<CoverGeneratedEvent> events) {
+        if (events.isEmpty()) return new int[0];
+        return jdbcTemplate.batchUpdate("""
+                UPDATE documents SET cover_path = ?, thumbnail_path = ?, card_path = ?
+                WHERE file_hash = ?
+                  AND (cover_path IS DISTINCT FROM ? OR thumbnail_path IS DISTINCT FROM ? OR card_path IS DISTINCT FROM ?)
+                """,
+                events, events.size(), (ps, e) -> {
+                    ps.setString(1, e.coverPath());
+                    ps.setString(2, e.thumbnailPath());
+                    ps.setString(3, e.cardPath());
+                    ps.setString(4, e.fileHash());
+                    ps.setString(5, e.coverPath());
+                    ps.setString(6, e.thumbnailPath());
+                    ps.setString(7, e.cardPath());
+                })[0];
+    }
+
+    public int[] updateSummaries(List<SummaryCompletedEvent> events) {
+        if (events.isEmpty()) return new int[0];
+        return jdbcTemplate.batchUpdate("""
+                UPDATE user_summaries SET generated_text = ?, status = ?
+                WHERE id = ?
+                  AND (generated_text IS DISTINCT FROM ? OR status IS DISTINCT FROM ?)
+                """,
+                events, events.size(), (ps, e) -> {
+                    ps.setString(1, e.generatedText());
+                    ps.setString(2, e.status());
+                    ps.setLong(3, e.summaryId());
+                    ps.setString(4, e.generatedText());
+                    ps.setString(5, e.status());
+                })[0];
+    }
+}
@@ -0,0 +1,7 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.library.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
@@ -0,0 +1,10 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.library.domain.PublicUniverseStar;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PublicUniverseStarRepository extends JpaRepository<PublicUniverseStar, String> {
+    List<PublicUniverseStar> findByUniverseIdAndLang(String universeId, String lang);
+}
@@ -0,0 +1,87 @@
+package com.ai.organizer.library.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Leitura e gravação das posições do canvas (canvas_x / canvas_y) usadas pelo GalaxyLayoutService.
+ * Estrelas usam o mesmo id do StarDTO: "123" para highlights, "summary-45" para resumos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StarLayoutRepository {
+
+    // Chave fixa do advisory lock de layout (a segunda chave é o hash do usuário)
+    private static final int LAYOUT_LOCK_KEY = 0x4C41594F;
+
+    private static final String SUMMARY_PREFIX = "summary-";
+
+    public record LayoutStar(String id, Double x, Double y) {}
+
+    public record LayoutLink(long galaxyId, String starId, double score) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Uma gravação de layout por usuário de cada vez; precisa de transação (lock liberado no commit)
+    public boolean tryLock(String userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, hashtext(?))", Boolean.class, LAYOUT_LOCK_KEY, userId));
+    }
+
+    public List<LayoutStar> findStars(String userId) {
+        return jdbcTemplate.query("""
+                SELECT CAST(id AS VARCHAR) AS id, canvas_x, canvas_y FROM user_highlights WHERE user_id = ?
+                UNION ALL
+                SELECT 'summary-' || id, canvas_x, canvas_y FROM user_summaries WHERE user_id = ?
+                """,
+                (rs, i) -> new LayoutStar(rs.getString("id"),
+                        rs.getObject("canvas_x", Double.class), rs.getObject("canvas_y", Double.class)),
+                userId, userId);
+    }
+
+    public List<LayoutLink> findLinks(String userId) {
+        return jdbcTemplate.query("""
+                SELECT l.galaxy_id, l.star_id, l.score
+                FROM star_galaxy_links l
+                JOIN user_galaxies g ON g.id = l.galaxy_id
+                WHERE g.user_id = ? AND g.is_active
+                """,
+                (rs, i) -> new LayoutLink(rs.getLong("galaxy_id"), rs.getString("star_id"), rs.getDouble("score")),
+                userId);
+    }
+
+    // Usuários com estrelas ainda sem posição (ex: layout pendente quando a instância caiu)
+    public List<String> findUsersWithoutLayout(int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT user_id FROM user_highlights WHERE canvas_x IS NULL
+                UNION
+                SELECT user_id FROM user_summaries WHERE canvas_x IS NULL
+                LIMIT ?
+                """, String.class, limit);
+    }
+
+    public void savePositions(List<LayoutStar> stars) {
+        List<LayoutStar> summaries = stars.stream().filter(s -> s.id().startsWith(SUMMARY_PREFIX)).toList();
+        List<LayoutStar> highlights = stars.stream().filter(s -> !s.id().startsWith(SUMMARY_PREFIX)).toList();
+
+        if (!highlights.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE user_highlights SET canvas_x = ?, canvas_y = ? WHERE id = ?",
+                    highlights, 500, (ps, s) -> {
+                        ps.setDouble(1, s.x());
+                        ps.setDouble(2, s.y());
+                        ps.setLong(3, Long.parseLong(s.id()));
+                    });
+        }
+        if (!summaries.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE user_summaries SET canvas_x = ?, canvas_y = ? WHERE id = ?",
+                    summaries, 500, (ps, s) -> {
+                        ps.setDouble(1, s.x());
+                        ps.setDouble(2, s.y());
+                        ps.setLong(3, Long.parseLong(s.id().substring(SUMMARY_PREFIX.length())));
+                    });
+        }
+    }
+}
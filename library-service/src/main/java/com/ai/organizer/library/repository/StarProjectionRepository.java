@@ -0,0 +1,111 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.library.dto.KeysetCursor;
+import com.ai.organizer.library.dto.StarDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Estrelas de um usuário numa única consulta: highlights e resumos já no formato do StarDTO.
+ * O preview do resumo é cortado no SQL, então o texto completo (TEXT, às vezes vários KB)
+ * não sai do banco.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StarProjectionRepository {
+
+    private static final String STARS_SQL = """
+            SELECT CAST(h.id AS VARCHAR) AS id, h.content, h.file_hash,
+                   COALESCE(o.title, d.title, 'Documento Desconhecido') AS title,
+                   h.created_at, h.type, h.position_json, h.canvas_x, h.canvas_y
+            FROM user_highlights h
+            LEFT JOIN document_owners o ON o.file_hash = h.file_hash AND o.user_id = h.user_id
+            LEFT JOIN documents d ON d.file_hash = h.file_hash
+            WHERE h.user_id = ?
+            UNION ALL
+            SELECT 'summary-' || s.id,
+                   'Resumo IA: ' || COALESCE(SUBSTRING(s.generated_text FROM 1 FOR 50) || '...', 'Gerando...'),
+                   s.file_hash, COALESCE(o.title, d.title, 'Documento'), s.created_at, 'RESUME', NULL, s.canvas_x, s.canvas_y
+            FROM user_summaries s
+            LEFT JOIN document_owners o ON o.file_hash = s.file_hash AND o.user_id = s.user_id
+            LEFT JOIN documents d ON d.file_hash = s.file_hash
+            WHERE s.user_id = ?
+            """;
+
+    // Cada ramo anda no seu índice (user_id, created_at, id) e para em LIMIT; o merge só ordena 2 x LIMIT linhas
+    private static final String STARS_PAGE_SQL = """
+            SELECT * FROM (
+                (SELECT CAST(h.id AS VARCHAR) AS id, h.content, h.file_hash,
+                        COALESCE(o.title, d.title, 'Documento Desconhecido') AS title,
+                        h.created_at, h.type, h.position_json, h.canvas_x, h.canvas_y, 0 AS kind, h.id AS seq
+                 FROM user_highlights h
+                 LEFT JOIN document_owners o ON o.file_hash = h.file_hash AND o.user_id = h.user_id
+                 LEFT JOIN documents d ON d.file_hash = h.file_hash
+                 WHERE h.user_id = ? AND (h.created_at < ? OR (h.created_at = ? AND h.id < ?))
+                 ORDER BY h.created_at DESC, h.id DESC
+                 LIMIT ?)
+                UNION ALL
+                (SELECT 'summary-' || s.id,
+                        'Resumo IA: ' || COALESCE(SUBSTRING(s.generated_text FROM 1 FOR 50) || '...', 'Gerando...'),
+                        s.file_hash, COALESCE(o.title, d.title, 'Documento'), s.created_at, 'RESUME', NULL,
+                        s.canvas_x, s.canvas_y, 1, s.id
+                 FROM user_summaries s
+                 LEFT JOIN document_owners o ON o.file_hash = s.file_hash AND o.user_id = s.user_id
+                 LEFT JOIN documents d ON d.file_hash = s.file_hash
+                 WHERE s.user_id = ? AND (s.created_at < ? OR (s.created_at = ? AND s.id < ?))
+                 ORDER BY s.created_at DESC, s.id DESC
+                 LIMIT ?)
+            ) page
+            ORDER BY created_at DESC, kind DESC, seq DESC
+            LIMIT ?
+            """;
+
+    private static final String SUMMARY_PREFIX = "summary-";
+
+    private static final RowMapper<StarDTO> STAR_MAPPER = (rs, i) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new StarDTO(
+                rs.getString("id"),
+                rs.getString("content"),
+                rs.getString("file_hash"),
+                rs.getString("title"),
+                createdAt != null ? createdAt.toLocalDateTime() : null,
+                rs.getString("type"),
+                rs.getString("position_json"),
+                rs.getObject("canvas_x", Double.class),
+                rs.getObject("canvas_y", Double.class));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<StarDTO> findAllStars(String userId) {
+        return jdbcTemplate.query(STARS_SQL, STAR_MAPPER, userId, userId);
+    }
+
+    /**
+     * Página de estrelas depois do cursor, da mais nova para a mais antiga. No mesmo createdAt,
+     * resumos vêm antes dos highlights e cada tipo segue o id numérico decrescente.
+     */
+    public List<StarDTO> findStarsPage(String userId, KeysetCursor after, int fetchSize) {
+        long highlightBound;
+        long summaryBound;
+        if (after.id().startsWith(SUMMARY_PREFIX)) {
+            // No createdAt do cursor ainda faltam os highlights todos
+            summaryBound = new KeysetCursor(after.createdAt(), after.id().substring(SUMMARY_PREFIX.length())).longId();
+            highlightBound = Long.MAX_VALUE;
+        } else {
+            // No createdAt do cursor os resumos já saíram
+            highlightBound = after.longId();
+            summaryBound = Long.MIN_VALUE;
+        }
+        return jdbcTemplate.query(STARS_PAGE_SQL, STAR_MAPPER,
+                userId, after.createdAt(), after.createdAt(), highlightBound, fetchSize,
+                userId, after.createdAt(), after.createdAt(), summaryBound, fetchSize,
+                fetchSize);
+    }
+}
@@ -0,0 +1,131 @@
+package com.ai.organizer.library.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Escritas em user_stats e nos contadores de document_owners (livro na estante de cada usuário).
+ *
+ * Os incrementos só atualizam linhas que já existem: uma linha nasce com a contagem completa
+ * (initUser na primeira leitura; initDocuments na mesma transação que cria a posse), então um
+ * incremento sem linha não perde nada. O que escapar (corridas entre a carga e um incremento) é
+ * corrigido pela reconciliação.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatsCounterRepository {
+
+    public record UserDelta(String userId, long highlights, long summaries, long links, long storageBytes) {}
+
+    public record RadarProgress(long total, long radarTotal) {}
+
+    // Contagem real a partir das tabelas de origem, por usuário (alias u) e por documento (alias d)
+    private static final String USER_COUNT_COLUMNS = """
+            u.user_id,
+            (SELECT count(*) FROM user_highlights h WHERE h.user_id = u.user_id),
+            (SELECT count(*) FROM user_summaries s WHERE s.user_id = u.user_id),
+            (SELECT count(*) FROM star_galaxy_links l JOIN user_galaxies g ON g.id = l.galaxy_id
+              WHERE g.user_id = u.user_id),
+            (SELECT COALESCE(sum(d.file_size), 0) FROM document_owners o JOIN documents d ON d.file_hash = o.file_hash
+              WHERE o.user_id = u.user_id),
+            now()
+            """;
+
+    // Highlights e resumos do usuário no livro (alias o: linha de document_owners ou de documents)
+    private static final String OWNER_COUNTS = """
+            (SELECT count(*) FROM user_highlights h WHERE h.user_id = o.user_id AND h.file_hash = o.file_hash),
+            (SELECT count(*) FROM user_summaries s WHERE s.user_id = o.user_id AND s.file_hash = o.file_hash)
+            """;
+
+    private static final String INSERT_USER =
+            "INSERT INTO user_stats (user_id, highlights, summaries, links, storage_bytes, updated_at) SELECT ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addToUsers(List<UserDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        jdbcTemplate.batchUpdate("""
+                UPDATE user_stats
+                SET highlights = highlights + ?, summaries = summaries + ?, links = links + ?,
+                    storage_bytes = storage_bytes + ?, updated_at = now()
+                WHERE user_id = ?
+                """,
+                deltas, deltas.size(), (ps, d) -> {
+                    ps.setLong(1, d.highlights());
+                    ps.setLong(2, d.summaries());
+                    ps.setLong(3, d.links());
+                    ps.setLong(4, d.storageBytes());
+                    ps.setString(5, d.userId());
+                });
+    }
+
+    public void addToDocument(String userId, String fileHash, long highlights, long summaries) {
+        jdbcTemplate.update("""
+                UPDATE document_owners
+                SET highlights = highlights + ?, summaries = summaries + ?, updated_at = now()
+                WHERE file_hash = ? AND user_id = ?
+                """, highlights, summaries, fileHash, userId);
+    }
+
+    // Trava a linha até o fim da transação: duas réplicas avaliando o mesmo usuário não disparam o mesmo marco
+    public Optional<RadarProgress> lockRadarProgress(String userId) {
+        return jdbcTemplate.query("""
+                SELECT highlights + summaries, COALESCE(radar_total, 0) FROM user_stats
+                WHERE user_id = ? FOR UPDATE
+                """, (rs, i) -> new RadarProgress(rs.getLong(1), rs.getLong(2)), userId).stream().findFirst();
+    }
+
+    public void markRadar(String userId, long total) {
+        jdbcTemplate.update("UPDATE user_stats SET radar_total = ? WHERE user_id = ?", total, userId);
+    }
+
+    public void initUser(String userId) {
+        jdbcTemplate.update(INSERT_USER + USER_COUNT_COLUMNS
+                + "FROM (SELECT CAST(? AS VARCHAR) AS user_id) u ON CONFLICT (user_id) DO NOTHING", userId);
+    }
+
+    // Conta os livros que acabaram de entrar na estante do usuário (as linhas nascem zeradas)
+    public void initDocuments(String userId, Collection<String> fileHashes) {
+        if (fileHashes.isEmpty()) return;
+        jdbcTemplate.update("UPDATE document_owners o SET (highlights, summaries) = (SELECT " + OWNER_COUNTS + "), "
+                        + "updated_at = now() WHERE o.user_id = ? AND o.file_hash = ANY (?)",
+                ps -> {
+                    ps.setString(1, userId);
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", fileHashes.toArray()));
+                });
+    }
+
+    // Estantes de antes da deduplicação: uma posse por documento, para quem o enviou (idempotente).
+    // Só as linhas que faltam pagam as contagens; numa subida normal o NOT EXISTS descarta tudo pelo índice
+    public int backfillOwners() {
+        return jdbcTemplate.update("INSERT INTO document_owners "
+                + "(file_hash, user_id, title, created_at, highlights, summaries, updated_at) "
+                + "SELECT o.file_hash, o.user_id, o.title, COALESCE(o.created_at, now()), " + OWNER_COUNTS + ", now() "
+                + "FROM documents o WHERE NOT EXISTS (SELECT 1 FROM document_owners x "
+                + "WHERE x.file_hash = o.file_hash AND x.user_id = o.user_id) "
+                + "ON CONFLICT (file_hash, user_id) DO NOTHING");
+    }
+
+    // Regrava só as linhas que divergem da contagem real; devolve quantas estavam erradas
+    public int reconcileUsers() {
+        return jdbcTemplate.update(INSERT_USER + USER_COUNT_COLUMNS + "FROM user_stats u " + """
+                ON CONFLICT (user_id) DO UPDATE
+                SET highlights = EXCLUDED.highlights, summaries = EXCLUDED.summaries, links = EXCLUDED.links,
+                    storage_bytes = EXCLUDED.storage_bytes, updated_at = now()
+                WHERE (user_stats.highlights, user_stats.summaries, user_stats.links, user_stats.storage_bytes)
+                      IS DISTINCT FROM (EXCLUDED.highlights, EXCLUDED.summaries, EXCLUDED.links, EXCLUDED.storage_bytes)
+                """);
+    }
+
+    public int reconcileDocuments() {
+        return jdbcTemplate.update("UPDATE document_owners d "
+                + "SET highlights = c.highlights, summaries = c.summaries, updated_at = now() "
+                + "FROM (SELECT o.id, " + OWNER_COUNTS + " FROM document_owners o) AS c(id, highlights, summaries) "
+                + "WHERE c.id = d.id AND (d.highlights, d.summaries) IS DISTINCT FROM (c.highlights, c.summaries)");
+    }
+}
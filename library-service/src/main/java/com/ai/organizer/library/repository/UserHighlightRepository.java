@@ -1,34 +1,39 @@
-// library-service/src/main/java/com/ai/organizer/library/repository/UserHighlightRepository.java
-
 package com.ai.organizer.library.repository;
 
 import com.ai.organizer.library.domain.UserHighlight;
-import com.ai.organizer.library.dto.StarDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserHighlightRepository extends JpaRepository<UserHighlight, Long> {
     
     List<UserHighlight> findByFileHash(String fileHash);
+    List<UserHighlight> findByUserId(String userId);
     List<UserHighlight> findByUserIdAndFileHash(String userId, String fileHash);
     long countByUserId(String userId);
 
-     @Query("""
-        SELECT new com.ai.organizer.library.dto.StarDTO(
-            CAST(h.id AS string),
-            h.content,
-            h.fileHash,
-            d.title,
-            h.createdAt,
-            h.type,
-            h.positionJson
-        )
-        FROM UserHighlight h
-        JOIN Document d ON h.fileHash = d.fileHash
-        WHERE h.userId = :userId
-        ORDER BY h.createdAt DESC
+    // Keyset por (createdAt, id): usa idx_highlight_user_book e não degrada com páginas profundas
+    @Query("""
+        SELECT h FROM UserHighlight h
+        WHERE h.userId = :userId AND h.fileHash = :fileHash
+          AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id))
+        ORDER BY h.createdAt DESC, h.id DESC
+    """)
+    List<UserHighlight> findBookPage(@Param("userId") String userId,
+                                     @Param("fileHash") String fileHash,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    // Trechos mais recentes para o radar: percorre idx_highlight_user_created de trás para frente e para no limite
+    @Query("""
+        SELECT SUBSTRING(h.content, 1, 255) FROM UserHighlight h
+        WHERE h.userId = :userId AND h.content IS NOT NULL
+        ORDER BY h.createdAt DESC, h.id DESC
     """)
-    List<StarDTO> findAllStarsByUserId(@Param("userId") String userId);
-}
\ No newline at end of file
+    List<String> findRecentSnippets(@Param("userId") String userId, Limit limit);
+}
@@ -1,11 +1,28 @@
 package com.ai.organizer.library.repository;
 
 import com.ai.organizer.library.domain.UserSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserSummaryRepository extends JpaRepository<UserSummary, Long> {
     List<UserSummary> findByUserIdAndFileHashOrderByCreatedAtDesc(String userId, String fileHash);
     List<UserSummary> findByUserId(String userId);
     long countByUserId(String userId);
-}
\ No newline at end of file
+
+    @Query("""
+        SELECT s FROM UserSummary s
+        WHERE s.userId = :userId AND s.fileHash = :fileHash
+          AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id))
+        ORDER BY s.createdAt DESC, s.id DESC
+    """)
+    List<UserSummary> findBookPage(@Param("userId") String userId,
+                                   @Param("fileHash") String fileHash,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Limit limit);
+}
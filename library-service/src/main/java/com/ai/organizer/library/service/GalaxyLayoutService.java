@@ -0,0 +1,234 @@
+package com.ai.organizer.library.service;
+
+import com.ai.organizer.library.domain.UserGalaxy;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.infrastructure.ReadModelCache.Region;
+import com.ai.organizer.library.layout.BarnesHutLayout;
+import com.ai.organizer.library.repository.StarLayoutRepository;
+import com.ai.organizer.library.repository.StarLayoutRepository.LayoutLink;
+import com.ai.organizer.library.repository.StarLayoutRepository.LayoutStar;
+import com.ai.organizer.library.repository.UserGalaxyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Calcula as posições das estrelas no canvas e grava em canvas_x / canvas_y; o front recebe
+ * as coordenadas prontas em /stars (e no /changes, já que as posições entram na visão depois do commit).
+ *
+ * Pedidos são acumulados por usuário e processados em lote pelo agendador. Um pedido incremental
+ * move só as estrelas novas (sem posição), as que ganharam links e a vizinhança delas; excluir uma
+ * galáxia pede o layout completo do usuário.
+ *
+ * Leitura e cálculo rodam fora de transação (o Barnes-Hut não segura conexão do pool). A gravação é
+ * uma transação curta com o advisory lock do usuário que confere se as posições de partida ainda são
+ * as do banco; se outro layout gravou no meio, o pedido volta para a fila e é recalculado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GalaxyLayoutService {
+
+    private static final double NEIGHBOURHOOD_RADIUS = 400;
+    private static final int INCREMENTAL_ITERATIONS = 60;
+    private static final int FULL_ITERATIONS = 250;
+
+    private final StarLayoutRepository layoutRepository;
+    private final UserGalaxyRepository galaxyRepository;
+    private final UniverseViewService universeViewService;
+    private final ReadModelCache readModelCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Map<String, LayoutRequest> pending = new ConcurrentHashMap<>();
+
+    // full = recalcula tudo; seeds = estrelas que mudaram (as sem posição entram sempre)
+    private record LayoutRequest(boolean full, Set<String> seeds) {
+        LayoutRequest merge(LayoutRequest other) {
+            Set<String> seeds = new HashSet<>(this.seeds);
+            seeds.addAll(other.seeds);
+            return new LayoutRequest(full || other.full, seeds);
+        }
+    }
+
+    public void requestLayout(String userId, Collection<String> starIds) {
+        afterCommit(() -> pending.merge(userId, new LayoutRequest(false, Set.copyOf(starIds)), LayoutRequest::merge));
+    }
+
+    public void requestFullLayout(String userId) {
+        afterCommit(() -> pending.merge(userId, new LayoutRequest(true, Set.of()), LayoutRequest::merge));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<String> users = layoutRepository.findUsersWithoutLayout(1000);
+        users.forEach(userId -> pending.merge(userId, new LayoutRequest(false, Set.of()), LayoutRequest::merge));
+        if (!users.isEmpty()) log.info("🌌 {} usuários com estrelas sem posição na fila de layout", users.size());
+    }
+
+    @Scheduled(fixedDelayString = "${library.layout.interval-ms:2000}")
+    public void processPending() {
+        for (String userId : new ArrayList<>(pending.keySet())) {
+            LayoutRequest request = pending.remove(userId);
+            if (request == null) continue;
+            try {
+                if (!layout(userId, request)) {
+                    // Outra instância gravou este usuário no meio do cálculo: tenta no próximo ciclo
+                    pending.merge(userId, request, LayoutRequest::merge);
+                }
+            } catch (RuntimeException e) {
+                log.error("❌ Falha no layout do universo de {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private boolean layout(String userId, LayoutRequest request) {
+        long start = System.nanoTime();
+        List<LayoutStar> stars = layoutRepository.findStars(userId);
+        if (stars.isEmpty()) return true;
+
+        List<UserGalaxy> galaxies = galaxyRepository.findByUserIdAndIsActiveTrue(userId);
+        Map<Long, Integer> galaxyIndex = new HashMap<>();
+        double[] anchorX = new double[galaxies.size()];
+        double[] anchorY = new double[galaxies.size()];
+        for (int g = 0; g < galaxies.size(); g++) {
+            UserGalaxy galaxy = galaxies.get(g);
+            galaxyIndex.put(galaxy.getId(), g);
+            anchorX[g] = galaxy.getX() != null ? galaxy.getX() : 0;
+            anchorY[g] = galaxy.getY() != null ? galaxy.getY() : 0;
+        }
+
+        int n = stars.size();
+        Map<String, Integer> starIndex = new HashMap<>();
+        for (int i = 0; i < n; i++) starIndex.put(stars.get(i).id(), i);
+
+        List<List<LayoutLink>> linksByStar = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) linksByStar.add(new ArrayList<>());
+        for (LayoutLink link : layoutRepository.findLinks(userId)) {
+            Integer i = starIndex.get(link.starId());
+            if (i != null && galaxyIndex.containsKey(link.galaxyId())) linksByStar.get(i).add(link);
+        }
+        int[][] links = new int[n][];
+        double[][] scores = new double[n][];
+        for (int i = 0; i < n; i++) {
+            List<LayoutLink> own = linksByStar.get(i);
+            links[i] = own.stream().mapToInt(l -> galaxyIndex.get(l.galaxyId())).toArray();
+            scores[i] = own.stream().mapToDouble(LayoutLink::score).toArray();
+        }
+
+        // Estrelas novas nascem perto do centro ponderado das galáxias (ou no anel do caos)
+        double[] x = new double[n];
+        double[] y = new double[n];
+        List<Integer> seeds = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            LayoutStar star = stars.get(i);
+            if (star.x() != null && star.y() != null && !request.full()) {
+                x[i] = star.x();
+                y[i] = star.y();
+            } else {
+                placeInitially(star.id(), links[i], scores[i], anchorX, anchorY, x, y, i);
+            }
+            if (request.full() || star.x() == null || request.seeds().contains(star.id())) seeds.add(i);
+        }
+        if (seeds.isEmpty()) return true;
+
+        int[] active = request.full()
+                ? seeds.stream().mapToInt(Integer::intValue).toArray()
+                : BarnesHutLayout.neighbourhood(x, y, seeds.stream().mapToInt(Integer::intValue).toArray(), NEIGHBOURHOOD_RADIUS);
+        double[] beforeX = x.clone();
+        double[] beforeY = y.clone();
+
+        new BarnesHutLayout(x, y, anchorX, anchorY, links, scores).run(
+                active,
+                request.full() ? FULL_ITERATIONS : INCREMENTAL_ITERATIONS,
+                request.full() ? 300 : 80,
+                pool);
+
+        List<LayoutStar> moved = new ArrayList<>();
+        for (int i : active) {
+            LayoutStar star = stars.get(i);
+            if (star.x() == null || Math.abs(x[i] - beforeX[i]) > 0.5 || Math.abs(y[i] - beforeY[i]) > 0.5
+                    || request.full()) {
+                moved.add(new LayoutStar(star.id(), x[i], y[i]));
+            }
+        }
+        if (!moved.isEmpty() && !Boolean.TRUE.equals(transactionTemplate.execute(status -> save(userId, stars, moved)))) {
+            return false;
+        }
+
+        log.info("🌌 Layout {} de {}: {} estrelas, {} ativas, {} gravadas em {} ms",
+                request.full() ? "completo" : "incremental", userId, n, active.length, moved.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    private boolean save(String userId, List<LayoutStar> computedFrom, List<LayoutStar> moved) {
+        if (!layoutRepository.tryLock(userId)) return false;
+        if (!new HashSet<>(layoutRepository.findStars(userId)).equals(new HashSet<>(computedFrom))) return false;
+
+        layoutRepository.savePositions(moved);
+        universeViewService.movePositionsAfterCommit(userId, moved);
+        // canvasX/canvasY também saem nas listas por livro
+        readModelCache.invalidateAfterCommit(Region.BOOK_HIGHLIGHTS, userId);
+        readModelCache.invalidateAfterCommit(Region.BOOK_SUMMARIES, userId);
+        return true;
+    }
+
+    // Determinístico pelo id, como o pseudoRandom do front: recalcular não embaralha o canvas
+    private static void placeInitially(String id, int[] links, double[] scores,
+                                       double[] anchorX, double[] anchorY, double[] x, double[] y, int i) {
+        double angle = BarnesHutLayout.unit(id + "angle") * Math.PI * 2;
+        if (links.length == 0) {
+            double radius = 2500 + BarnesHutLayout.unit(id + "dist") * 1500;
+            x[i] = Math.cos(angle) * radius;
+            y[i] = Math.sin(angle) * radius;
+            return;
+        }
+        double cx = 0, cy = 0, total = 0, best = 0;
+        for (int l = 0; l < links.length; l++) {
+            double weight = Math.pow(Math.max(scores[l], 0.01), 3);
+            cx += anchorX[links[l]] * weight;
+            cy += anchorY[links[l]] * weight;
+            total += weight;
+            best = Math.max(best, scores[l]);
+        }
+        double radius = 180 + (1 - Math.min(1, best)) * 820;
+        x[i] = cx / total + Math.cos(angle) * radius;
+        y[i] = cy / total + Math.sin(angle) * radius;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -1,21 +1,26 @@
 package com.ai.organizer.library.service;
 
+import com.ai.organizer.events.EventTopics;
 import com.ai.organizer.library.client.AiProcessorClient;
 import com.ai.organizer.library.client.dto.AiGravityResponse;
 import com.ai.organizer.library.domain.StarGalaxyLink;
 import com.ai.organizer.library.domain.UserGalaxy;
 import com.ai.organizer.library.dto.CreateGalaxyRequest;
 import com.ai.organizer.library.dto.GalaxyStateDTO;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.infrastructure.ReadModelCache.Region;
 import com.ai.organizer.library.repository.StarGalaxyLinkRepository;
 import com.ai.organizer.library.repository.UserGalaxyRepository;
 import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +31,13 @@ public class GalaxyService {
     private final UserGalaxyRepository galaxyRepository;
     private final StarGalaxyLinkRepository linkRepository;
     private final AiProcessorClient aiClient;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final UniverseViewService universeViewService;
+    private final StatsService statsService;
+    private final GalaxyLayoutService layoutService;
+    private final ReadModelCache readModelCache;
+
+    private static final TypeReference<List<UserGalaxy>> GALAXY_LIST = new TypeReference<>() {};
 
     @Transactional
     public com.ai.organizer.library.dto.GalaxyCreationResponse createGalaxy(String userId, CreateGalaxyRequest request) {
@@ -36,6 +47,9 @@ public class GalaxyService {
             throw new IllegalArgumentException("Você já possui uma galáxia com este nome.");
         }
 
+        // A busca no ai-processor corre enquanto a galáxia é gravada
+        CompletableFuture<AiGravityResponse> gravity = aiClient.getGravityMatchesAsync(request.name());
+
         UserGalaxy galaxyToSave = new UserGalaxy(
                 request.name(),
                 userId,
@@ -45,32 +59,36 @@ public class GalaxyService {
         );
         final UserGalaxy savedGalaxy = galaxyRepository.save(galaxyToSave);
 
-       try {
-            aiClient.registerGalaxy(String.valueOf(savedGalaxy.getId()), savedGalaxy.getName(), userId);
-        } catch (Exception e) {
-            log.error("⚠️ Falha ao registrar galáxia no Pinecone", e);
-        }
+        aiClient.registerGalaxy(String.valueOf(savedGalaxy.getId()), savedGalaxy.getName(), userId);
 
-        AiGravityResponse aiResponse = aiClient.getGravityMatches(request.name());
+        AiGravityResponse aiResponse = gravity.join();
         List<com.ai.organizer.library.dto.GalaxyCreationResponse.LinkDTO> createdLinks = new java.util.ArrayList<>();
 
         if (aiResponse != null && aiResponse.matches() != null) {
-            List<StarGalaxyLink> links = aiResponse.matches().stream()
+            // Um link por estrela (maior score): com ids por sequência os inserts só vão ao banco no
+            // flush, em lote, e um par repetido derrubaria a transação inteira
+            Map<String, Double> bestScore = new java.util.LinkedHashMap<>();
+            aiResponse.matches().stream()
                 .filter(m -> m.highlightId() != null)
-                .map(match -> new StarGalaxyLink(savedGalaxy, match.highlightId(), match.score()))
-                .collect(Collectors.toList());
+                .forEach(m -> bestScore.merge(m.highlightId(), m.score() != null ? m.score() : 0.0, Math::max));
 
-            for (StarGalaxyLink link : links) {
-                try {
-                    linkRepository.save(link);
-                    // Adiciona na lista de retorno
-                    createdLinks.add(new com.ai.organizer.library.dto.GalaxyCreationResponse.LinkDTO(link.getStarId(), link.getScore()));
-                } catch (Exception e) {
-                    log.warn("⚠️ Link ignorado", e);
-                }
-            }
+            List<StarGalaxyLink> links = bestScore.entrySet().stream()
+                .map(e -> new StarGalaxyLink(savedGalaxy, e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+            linkRepository.saveAll(links);
+            links.forEach(link -> createdLinks.add(
+                    new com.ai.organizer.library.dto.GalaxyCreationResponse.LinkDTO(link.getStarId(), link.getScore())));
         }
 
+        statsService.recordLinks(Map.of(userId, (long) createdLinks.size()));
+        layoutService.requestLayout(userId, createdLinks.stream()
+                .map(com.ai.organizer.library.dto.GalaxyCreationResponse.LinkDTO::starId)
+                .toList());
+
+        // Galáxia e links da gravidade não passam pelo Kafka: a visão é recarregada do Postgres
+        universeViewService.evictAfterCommit(userId);
+        readModelCache.invalidateAfterCommit(Region.GALAXIES, userId);
+
         // Retorna o objeto composto
         return new com.ai.organizer.library.dto.GalaxyCreationResponse(savedGalaxy, createdLinks);
     }
@@ -84,41 +102,33 @@ public class GalaxyService {
             throw new RuntimeException("Ação não autorizada");
         }
 
-        linkRepository.deleteByGalaxyId(galaxyId);
+        int removedLinks = linkRepository.deleteByGalaxyId(galaxyId);
+        statsService.recordLinks(Map.of(userId, (long) -removedLinks));
+        layoutService.requestFullLayout(userId);
 
         galaxyRepository.delete(galaxy);
 
-        try {
-            String message = "GALAXY:" + galaxyId;
-            kafkaTemplate.send("data.deleted", message);
-            log.info("🗑️ Evento de limpeza enviado para: {}", message);
-        } catch (Exception e) {
-            log.error("⚠️ Falha ao enviar evento de deleção para o Kafka", e);
-        }
+        String message = "GALAXY:" + galaxyId;
+        outboxService.enqueue(EventTopics.DATA_DELETED, message, message);
+        log.info("🗑️ Evento de limpeza enfileirado para: {}", message);
 
+        universeViewService.evictAfterCommit(userId);
+        readModelCache.invalidateAfterCommit(Region.GALAXIES, userId);
         log.info("🗑️ Galáxia {} dissolvida do Postgres.", galaxyId);
     }
 
     @Transactional(readOnly = true)
     public List<UserGalaxy> getUserGalaxies(String userId) {
-        return galaxyRepository.findByUserIdAndIsActiveTrue(userId);
+        return readModelCache.get(Region.GALAXIES, userId, "active", GALAXY_LIST,
+                () -> galaxyRepository.findByUserIdAndIsActiveTrue(userId));
     }
 
     @Transactional(readOnly = true)
     public GalaxyStateDTO getUniverseState(String userId) {
+        return universeViewService.state(userId);
+    }
 
-        List<UserGalaxy> galaxies = galaxyRepository.findByUserIdAndIsActiveTrue(userId);
-        
-        List<StarGalaxyLink> linksEntity = linkRepository.findByUserId(userId);
-
-        List<GalaxyStateDTO.LinkDTO> links = linksEntity.stream()
-                .map(link -> new GalaxyStateDTO.LinkDTO(
-                        String.valueOf(link.getGalaxy().getId()),
-                        link.getStarId(), 
-                        link.getScore()
-                ))
-                .toList();
-
-        return new GalaxyStateDTO(galaxies, links);
+    public Long getUniverseVersion(String userId) {
+        return universeViewService.version(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.ai.organizer.library.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica o outbox no Kafka em lotes ordenados por id.
+ *
+ * O lote é reservado (claimed_until) numa transação curta e publicado fora dela: esperar o broker não
+ * segura conexão nem locks do banco. Só existe uma reserva ativa por vez (advisory lock na reserva),
+ * então lotes não se cruzam entre réplicas; uma reserva vencida (réplica que caiu no meio) volta para
+ * o próximo ciclo.
+ *
+ * Só o prefixo confirmado pelo broker é marcado como enviado. A partir da primeira falha o resto do
+ * lote é reenviado no próximo ciclo, depois dela, então um evento de uma chave nunca fica registrado
+ * como entregue antes de um anterior da mesma chave (at-least-once; consumidores são idempotentes).
+ * A ordem é a dos ids, que o IDENTITY atribui no INSERT e não no commit: entre transações concorrentes
+ * de chaves diferentes um id maior pode sair antes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = 0x4C4F474F530001L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${library.outbox.batch-size:200}")
+    private int batchSize;
+
+    // Prazo para o broker confirmar o lote inteiro
+    @Value("${library.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${library.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    private record Pending(long id, String topic, String key, byte[] payload) {}
+
+    @Scheduled(fixedDelayString = "${library.outbox.poll-ms:200}")
+    public void relay() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    private int relayBatch() {
+        List<Pending> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) return 0;
+        batch.sort(Comparator.comparingLong(Pending::id));
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+        for (Pending event : batch) {
+            sends.add(kafkaTemplate.send(event.topic(), event.key(), event.payload()));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        int confirmed = 0;
+        try {
+            for (; confirmed < batch.size(); confirmed++) {
+                sends.get(confirmed).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("❌ Falha ao publicar outbox {} ({}). Restante do lote fica para o próximo ciclo.",
+                    batch.get(confirmed).id(), batch.get(confirmed).topic(), e);
+        }
+
+        List<Long> sent = batch.subList(0, confirmed).stream().map(Pending::id).toList();
+        List<Long> retry = batch.subList(confirmed, batch.size()).stream().map(Pending::id).toList();
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE outbox_events SET sent_at = now(), claimed_until = NULL WHERE id = ?",
+                    sent, sent.size(), (ps, id) -> ps.setLong(1, id));
+        }
+        // Solta a reserva: o próximo ciclo reenvia em ordem sem esperar ela vencer
+        if (!retry.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE outbox_events SET claimed_until = NULL WHERE id = ?",
+                    retry, retry.size(), (ps, id) -> ps.setLong(1, id));
+        }
+
+        log.debug("📤 Outbox: {} de {} eventos publicados", sent.size(), batch.size());
+        return retry.isEmpty() ? sent.size() : 0;
+    }
+
+    // Uma reserva ativa por vez: com o lock, quem chega depois enxerga a reserva já commitada e desiste
+    private List<Pending> claim() {
+        Boolean leader = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(leader)) return List.of();
+
+        // A reserva cobre a espera pelo broker com folga; depois dela outra réplica pode reenviar
+        return new ArrayList<>(jdbcTemplate.query("""
+                UPDATE outbox_events SET claimed_until = now() + make_interval(secs => ?)
+                WHERE id IN (
+                    SELECT id FROM outbox_events
+                    WHERE sent_at IS NULL
+                    ORDER BY id
+                    LIMIT ?)
+                AND NOT EXISTS (
+                    SELECT 1 FROM outbox_events c WHERE c.sent_at IS NULL AND c.claimed_until >= now())
+                RETURNING id, topic, event_key, payload
+                """,
+                (rs, i) -> new Pending(rs.getLong("id"), rs.getString("topic"), rs.getString("event_key"), rs.getBytes("payload")),
+                2 * sendTimeoutMs / 1000.0, batchSize));
+    }
+
+    @Scheduled(cron = "${library.outbox.purge-cron:0 17 * * * *}")
+    public void purgeSent() {
+        int removed = jdbcTemplate.update(
+                "DELETE FROM outbox_events WHERE sent_at < now() - make_interval(hours => ?)", retentionHours);
+        if (removed > 0) log.info("🧹 Outbox: {} eventos enviados removidos", removed);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ai.organizer.library.service;
+
+import com.ai.organizer.events.kafka.EventSerializer;
+import com.ai.organizer.library.domain.OutboxEvent;
+import com.ai.organizer.library.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ponto único de publicação de eventos do library-service. O evento só existe para o
+ * Kafka depois do commit da transação que o gravou (o relay lê apenas linhas commitadas).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final OutboxEventRepository outboxRepository;
+    private final EventSerializer serializer = new EventSerializer();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, Object event) {
+        byte[] payload = serializer.serialize(topic, event);
+        outboxRepository.save(new OutboxEvent(topic, key, payload));
+        log.debug("📥 Evento enfileirado no outbox: {} ({})", topic, key);
+    }
+}
@@ -1,52 +1,90 @@
 package com.ai.organizer.library.service;
 
-import com.ai.organizer.library.event.RadarUpdateRequestedEvent;
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.RadarUpdateRequestedEvent;
+import com.ai.organizer.library.repository.StatsCounterRepository;
+import com.ai.organizer.library.repository.StatsCounterRepository.RadarProgress;
 import com.ai.organizer.library.repository.UserHighlightRepository;
-import com.ai.organizer.library.repository.UserSummaryRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Dispara o recálculo do radar nos marcos de conhecimento: o primeiro item e cada múltiplo de 30
+ * (highlights + resumos, pelos contadores de user_stats).
+ *
+ * Quem escreve só marca o usuário depois do commit; a avaliação roda em lote a cada
+ * library.radar.debounce-ms, então vários highlights seguidos viram uma verificação só. O marco conta
+ * por cruzamento (radar_total guarda o total do último disparo), assim um lote que pula o múltiplo
+ * exato não perde o disparo e uma verificação repetida não dispara de novo.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RadarTriggerService {
 
+    private static final int MILESTONE = 30;
+    private static final int SNIPPETS = 30;
+
     private final UserHighlightRepository highlightRepository;
-    private final UserSummaryRepository summaryRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final StatsCounterRepository counters;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
 
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
 
     public void checkAndTrigger(String userId) {
-        long totalItems = highlightRepository.countByUserId(userId) + summaryRepository.countByUserId(userId);
-
-        if (totalItems == 1 || totalItems % 30 == 0) {
-            log.info("🎯 Marco de conhecimento atingido (Total: {}). Recalculando Radar...", totalItems);
-            triggerUpdate(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.add(userId);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.add(userId);
+            }
+        });
     }
 
-    private void triggerUpdate(String userId) {
-        try {
-            List<String> snippets = highlightRepository.findAll().stream()
-                    .filter(h -> h.getUserId().equals(userId))
-                    .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                    .limit(30)
-                    .map(h -> h.getContent().length() > 255 ? h.getContent().substring(0, 255) : h.getContent())
-                    .collect(Collectors.toList());
-
-            RadarUpdateRequestedEvent event = new RadarUpdateRequestedEvent(userId, snippets);
-            String json = objectMapper.writeValueAsString(event);
-            
-            kafkaTemplate.send("radar.update.requested", userId, json);
-        } catch (Exception e) {
-            log.error("Erro ao disparar atualização de radar", e);
+    @Scheduled(fixedDelayString = "${library.radar.debounce-ms:10000}")
+    public void processPending() {
+        for (String userId : new ArrayList<>(pending)) {
+            pending.remove(userId);
+            try {
+                transactionTemplate.executeWithoutResult(status -> evaluate(userId));
+            } catch (RuntimeException e) {
+                // O próximo item do usuário reavalia: o marco cruzado continua pendente em radar_total
+                log.error("❌ Erro ao avaliar o radar de {}: {}", userId, e.getMessage());
+            }
         }
     }
-}
\ No newline at end of file
+
+    private void evaluate(String userId) {
+        RadarProgress progress = counters.lockRadarProgress(userId).orElseGet(() -> {
+            counters.initUser(userId);
+            return counters.lockRadarProgress(userId).orElseThrow();
+        });
+        if (!crossed(progress)) return;
+
+        log.info("🎯 Marco de conhecimento atingido (Total: {}). Recalculando Radar...", progress.total());
+        counters.markRadar(userId, progress.total());
+        List<String> snippets = highlightRepository.findRecentSnippets(userId, Limit.of(SNIPPETS));
+        outboxService.enqueue(EventTopics.RADAR_UPDATE_REQUESTED, userId, new RadarUpdateRequestedEvent(userId, snippets));
+    }
+
+    private static boolean crossed(RadarProgress progress) {
+        if (progress.total() <= 0) return false;
+        if (progress.radarTotal() == 0) return true;
+        return progress.total() / MILESTONE > progress.radarTotal() / MILESTONE;
+    }
+}
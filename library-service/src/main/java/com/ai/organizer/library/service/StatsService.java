@@ -0,0 +1,80 @@
+package com.ai.organizer.library.service;
+
+import com.ai.organizer.events.IngestionEvent;
+import com.ai.organizer.library.domain.UserStats;
+import com.ai.organizer.library.repository.StatsCounterRepository;
+import com.ai.organizer.library.repository.StatsCounterRepository.UserDelta;
+import com.ai.organizer.library.repository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores do perfil e da estante. Os caminhos de escrita chamam os record* dentro da própria
+ * transação; as leituras são uma busca por chave, e a primeira leitura de um usuário cria a linha
+ * com a contagem completa. Os contadores por livro vêm junto com a estante (DocumentOwner).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final StatsCounterRepository counters;
+
+    public UserStats userStats(String userId) {
+        return userStatsRepository.findById(userId).orElseGet(() -> {
+            counters.initUser(userId);
+            return userStatsRepository.findById(userId).orElseThrow();
+        });
+    }
+
+    public void recordHighlight(String userId, String fileHash, long delta) {
+        counters.addToUsers(List.of(new UserDelta(userId, delta, 0, 0, 0)));
+        counters.addToDocument(userId, fileHash, delta, 0);
+    }
+
+    public void recordSummary(String userId, String fileHash, long delta) {
+        counters.addToUsers(List.of(new UserDelta(userId, 0, delta, 0, 0)));
+        counters.addToDocument(userId, fileHash, 0, delta);
+    }
+
+    public void recordLinks(Map<String, Long> linksByUser) {
+        counters.addToUsers(linksByUser.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new UserDelta(e.getKey(), 0, 0, e.getValue(), 0))
+                .toList());
+    }
+
+    // Livros que acabaram de entrar na estante de cada usuário (não os que ele já tinha)
+    public void recordDocuments(List<IngestionEvent> created) {
+        if (created.isEmpty()) return;
+        Map<String, Long> bytesByUser = new HashMap<>();
+        Map<String, List<String>> hashesByUser = new HashMap<>();
+        created.forEach(e -> {
+            bytesByUser.merge(e.userId(), e.fileSize(), Long::sum);
+            hashesByUser.computeIfAbsent(e.userId(), k -> new ArrayList<>()).add(e.fileHash());
+        });
+        counters.addToUsers(bytesByUser.entrySet().stream()
+                .map(e -> new UserDelta(e.getKey(), 0, 0, 0, e.getValue()))
+                .toList());
+        hashesByUser.forEach(counters::initDocuments);
+    }
+
+    @Scheduled(cron = "${library.stats.reconcile-cron:0 41 3 * * *}")
+    public void reconcile() {
+        int users = counters.reconcileUsers();
+        int documents = counters.reconcileDocuments();
+        if (users > 0 || documents > 0) {
+            log.warn("🧮 Contadores reconciliados: {} usuários e {} documentos estavam divergentes", users, documents);
+        } else {
+            log.info("🧮 Contadores conferidos: nenhuma divergência");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ai.organizer.library.service;
+
+import com.ai.organizer.library.domain.PublicUniverseStar;
+import com.ai.organizer.library.dto.PublicStarDTO;
+import com.ai.organizer.library.dto.StarDTO;
+import com.ai.organizer.library.layout.BarnesHutLayout;
+import com.ai.organizer.library.layout.TileIndex;
+import com.ai.organizer.library.repository.PublicUniverseRepository;
+import com.ai.organizer.library.repository.PublicUniverseStarRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tiles z/x/y do canvas (ver {@link TileIndex}) para o universo do usuário e para os universos públicos.
+ *
+ * - Usuário: índice montado a partir da visão materializada e guardado junto com a versão dela;
+ *   uma versão nova (mudança, layout) descarta o índice no próximo pedido.
+ * - Público: índice por universo/idioma a partir de public_universe_stars, que só muda na importação.
+ */
+@Service
+@Slf4j
+public class UniverseTileService {
+
+    private final UniverseViewService universeViewService;
+    private final PublicUniverseRepository publicUniverseRepository;
+    private final PublicUniverseStarRepository publicStarRepository;
+
+    private final Cache<String, UserIndex> userIndexes;
+    private final LoadingCache<PublicKey, TileIndex<PublicStarDTO>> publicIndexes;
+
+    private record UserIndex(long version, TileIndex<StarDTO> index) {}
+
+    private record PublicKey(String universeId, String lang) {}
+
+    public UniverseTileService(UniverseViewService universeViewService,
+                               PublicUniverseRepository publicUniverseRepository,
+                               PublicUniverseStarRepository publicStarRepository,
+                               @Value("${library.tiles.user-cache-size:500}") long userCacheSize,
+                               @Value("${library.tiles.public-ttl-minutes:60}") long publicTtlMinutes) {
+        this.universeViewService = universeViewService;
+        this.publicUniverseRepository = publicUniverseRepository;
+        this.publicStarRepository = publicStarRepository;
+        this.userIndexes = Caffeine.newBuilder()
+                .maximumSize(userCacheSize)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+        this.publicIndexes = Caffeine.newBuilder()
+                .maximumSize(32)
+                .expireAfterWrite(Duration.ofMinutes(publicTtlMinutes))
+                .build(this::loadPublic);
+    }
+
+    /**
+     * Tile do universo do usuário na versão informada (a mesma do ETag). Estrelas que o layout
+     * ainda não posicionou não aparecem: entram no tile quando o layout gravar e a versão subir.
+     */
+    public TileIndex.Tile<StarDTO> userTile(String userId, Long version, int z, int x, int y) {
+        validate(z, x, y);
+        if (version == null) {
+            return userIndex(userId).tile(z, x, y);
+        }
+        UserIndex cached = userIndexes.getIfPresent(userId);
+        if (cached == null || cached.version() != version) {
+            cached = new UserIndex(version, userIndex(userId));
+            userIndexes.put(userId, cached);
+        }
+        return cached.index().tile(z, x, y);
+    }
+
+    public TileIndex.Tile<PublicStarDTO> publicTile(String universeId, String lang, int z, int x, int y) {
+        validate(z, x, y);
+        return publicIndex(universeId, lang).tile(z, x, y);
+    }
+
+    // Muda só quando a importação regrava as estrelas (e o cache expira)
+    public long publicVersion(String universeId, String lang) {
+        return publicIndex(universeId, lang).fingerprint();
+    }
+
+    private TileIndex<PublicStarDTO> publicIndex(String universeId, String lang) {
+        if (!publicUniverseRepository.existsById(universeId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Universo não encontrado");
+        }
+        return publicIndexes.get(new PublicKey(universeId, lang));
+    }
+
+    private TileIndex<StarDTO> userIndex(String userId) {
+        return TileIndex.build(universeViewService.stars(userId),
+                star -> star.x() != null ? star.x() : Double.NaN,
+                star -> star.y() != null ? star.y() : Double.NaN);
+    }
+
+    private TileIndex<PublicStarDTO> loadPublic(PublicKey key) {
+        long start = System.nanoTime();
+        List<PublicStarDTO> stars = publicStarRepository.findByUniverseIdAndLang(key.universeId(), key.lang()).stream()
+                .map(UniverseTileService::toPublicStar)
+                .toList();
+        TileIndex<PublicStarDTO> index = TileIndex.build(stars, PublicStarDTO::x, PublicStarDTO::y);
+        log.info("🗺️ Índice de tiles do universo {}/{}: {} estrelas em {} ms",
+                key.universeId(), key.lang(), index.size(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    // Sem posição importada, usa a mesma dispersão determinística do tour no front (raio 800..3500)
+    private static PublicStarDTO toPublicStar(PublicUniverseStar star) {
+        double x, y;
+        if (star.getCanvasX() != null && star.getCanvasY() != null) {
+            x = star.getCanvasX();
+            y = star.getCanvasY();
+        } else {
+            double angle = BarnesHutLayout.unit(star.getId()) * Math.PI * 2;
+            double radius = 800 + BarnesHutLayout.unit(star.getId() + "dist") * 2700;
+            x = Math.cos(angle) * radius;
+            y = Math.sin(angle) * radius;
+        }
+        return new PublicStarDTO(star.getId(), star.getRef(), star.getText(), x, y);
+    }
+
+    private static void validate(int z, int x, int y) {
+        if (!TileIndex.isValid(z, x, y)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Tile inválido (zoom 0.." + TileIndex.MAX_ZOOM + ", x/y 0..2^z-1)");
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package com.ai.organizer.library.service;
+
+import com.ai.organizer.events.EventTopics;
+import com.ai.organizer.events.HighlightEvent;
+import com.ai.organizer.events.IngestionEvent;
+import com.ai.organizer.events.StarLinkedEvent;
+import com.ai.organizer.events.SummaryCompletedEvent;
+import com.ai.organizer.events.SummaryRequestedEvent;
+import com.ai.organizer.library.domain.DocumentOwner;
+import com.ai.organizer.library.domain.UserGalaxy;
+import com.ai.organizer.library.dto.GalaxyStateDTO;
+import com.ai.organizer.library.dto.KeysetCursor;
+import com.ai.organizer.library.dto.KeysetPage;
+import com.ai.organizer.library.dto.StarDTO;
+import com.ai.organizer.library.dto.UniverseChange;
+import com.ai.organizer.library.dto.UniverseChangesDTO;
+import com.ai.organizer.library.dto.UniverseView;
+import com.ai.organizer.library.infrastructure.ReadModelCache;
+import com.ai.organizer.library.infrastructure.UniverseViewStore;
+import com.ai.organizer.library.repository.DocumentOwnerRepository;
+import com.ai.organizer.library.repository.StarLayoutRepository;
+import com.ai.organizer.library.repository.StarLayoutRepository.LayoutStar;
+import com.ai.organizer.library.repository.StarProjectionRepository;
+import com.ai.organizer.library.repository.StarGalaxyLinkRepository;
+import com.ai.organizer.library.repository.UserGalaxyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Visão materializada por usuário (galáxias, estrelas e links), alimentada pelos eventos do Kafka.
+ *
+ * Ler um universo é uma consulta local, sem JPA. Quem ainda não está na visão é carregado do Postgres
+ * na primeira leitura; a partir daí os eventos mantêm o registro atualizado. Eventos de usuários
+ * fora da visão são ignorados, porque a carga do Postgres já vai trazê-los.
+ *
+ * A leitura do Postgres (carga inicial ou recarga) roda fora do writeLock, sem travar o consumidor.
+ * Os eventos do usuário aplicados enquanto ela roda ficam em {@link Reload} e são reaplicados sobre
+ * o snapshot antes de gravá-lo; todas as mudanças são idempotentes, então repetir as que o banco já
+ * trouxe não altera nada.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UniverseViewService {
+
+    private final UniverseViewStore store;
+    private final ObjectMapper objectMapper;
+
+    private final UserGalaxyRepository galaxyRepository;
+    private final StarGalaxyLinkRepository linkRepository;
+    private final StarProjectionRepository starProjectionRepository;
+    private final StarLayoutRepository starLayoutRepository;
+    private final DocumentOwnerRepository documentOwnerRepository;
+    private final ReadModelCache readModelCache;
+
+    // Mudanças guardadas por usuário para o /changes; quem ficar mais atrás que isso recarrega tudo
+    @Value("${library.universe-view.max-changes:2000}")
+    private long maxChanges;
+
+    private static final int MAX_CHANGES_PER_RESPONSE = 500;
+
+    // Um único escritor por vez: lote do consumidor, carga inicial de um usuário ou invalidação
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Cargas do Postgres em andamento por usuário (protegido pelo writeLock)
+    private final Map<String, Reload> reloads = new HashMap<>();
+
+    private static final class Reload {
+        int loaders;
+        long lastTicket;
+        long savedTicket;
+        // Tudo o que foi aplicado desde a primeira carga em andamento
+        final List<Consumer<UniverseView>> pending = new ArrayList<>();
+    }
+
+    public GalaxyStateDTO state(String userId) {
+        UniverseView view = view(userId);
+        List<UserGalaxy> galaxies = view.galaxies().values().stream()
+                .filter(g -> !Boolean.FALSE.equals(g.getIsActive()))
+                .toList();
+        return new GalaxyStateDTO(galaxies, new ArrayList<>(view.links().values()));
+    }
+
+    public List<StarDTO> stars(String userId) {
+        return new ArrayList<>(view(userId).stars().values());
+    }
+
+    public KeysetPage<StarDTO> stars(String userId, String cursor, Integer limit) {
+        if (limit == null && cursor == null) {
+            return new KeysetPage<>(stars(userId), null);
+        }
+        // Páginas vêm do keyset indexado do banco: a visão inteira não é lida nem ordenada por página
+        List<StarDTO> rows = starProjectionRepository.findStarsPage(userId, KeysetCursor.decode(cursor), KeysetPage.fetchSize(limit));
+        return KeysetPage.of(rows, limit, star -> new KeysetCursor(star.createdAt(), star.id()));
+    }
+
+    /**
+     * Versão atual do universo (ETag dos endpoints de estado completo). Lida antes do estado, então
+     * no pior caso o ETag fica atrás do conteúdo e o próximo pedido só baixa de novo.
+     * Convidados não são materializados e não têm versão.
+     */
+    public Long version(String userId) {
+        if (isGuest(userId)) return null;
+        if (store.view(userId) == null) view(userId);
+        return store.sequence(userId);
+    }
+
+    public UniverseChangesDTO changes(String userId, long since) {
+        Long current = version(userId);
+        if (current == null || since < store.changeFloor(userId) || since > current) {
+            return new UniverseChangesDTO(current != null ? current : 0, true, false, List.of());
+        }
+
+        List<UniverseChange> changes = store.changesSince(userId, since, MAX_CHANGES_PER_RESPONSE).stream()
+                .map(this::readChange)
+                .toList();
+        // Um trim concorrente pode ter apagado o começo do intervalo
+        if (!changes.isEmpty() && changes.get(0).seq() != since + 1) {
+            return new UniverseChangesDTO(current, true, false, List.of());
+        }
+        long seq = changes.isEmpty() ? since : changes.get(changes.size() - 1).seq();
+        return new UniverseChangesDTO(seq, false, seq < current, changes);
+    }
+
+    /**
+     * Mudanças que não passam pelo Kafka (ex: criação de galáxia) recarregam a visão depois do commit.
+     * Cada réplica tem a própria visão, então as outras são avisadas pelo canal do ReadModelCache.
+     */
+    public void evictAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictEverywhere(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictEverywhere(userId);
+            }
+        });
+    }
+
+    /**
+     * Posições novas do layout entram na visão como mudança das estrelas, sem recarregar o universo.
+     * As outras réplicas recebem o aviso e leem só as coordenadas.
+     */
+    public void movePositionsAfterCommit(String userId, List<LayoutStar> positions) {
+        Runnable move = () -> {
+            applyPositions(userId, positions);
+            readModelCache.invalidate(ReadModelCache.Region.UNIVERSE_LAYOUT, userId);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            move.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                move.run();
+            }
+        });
+    }
+
+    /**
+     * O evento que o próprio request gravou no outbox entra na visão local logo depois do commit, para
+     * quem escreveu ler a própria escrita sem esperar relay + Kafka + consumidor. Quando o mesmo evento
+     * chega pelo Kafka não muda nada (putIfAbsent / deleção já marcada); as outras réplicas só o veem por lá.
+     */
+    public void applyAfterCommit(String topic, Object event, LocalDateTime eventTime) {
+        Runnable apply = () -> {
+            writeLock.lock();
+            try {
+                Map<String, UniverseView> dirty = new HashMap<>();
+                applyOne(topic, event, eventTime, dirty);
+                dirty.forEach(this::save);
+                store.commit();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Escrita local não aplicada na visão ({}); chega pelo Kafka: {}", topic, e.getMessage());
+            } finally {
+                writeLock.unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void evictEverywhere(String userId) {
+        evict(userId);
+        readModelCache.invalidate(ReadModelCache.Region.UNIVERSE_VIEW, userId);
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(ReadModelCache.Invalidated event) {
+        if (event.region() == ReadModelCache.Region.UNIVERSE_VIEW) {
+            evict(event.ownerId());
+        } else if (event.region() == ReadModelCache.Region.UNIVERSE_LAYOUT && store.view(event.ownerId()) != null) {
+            applyPositions(event.ownerId(), starLayoutRepository.findStars(event.ownerId()));
+        }
+    }
+
+    // Recarrega do banco e registra a diferença no log, para o /changes continuar valendo
+    public void evict(String userId) {
+        if (store.view(userId) == null) return;
+
+        long ticket = beginReload(userId);
+        try {
+            UniverseView fresh = loadFromDatabase(userId);
+            writeLock.lock();
+            try {
+                if (store.view(userId) == null || !catchUp(userId, ticket, fresh)) return;
+                save(userId, fresh);
+                registerOwners(userId, fresh);
+                store.commit();
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            endReload(userId);
+        }
+    }
+
+    // Passa pelo update(): uma carga em andamento também recebe as posições
+    private void applyPositions(String userId, List<LayoutStar> positions) {
+        writeLock.lock();
+        try {
+            Map<String, UniverseView> dirty = new HashMap<>();
+            update(userId, dirty, view -> positions.forEach(position -> {
+                if (position.x() == null || position.y() == null) return;
+                view.stars().computeIfPresent(position.id(), (id, star) ->
+                        new StarDTO(id, star.content(), star.documentId(), star.documentTitle(),
+                                star.createdAt(), star.type(), star.positionJson(), position.x(), position.y()));
+            }));
+            dirty.forEach(this::save);
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Long checkpoint(TopicPartition partition) {
+        return store.offset(partition);
+    }
+
+    public void apply(List<ConsumerRecord<String, Object>> records) {
+        writeLock.lock();
+        try {
+            Map<String, UniverseView> dirty = new HashMap<>();
+            Map<TopicPartition, Long> positions = new HashMap<>();
+
+            for (ConsumerRecord<String, Object> record : records) {
+                positions.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::max);
+                if (record.value() == null) continue;
+                try {
+                    applyOne(record.topic(), record.value(),
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault()), dirty);
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ Evento {}-{}@{} não aplicado na visão: {}",
+                            record.topic(), record.partition(), record.offset(), e.getMessage());
+                }
+            }
+
+            dirty.forEach(this::save);
+            positions.forEach(store::putOffset);
+            store.commit();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void applyOne(String topic, Object value, LocalDateTime eventTime, Map<String, UniverseView> dirty) {
+        switch (topic) {
+            case EventTopics.HIGHLIGHT_CREATED -> {
+                HighlightEvent e = (HighlightEvent) value;
+                String ref = "H:" + e.highlightId();
+                if (e.highlightId() == null || e.highlightId() < 0 || isGuest(e.userId()) || store.isDeleted(ref)) return;
+                store.putOwner(ref, e.userId());
+                update(e.userId(), dirty, view -> view.stars().putIfAbsent(String.valueOf(e.highlightId()), new StarDTO(
+                        String.valueOf(e.highlightId()), e.content(), e.fileHash(),
+                        view.documentTitles().getOrDefault(e.fileHash(), "Documento Desconhecido"),
+                        eventTime, e.type(), e.positionJson(), null, null)));
+            }
+            case EventTopics.SUMMARY_REQUESTED -> {
+                SummaryRequestedEvent e = (SummaryRequestedEvent) value;
+                String ref = "S:" + e.summaryId();
+                if (e.summaryId() == null || isGuest(e.userId()) || store.isDeleted(ref)) return;
+                store.putOwner(ref, e.userId());
+                update(e.userId(), dirty, view -> view.stars().putIfAbsent("summary-" + e.summaryId(), new StarDTO(
+                        "summary-" + e.summaryId(), summaryPreview(null), e.fileHash(),
+                        view.documentTitles().getOrDefault(e.fileHash(), "Documento"),
+                        eventTime, "RESUME", null, null, null)));
+            }
+            case EventTopics.SUMMARY_COMPLETED -> {
+                SummaryCompletedEvent e = (SummaryCompletedEvent) value;
+                String userId = store.owner("S:" + e.summaryId());
+                if (userId == null) return;
+                update(userId, dirty, view -> view.stars().computeIfPresent("summary-" + e.summaryId(), (id, star) ->
+                        new StarDTO(id, summaryPreview(e.generatedText()), star.documentId(), star.documentTitle(),
+                                star.createdAt(), star.type(), star.positionJson(), star.x(), star.y())));
+            }
+            case EventTopics.STAR_LINKED -> {
+                StarLinkedEvent e = (StarLinkedEvent) value;
+                String userId = store.owner("G:" + e.galaxyId());
+                if (userId == null || e.starId() == null) return;
+                update(userId, dirty, view -> view.links().put(e.galaxyId() + ":" + e.starId(),
+                        new GalaxyStateDTO.LinkDTO(e.galaxyId(), e.starId(), e.score())));
+            }
+            case EventTopics.DOCUMENT_INGESTION -> {
+                IngestionEvent e = (IngestionEvent) value;
+                if (isGuest(e.userId())) return;
+                update(e.userId(), dirty, view -> view.documentTitles().putIfAbsent(e.fileHash(), e.originalName()));
+            }
+            case EventTopics.DATA_DELETED -> applyDeletion(value.toString(), dirty);
+            default -> { }
+        }
+    }
+
+    private void applyDeletion(String message, Map<String, UniverseView> dirty) {
+        String[] parts = message.replace("\"", "").trim().split(":");
+        if (parts.length < 2) return;
+        String type = parts[0].trim();
+        String id = parts[1].trim();
+
+        String ref = switch (type) {
+            case "HIGHLIGHT" -> "H:" + id;
+            case "SUMMARY" -> "S:" + id;
+            case "GALAXY" -> "G:" + id;
+            default -> null;
+        };
+        if (ref == null) return;
+
+        String userId = store.owner(ref);
+        store.markDeleted(ref);
+        if (userId == null) return;
+
+        update(userId, dirty, view -> {
+            switch (type) {
+                case "HIGHLIGHT" -> {
+                    view.stars().remove(id);
+                    view.links().values().removeIf(link -> id.equals(link.highlightId()));
+                }
+                case "SUMMARY" -> view.stars().remove("summary-" + id);
+                case "GALAXY" -> {
+                    view.galaxies().remove(Long.valueOf(id));
+                    view.links().values().removeIf(link -> id.equals(link.galaxyId()));
+                }
+                default -> { }
+            }
+        });
+    }
+
+    private void update(String userId, Map<String, UniverseView> dirty, Consumer<UniverseView> change) {
+        Reload reload = reloads.get(userId);
+        if (reload != null) {
+            reload.pending.add(change);
+        }
+
+        UniverseView view = dirty.get(userId);
+        if (view == null) {
+            byte[] bytes = store.view(userId);
+            if (bytes == null) return;
+            view = read(bytes);
+            dirty.put(userId, view);
+        }
+        change.accept(view);
+    }
+
+    private UniverseView view(String userId) {
+        byte[] bytes = store.view(userId);
+        if (bytes != null) {
+            return read(bytes);
+        }
+
+        if (isGuest(userId)) {
+            return loadFromDatabase(userId);
+        }
+
+        long ticket = beginReload(userId);
+        try {
+            UniverseView loaded = loadFromDatabase(userId);
+            writeLock.lock();
+            try {
+                if (store.view(userId) == null && catchUp(userId, ticket, loaded)) {
+                    store.putView(userId, write(loaded));
+                    registerOwners(userId, loaded);
+                    store.resetChanges(userId);
+                    store.commit();
+                    log.info("🪐 Universo de {} materializado: {} galáxias, {} estrelas, {} links",
+                            userId, loaded.galaxies().size(), loaded.stars().size(), loaded.links().size());
+                    return loaded;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            endReload(userId);
+        }
+        return read(store.view(userId));
+    }
+
+    // Registra a carga antes de ler o banco: a partir daqui os eventos do usuário ficam guardados
+    private long beginReload(String userId) {
+        writeLock.lock();
+        try {
+            Reload reload = reloads.computeIfAbsent(userId, id -> new Reload());
+            reload.loaders++;
+            return ++reload.lastTicket;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void endReload(String userId) {
+        writeLock.lock();
+        try {
+            Reload reload = reloads.get(userId);
+            if (--reload.loaders == 0) {
+                reloads.remove(userId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Com o writeLock: reaplica no snapshot os eventos guardados. Devolve false se uma carga iniciada
+     * depois desta já foi gravada (este snapshot é mais velho e seria um retrocesso).
+     */
+    private boolean catchUp(String userId, long ticket, UniverseView snapshot) {
+        Reload reload = reloads.get(userId);
+        if (ticket < reload.savedTicket) {
+            return false;
+        }
+        reload.savedTicket = ticket;
+        reload.pending.forEach(change -> change.accept(snapshot));
+        return true;
+    }
+
+    private void registerOwners(String userId, UniverseView view) {
+        view.galaxies().keySet().forEach(id -> store.putOwner("G:" + id, userId));
+        view.stars().keySet().forEach(id -> store.putOwner(
+                id.startsWith("summary-") ? "S:" + id.substring("summary-".length()) : "H:" + id, userId));
+    }
+
+    // Grava a visão e, depois dela, as mudanças: quem lê a sequência antes da visão nunca vê uma versão à frente do estado
+    private void save(String userId, UniverseView after) {
+        byte[] previous = store.view(userId);
+        store.putView(userId, write(after));
+        if (previous == null) return;
+
+        UniverseView before = read(previous);
+        List<UniverseChange> changes = new ArrayList<>();
+        diff("STAR", before.stars(), after.stars(), changes);
+        diff("GALAXY", before.galaxies(), after.galaxies(), changes);
+        diff("LINK", before.links(), after.links(), changes);
+        if (changes.isEmpty()) return;
+
+        long seq = store.sequence(userId);
+        for (UniverseChange change : changes) {
+            seq++;
+            store.putChange(userId, seq, writeChange(new UniverseChange(
+                    seq, change.kind(), change.id(), change.op(), change.value())));
+        }
+        store.trimChanges(userId, maxChanges);
+    }
+
+    private <K, V> void diff(String kind, Map<K, V> before, Map<K, V> after, List<UniverseChange> out) {
+        after.forEach((key, value) -> {
+            JsonNode now = objectMapper.valueToTree(value);
+            V old = before.get(key);
+            if (old == null || !now.equals(objectMapper.valueToTree(old))) {
+                out.add(new UniverseChange(0, kind, String.valueOf(key), "UPSERT", now));
+            }
+        });
+        before.keySet().stream()
+                .filter(key -> !after.containsKey(key))
+                .forEach(key -> out.add(new UniverseChange(0, kind, String.valueOf(key), "DELETE", null)));
+    }
+
+    private UniverseView loadFromDatabase(String userId) {
+        UniverseView view = UniverseView.empty();
+
+        for (DocumentOwner owner : documentOwnerRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+            view.documentTitles().putIfAbsent(owner.getFileHash(), owner.getTitle());
+        }
+        for (UserGalaxy galaxy : galaxyRepository.findByUserIdAndIsActiveTrue(userId)) {
+            view.galaxies().put(galaxy.getId(), galaxy);
+        }
+        linkRepository.findByUserId(userId).forEach(link -> {
+            String galaxyId = String.valueOf(link.getGalaxy().getId());
+            view.links().put(galaxyId + ":" + link.getStarId(),
+                    new GalaxyStateDTO.LinkDTO(galaxyId, link.getStarId(), link.getScore()));
+        });
+        for (StarDTO star : starProjectionRepository.findAllStars(userId)) {
+            view.stars().put(star.id(), star);
+        }
+        return view;
+    }
+
+    private static String summaryPreview(String text) {
+        return "Resumo IA: " + (text != null ? text.substring(0, Math.min(50, text.length())) + "..." : "Gerando...");
+    }
+
+    private static boolean isGuest(String userId) {
+        return userId == null || userId.startsWith("guest");
+    }
+
+    private UniverseView read(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, UniverseView.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Visão materializada corrompida", e);
+        }
+    }
+
+    private UniverseChange readChange(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, UniverseChange.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Log de mudanças corrompido", e);
+        }
+    }
+
+    private byte[] writeChange(UniverseChange change) {
+        try {
+            return objectMapper.writeValueAsBytes(change);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao serializar mudança", e);
+        }
+    }
+
+    private byte[] write(UniverseView view) {
+        try {
+            return objectMapper.writeValueAsBytes(view);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao serializar visão materializada", e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.ai.organizer.library.client;
+
+import com.ai.organizer.library.client.dto.AiGravityResponse;
+import com.ai.organizer.rpc.ai.v1.AiProcessorGrpc;
+import com.ai.organizer.rpc.ai.v1.GravityRequest;
+import com.ai.organizer.rpc.ai.v1.GravityResponse;
+import com.ai.organizer.rpc.ai.v1.StarMatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Custo por chamada de cada caminho até o ai-processor, contra um servidor falso que responde na hora
+ * (10 estrelas por termo): mede só transporte + serialização, não OpenAI/Pinecone.
+ *
+ * - RestClient: o caminho antigo (bloqueante, JSON, HttpURLConnection);
+ * - AiProcessorClient http: HttpClient do JDK assíncrono, em h2c;
+ * - AiProcessorClient grpc: protobuf num canal HTTP/2.
+ *
+ * Sem hedge (mediria a política, não o transporte) e com termos distintos (sem coalescência).
+ *
+ * Rodar: mvn -q test-compile exec:java -Dexec.mainClass=com.ai.organizer.library.client.AiTransportBenchmark -Dexec.classpathScope=test
+ */
+public class AiTransportBenchmark {
+
+    private static final int WARMUP = 3_000;
+    private static final int CALLS = 10_000;
+    private static final int CONCURRENCY = 32;
+
+    private static final List<AiGravityResponse.StarMatch> MATCHES = IntStream.range(0, 10)
+            .mapToObj(i -> new AiGravityResponse.StarMatch(String.valueOf(1_000 + i), 0.6 + i / 100.0,
+                    "Trecho destacado número " + i + " com o tamanho de uma frase comum de livro, mais ou menos."))
+            .toList();
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Tomcat http = httpServer(objectMapper);
+        Server grpcServer = NettyServerBuilder.forPort(0).addService(new FakeAiProcessor()).build().start();
+        String httpUrl = "http://localhost:" + http.getConnector().getLocalPort();
+
+        // O RestClient.Builder do Boot 3.3 sem Apache/Jetty/OkHttp no classpath usa HttpURLConnection
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new SimpleClientHttpRequestFactory())
+                .baseUrl(httpUrl + "/api/ai")
+                .build();
+        AiProcessorClient httpClient = client(objectMapper, httpUrl, null);
+        AiProcessorGrpcTransport transport = new AiProcessorGrpcTransport("localhost:" + grpcServer.getPort(), "", 1, 0);
+        AiProcessorClient grpcClient = client(objectMapper, httpUrl, transport);
+
+        try {
+            System.out.printf("%-26s %9s %9s %12s%n", "caminho", "p50 us", "p99 us", "chamadas/s");
+            run("RestClient (antigo)", i -> restClient.post().uri("/galaxy/gravity")
+                    .body("termo " + i).retrieve().body(AiGravityResponse.class));
+            run("AiProcessorClient http", i -> httpClient.getGravityMatches("termo " + i));
+            run("AiProcessorClient grpc", i -> grpcClient.getGravityMatches("termo " + i));
+        } finally {
+            transport.shutdown();
+            grpcServer.shutdownNow();
+            http.stop();
+        }
+        System.exit(0);
+    }
+
+    private static AiProcessorClient client(ObjectMapper objectMapper, String url, AiProcessorGrpcTransport transport) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(
+                transport != null ? Map.of("transport", transport) : Map.of());
+        return new AiProcessorClient(objectMapper, new SimpleMeterRegistry(),
+                beans.getBeanProvider(AiProcessorGrpcTransport.class),
+                url, 1000, 5000, 5000, 0, 1);
+    }
+
+    private static void run(String name, IntFunction<AiGravityResponse> call) throws Exception {
+        for (int i = 0; i < WARMUP; i++) check(call.apply(i));
+
+        long[] nanos = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            check(call.apply(i));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        AtomicLong next = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (int t = 0; t < CONCURRENCY; t++) {
+                callers.submit(() -> {
+                    for (long i; (i = next.getAndIncrement()) < CALLS; ) check(call.apply((int) i + CALLS));
+                });
+            }
+        }
+        double perSecond = CALLS / ((System.nanoTime() - start) / 1e9);
+        System.out.printf("%-26s %9d %9d %12.0f%n", name, nanos[CALLS / 2] / 1000, nanos[CALLS * 99 / 100] / 1000, perSecond);
+    }
+
+    private static void check(AiGravityResponse response) {
+        if (response == null || response.matches().size() != MATCHES.size()) {
+            throw new IllegalStateException("Resposta inesperada: " + response);
+        }
+    }
+
+    // Tomcat como no ai-processor, com h2c (server.http2.enabled)
+    private static Tomcat httpServer(ObjectMapper objectMapper) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("ai-bench").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().addUpgradeProtocol(new Http2Protocol());
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "gravity", new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                String term = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                byte[] body = objectMapper.writeValueAsBytes(new AiGravityResponse(term, MATCHES));
+                response.setContentType("application/json");
+                response.setContentLength(body.length);
+                response.getOutputStream().write(body);
+            }
+        });
+        context.addServletMappingDecoded("/api/ai/galaxy/gravity", "gravity");
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static class FakeAiProcessor extends AiProcessorGrpc.AiProcessorImplBase {
+
+        @Override
+        public void gravity(GravityRequest request, StreamObserver<GravityResponse> responseObserver) {
+            responseObserver.onNext(response(request.getTerm()));
+            responseObserver.onCompleted();
+        }
+
+        private static GravityResponse response(String term) {
+            GravityResponse.Builder builder = GravityResponse.newBuilder().setTerm(term);
+            MATCHES.forEach(m -> builder.addMatches(StarMatch.newBuilder()
+                    .setHighlightId(m.highlightId()).setScore(m.score()).setText(m.text())));
+            return builder.build();
+        }
+    }
+}
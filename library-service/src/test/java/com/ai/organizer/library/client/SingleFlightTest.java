@@ -0,0 +1,101 @@
+package com.ai.organizer.library.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private Counter coalesced;
+    private SingleFlight<String, String> flight;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        coalesced = new SimpleMeterRegistry().counter("coalesced");
+        flight = new SingleFlight<>(coalesced);
+    }
+
+    private CompletableFuture<String> upstream(CompletableFuture<String> response) {
+        calls.incrementAndGet();
+        return response;
+    }
+
+    @Test
+    void concurrentCallsForTheSameKeyShareOneUpstreamCall() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.run("k", () -> upstream(response));
+        CompletableFuture<String> second = flight.run("k", () -> upstream(new CompletableFuture<>()));
+        response.complete("v");
+
+        assertThat(first.join()).isEqualTo("v");
+        assertThat(second.join()).isEqualTo("v");
+        assertThat(calls).hasValue(1);
+        assertThat(coalesced.count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        flight.run("a", () -> upstream(new CompletableFuture<>()));
+        flight.run("b", () -> upstream(new CompletableFuture<>()));
+
+        assertThat(calls).hasValue(2);
+        assertThat(coalesced.count()).isZero();
+    }
+
+    @Test
+    void finishedCallsAreNotCached() {
+        assertThat(flight.run("k", () -> upstream(CompletableFuture.completedFuture("v1"))).join()).isEqualTo("v1");
+        assertThat(flight.run("k", () -> upstream(CompletableFuture.completedFuture("v2"))).join()).isEqualTo("v2");
+
+        assertThat(calls).hasValue(2);
+        assertThat(coalesced.count()).isZero();
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndReleasesTheKey() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.run("k", () -> upstream(response));
+        CompletableFuture<String> second = flight.run("k", () -> upstream(new CompletableFuture<>()));
+
+        response.completeExceptionally(new IllegalStateException("upstream fora"));
+
+        assertThatThrownBy(first::join).isInstanceOf(CompletionException.class).hasRootCauseMessage("upstream fora");
+        assertThatThrownBy(second::join).isInstanceOf(CompletionException.class).hasRootCauseMessage("upstream fora");
+        assertThat(flight.run("k", () -> upstream(CompletableFuture.completedFuture("ok"))).join()).isEqualTo("ok");
+    }
+
+    @Test
+    void supplierThatThrowsFailsTheCallAndReleasesTheKey() {
+        CompletableFuture<String> failed = flight.run("k", () -> {
+            throw new IllegalArgumentException("requisição inválida");
+        });
+
+        assertThatThrownBy(failed::join).hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(flight.run("k", () -> upstream(CompletableFuture.completedFuture("ok"))).join()).isEqualTo("ok");
+    }
+
+    @Test
+    void callerCannotCompleteOrCancelTheSharedResult() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.run("k", () -> upstream(response));
+        CompletableFuture<String> second = flight.run("k", () -> upstream(new CompletableFuture<>()));
+
+        first.cancel(true);
+        second.complete("forjado");
+        CompletableFuture<String> third = flight.run("k", () -> upstream(new CompletableFuture<>()));
+        response.complete("v");
+
+        assertThat(third.join()).isEqualTo("v");
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ai.organizer.library.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughTheOpaqueString() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000), "summary-42");
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("|", "=", "+", "/");
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void idMayContainTheSeparator() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 1, 1, 0, 0), "a|b");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.FIRST);
+        assertThat(KeysetCursor.decode("  ")).isEqualTo(KeysetCursor.FIRST);
+        assertThat(KeysetCursor.FIRST.createdAt()).isAfter(LocalDateTime.now().plusYears(100));
+        assertThat(KeysetCursor.FIRST.longId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        assertBadRequest(() -> KeysetCursor.decode("%%%"));
+        assertBadRequest(() -> KeysetCursor.decode(encode("sem-separador")));
+        assertBadRequest(() -> KeysetCursor.decode(encode("ontem|42")));
+    }
+
+    @Test
+    void longIdRejectsNonNumericIds() {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertThat(new KeysetCursor(now, "42").longId()).isEqualTo(42L);
+        assertBadRequest(() -> new KeysetCursor(now, "summary-42").longId());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertBadRequest(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
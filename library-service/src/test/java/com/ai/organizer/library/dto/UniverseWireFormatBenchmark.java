@@ -0,0 +1,124 @@
+package com.ai.organizer.library.dto;
+
+import com.ai.organizer.library.domain.UserGalaxy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compara o JSON atual de /stars + /management/state com as colunas em CBOR:
+ * bytes crus, bytes com gzip (o que o server.compression manda) e tempo de serialização.
+ *
+ * Rodar: mvn -q test-compile exec:java -Dexec.mainClass=com.ai.organizer.library.dto.UniverseWireFormatBenchmark -Dexec.classpathScope=test
+ */
+public class UniverseWireFormatBenchmark {
+
+    private static final int WARMUP = 50;
+    private static final int ROUNDS = 200;
+
+    private static final String[] SENTENCES = {
+            "A consciência de si é o ponto de partida de toda a filosofia moderna. ",
+            "A dúvida metódica é o instrumento pelo qual o sujeito se funda. ",
+            "Nada está no intelecto que não tenha passado antes pelos sentidos. ",
+            "O tempo é a forma do sentido interno, a intuição de nós mesmos. ",
+            "Toda determinação é negação, e o finito só se entende pelo infinito. "
+    };
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        CBORMapper cbor = new CBORMapper();
+
+        System.out.printf("%-8s %-6s %12s %12s %12s %12s %10s %10s%n",
+                "stars", "part", "json B", "json gz B", "cbor B", "cbor gz B", "json us", "cbor us");
+
+        for (int stars : new int[]{1_000, 10_000, 50_000}) {
+            List<StarDTO> starList = stars(stars);
+            GalaxyStateDTO state = state(Math.max(10, stars / 500), stars / 4);
+
+            report(json, cbor, stars, "stars", () -> starList, () -> StarColumnsDTO.of(starList));
+            report(json, cbor, stars, "state", () -> state, () -> UniverseStateColumnsDTO.of(state));
+        }
+    }
+
+    private static void report(ObjectMapper json, CBORMapper cbor, int stars, String part,
+                               Supplier<Object> rows, Supplier<Object> columns) throws IOException {
+        byte[] jsonBytes = json.writeValueAsBytes(rows.get());
+        byte[] cborBytes = cbor.writeValueAsBytes(columns.get());
+
+        // Conversão para colunas entra no tempo do CBOR: é trabalho feito a cada requisição
+        double jsonMicros = time(() -> json.writeValueAsBytes(rows.get()));
+        double cborMicros = time(() -> cbor.writeValueAsBytes(columns.get()));
+
+        System.out.printf("%-8d %-6s %12d %12d %12d %12d %10.0f %10.0f%n",
+                stars, part, jsonBytes.length, gzip(jsonBytes).length,
+                cborBytes.length, gzip(cborBytes).length, jsonMicros, cborMicros);
+    }
+
+    private interface Task {
+        void run() throws IOException;
+    }
+
+    private static double time(Task task) throws IOException {
+        for (int i = 0; i < WARMUP; i++) task.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) task.run();
+        return (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+    }
+
+    private static List<StarDTO> stars(int count) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<StarDTO> stars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String hash = Integer.toHexString(0x5eed0000 + i % 40).repeat(8);
+            boolean summary = i % 10 == 0;
+            stars.add(new StarDTO(
+                    summary ? "summary-" + (9_000 + i) : String.valueOf(184_000 + i),
+                    summary ? "Resumo IA: " + SENTENCES[i % SENTENCES.length].substring(0, 50) + "..."
+                            : SENTENCES[i % SENTENCES.length] + SENTENCES[(i + 1) % SENTENCES.length],
+                    hash,
+                    "Livro " + (i % 40) + " - Uma História da Filosofia Ocidental",
+                    base.plusMinutes(i),
+                    summary ? "RESUME" : "TEXT",
+                    summary ? null : "{\"page\":" + (i % 300) + ",\"rects\":[{\"x\":0.12,\"y\":0.34,\"w\":0.56,\"h\":0.02}]}",
+                    (i * 7919 % 8000) - 4000.0, (i * 104729 % 8000) - 4000.0));
+        }
+        return stars;
+    }
+
+    private static GalaxyStateDTO state(int galaxies, int links) {
+        List<UserGalaxy> galaxyList = new ArrayList<>(galaxies);
+        for (int i = 0; i < galaxies; i++) {
+            UserGalaxy galaxy = new UserGalaxy("Galáxia " + i, "user-1", "#" + Integer.toHexString(0x336699 + i),
+                    (double) (i * 37 % 2000), (double) (i * 53 % 2000));
+            galaxy.setId((long) i + 1);
+            galaxy.setVectorId("galaxy-" + (i + 1));
+            galaxy.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(i));
+            galaxyList.add(galaxy);
+        }
+        List<GalaxyStateDTO.LinkDTO> linkList = new ArrayList<>(links);
+        for (int i = 0; i < links; i++) {
+            linkList.add(new GalaxyStateDTO.LinkDTO(
+                    String.valueOf(i % galaxies + 1), String.valueOf(184_000 + i * 3), 0.35 + (i % 650) / 1000.0));
+        }
+        return new GalaxyStateDTO(galaxyList, linkList);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
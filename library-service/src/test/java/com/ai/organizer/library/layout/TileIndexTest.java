@@ -0,0 +1,174 @@
+package com.ai.organizer.library.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TileIndexTest {
+
+    private record Point(String id, double x, double y) {}
+
+    private static TileIndex<Point> index(List<Point> points) {
+        return TileIndex.build(points, Point::x, Point::y);
+    }
+
+    private static List<Point> randomPoints(int n, long seed) {
+        Random random = new Random(seed);
+        List<Point> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            points.add(new Point("p" + i,
+                    (random.nextDouble() * 2 - 1) * TileIndex.HALF_EXTENT,
+                    (random.nextDouble() * 2 - 1) * TileIndex.HALF_EXTENT));
+        }
+        return points;
+    }
+
+    @Test
+    void dropsItemsWithoutCoordinates() {
+        TileIndex<Point> index = index(List.of(
+                new Point("ok", 10, 10),
+                new Point("nan", Double.NaN, 10),
+                new Point("inf", 10, Double.POSITIVE_INFINITY)));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.tile(0, 0, 0).items()).extracting(Point::id).containsExactly("ok");
+    }
+
+    @Test
+    void quadrantsFollowXAndYSigns() {
+        TileIndex<Point> index = index(List.of(
+                new Point("nw", -100, -100),
+                new Point("ne", 100, -100),
+                new Point("sw", -100, 100),
+                new Point("se", 100, 100)));
+
+        assertThat(index.tile(1, 0, 0).items()).extracting(Point::id).containsExactly("nw");
+        assertThat(index.tile(1, 1, 0).items()).extracting(Point::id).containsExactly("ne");
+        assertThat(index.tile(1, 0, 1).items()).extracting(Point::id).containsExactly("sw");
+        assertThat(index.tile(1, 1, 1).items()).extracting(Point::id).containsExactly("se");
+    }
+
+    @Test
+    void clampsPointsOutsideTheWorldToTheEdgeTiles() {
+        int last = (1 << TileIndex.MAX_ZOOM) - 1;
+        TileIndex<Point> index = index(List.of(
+                new Point("far", 1e9, 1e9),
+                new Point("edge", TileIndex.HALF_EXTENT, TileIndex.HALF_EXTENT),
+                new Point("below", -1e9, -1e9)));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.tile(TileIndex.MAX_ZOOM, last, last).items())
+                .extracting(Point::id).containsExactlyInAnyOrder("far", "edge");
+        assertThat(index.tile(TileIndex.MAX_ZOOM, 0, 0).items())
+                .extracting(Point::id).containsExactly("below");
+    }
+
+    @Test
+    void tilesOfAZoomLevelPartitionTheItems() {
+        List<Point> points = randomPoints(200, 7);
+        TileIndex<Point> index = index(points);
+
+        for (int z = 0; z <= 3; z++) {
+            Set<String> seen = new HashSet<>();
+            int total = 0;
+            for (int x = 0; x < (1 << z); x++) {
+                for (int y = 0; y < (1 << z); y++) {
+                    TileIndex.Tile<Point> tile = index.tile(z, x, y);
+                    total += tile.total();
+                    for (Point p : tile.items()) {
+                        assertThat(seen.add(p.id())).as("%s em mais de um tile", p.id()).isTrue();
+                        assertThat(tileCoordinate(p.x(), z)).isEqualTo(x);
+                        assertThat(tileCoordinate(p.y(), z)).isEqualTo(y);
+                    }
+                }
+            }
+            assertThat(total).isEqualTo(points.size());
+            assertThat(seen).hasSize(points.size());
+        }
+    }
+
+    @Test
+    void smallTilesReturnEveryItemWithoutClusters() {
+        TileIndex<Point> index = index(randomPoints(TileIndex.MAX_ITEMS_PER_TILE, 3));
+
+        TileIndex.Tile<Point> tile = index.tile(0, 0, 0);
+
+        assertThat(tile.total()).isEqualTo(TileIndex.MAX_ITEMS_PER_TILE);
+        assertThat(tile.items()).hasSize(TileIndex.MAX_ITEMS_PER_TILE);
+        assertThat(tile.clusters()).isEmpty();
+    }
+
+    @Test
+    void crowdedTilesStayUnderTheCapAndKeepEveryItemCounted() {
+        TileIndex<Point> index = index(randomPoints(5_000, 11));
+
+        TileIndex.Tile<Point> tile = index.tile(0, 0, 0);
+
+        assertThat(tile.total()).isEqualTo(5_000);
+        assertThat(tile.items().size() + tile.clusters().size()).isLessThanOrEqualTo(TileIndex.MAX_ITEMS_PER_TILE);
+        int clustered = tile.clusters().stream().mapToInt(TileIndex.Cluster::count).sum();
+        assertThat(tile.items().size() + clustered).isEqualTo(5_000);
+        assertThat(tile.clusters()).allSatisfy(c -> assertThat(c.count()).isGreaterThan(1));
+    }
+
+    @Test
+    void clusterHasCentroidAndNearestItemAsRepresentative() {
+        List<Point> points = new ArrayList<>();
+        // Grupo apertado numa célula do lado positivo; o resto enche o lado negativo e estoura o tile
+        points.add(new Point("a", 1000, 1000));
+        points.add(new Point("b", 1010, 1000));
+        points.add(new Point("c", 1004, 1000));
+        for (int i = 0; i < TileIndex.MAX_ITEMS_PER_TILE; i++) {
+            points.add(new Point("s" + i, -8000 + (i % 8) * 1000, -8000 + (i / 8) * 500));
+        }
+        TileIndex<Point> index = index(points);
+
+        TileIndex.Tile<Point> tile = index.tile(0, 0, 0);
+        TileIndex.Cluster<Point> cluster = tile.clusters().stream()
+                .filter(c -> c.representative().id().matches("[abc]"))
+                .findFirst().orElseThrow();
+
+        assertThat(cluster.count()).isEqualTo(3);
+        assertThat(cluster.x()).isCloseTo(1004.666, within(0.01));
+        assertThat(cluster.y()).isCloseTo(1000, within(0.01));
+        assertThat(cluster.representative().id()).isEqualTo("c");
+    }
+
+    @Test
+    void fingerprintChangesWhenAnItemChangesCell() {
+        Point a = new Point("a", 0, 0);
+        Point b = new Point("b", 500, 500);
+
+        long before = index(List.of(a, b)).fingerprint();
+
+        assertThat(index(List.of(a, new Point("b", 500.0001, 500))).fingerprint()).isEqualTo(before);
+        assertThat(index(List.of(a, new Point("b", -500, 500))).fingerprint()).isNotEqualTo(before);
+        assertThat(index(List.of(a)).fingerprint()).isNotEqualTo(before);
+    }
+
+    @Test
+    void rejectsTilesOutsideTheGrid() {
+        TileIndex<Point> index = index(List.of());
+
+        assertThat(TileIndex.isValid(0, 0, 0)).isTrue();
+        assertThat(TileIndex.isValid(2, 3, 3)).isTrue();
+        assertThat(TileIndex.isValid(2, 4, 0)).isFalse();
+        assertThat(TileIndex.isValid(-1, 0, 0)).isFalse();
+        assertThat(TileIndex.isValid(TileIndex.MAX_ZOOM + 1, 0, 0)).isFalse();
+        assertThatThrownBy(() -> index.tile(1, 2, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(index.tile(0, 0, 0).total()).isZero();
+    }
+
+    private static int tileCoordinate(double v, int z) {
+        int c = (int) Math.floor((v + TileIndex.HALF_EXTENT) / (2 * TileIndex.HALF_EXTENT) * (1 << z));
+        return Math.max(0, Math.min((1 << z) - 1, c));
+    }
+}
@@ -0,0 +1,126 @@
+package com.ai.organizer.library.repository;
+
+import com.ai.organizer.events.StarLinkedEvent;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Insere 10k links em star_galaxy_links (cópia num schema descartável) de quatro jeitos:
+ *
+ * - por linha: um INSERT ... RETURNING id por link, como o Hibernate faz com IDENTITY;
+ * - sequência + lote: nextval a cada 50 linhas e batch de 50 com ids explícitos (pooled, batch_size 50);
+ * - upsert em lote: LibraryBatchWriter.upsertLinks abaixo do limiar (um INSERT ... SELECT FROM unnest ... ON CONFLICT);
+ * - COPY: BulkWriter.upsertLinks (tabela temporária + INSERT ... SELECT).
+ *
+ * Usa DB_URL / DB_USER / DB_PASS (mesmas variáveis do serviço). Em banco local a latência de rede
+ * é quase zero; com o Postgres em outra máquina cada ida ao banco soma um RTT ao "por linha".
+ *
+ * Rodar: DB_URL=... mvn -q test-compile exec:java -Dexec.mainClass=com.ai.organizer.library.repository.LinkInsertBenchmark -Dexec.classpathScope=test
+ */
+public class LinkInsertBenchmark {
+
+    private static final int LINKS = 10_000;
+    private static final int GALAXIES = 20;
+    private static final int BATCH = 50;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        PGSimpleDataSource pg = new PGSimpleDataSource();
+        pg.setUrl(System.getenv("DB_URL"));
+        pg.setUser(System.getenv("DB_USER"));
+        pg.setPassword(System.getenv("DB_PASS"));
+        pg.setReWriteBatchedInserts(true);
+
+        try (Connection connection = pg.getConnection()) {
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection, true);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            BulkWriter bulkWriter = new BulkWriter(dataSource, jdbc);
+            LibraryBatchWriter batchWriter = new LibraryBatchWriter(jdbc, bulkWriter);
+            // Sem Spring o @Value não é injetado: o lote comum nunca desvia para o COPY
+            Field threshold = LibraryBatchWriter.class.getDeclaredField("copyThreshold");
+            threshold.setAccessible(true);
+            threshold.setInt(batchWriter, Integer.MAX_VALUE);
+
+            jdbc.execute("DROP SCHEMA IF EXISTS link_bench CASCADE");
+            jdbc.execute("CREATE SCHEMA link_bench");
+            jdbc.execute("SET search_path TO link_bench");
+            jdbc.execute("""
+                    CREATE TABLE star_galaxy_links (
+                        id bigint GENERATED BY DEFAULT AS IDENTITY (INCREMENT BY 50) PRIMARY KEY,
+                        galaxy_id bigint NOT NULL,
+                        star_id varchar(255) NOT NULL,
+                        score double precision NOT NULL,
+                        UNIQUE (galaxy_id, star_id))
+                    """);
+            jdbc.execute("CREATE INDEX ON star_galaxy_links (star_id)");
+
+            List<StarLinkedEvent> events = events();
+            System.out.printf("%-22s %10s %12s%n", "modo", "ms", "links/s");
+            try {
+                run("por linha (IDENTITY)", jdbc, () -> tx.executeWithoutResult(s -> {
+                    for (StarLinkedEvent e : events) {
+                        jdbc.queryForObject("INSERT INTO star_galaxy_links (galaxy_id, star_id, score) VALUES (?, ?, ?) RETURNING id",
+                                Long.class, Long.parseLong(e.galaxyId()), e.starId(), e.score());
+                    }
+                }));
+                run("pooled + lote 50", jdbc, () -> tx.executeWithoutResult(s -> {
+                    for (int from = 0; from < events.size(); from += BATCH) {
+                        long hi = jdbc.queryForObject("SELECT nextval(pg_get_serial_sequence('star_galaxy_links', 'id'))", Long.class);
+                        List<StarLinkedEvent> chunk = events.subList(from, Math.min(events.size(), from + BATCH));
+                        long first = hi - BATCH + 1;
+                        jdbc.batchUpdate("INSERT INTO star_galaxy_links (id, galaxy_id, star_id, score) VALUES (?, ?, ?, ?)",
+                                chunk, chunk.size(), (ps, e) -> {
+                                    ps.setLong(1, first + chunk.indexOf(e));
+                                    ps.setLong(2, Long.parseLong(e.galaxyId()));
+                                    ps.setString(3, e.starId());
+                                    ps.setDouble(4, e.score());
+                                });
+                    }
+                }));
+                run("upsert em lote", jdbc, () -> tx.executeWithoutResult(s -> {
+                    for (int from = 0; from < events.size(); from += 1000) {
+                        batchWriter.upsertLinks(events.subList(from, Math.min(events.size(), from + 1000)));
+                    }
+                }));
+                run("COPY (BulkWriter)", jdbc, () -> tx.executeWithoutResult(s -> bulkWriter.upsertLinks(events)));
+            } finally {
+                jdbc.execute("DROP SCHEMA link_bench CASCADE");
+            }
+        }
+    }
+
+    private static void run(String name, JdbcTemplate jdbc, Runnable insert) {
+        long[] millis = new long[ROUNDS + 1];
+        for (int round = 0; round <= ROUNDS; round++) {
+            jdbc.execute("TRUNCATE star_galaxy_links");
+            long start = System.nanoTime();
+            insert.run();
+            millis[round] = (System.nanoTime() - start) / 1_000_000;
+            Long count = jdbc.queryForObject("SELECT count(*) FROM star_galaxy_links", Long.class);
+            if (count == null || count != LINKS) throw new IllegalStateException(name + ": " + count + " linhas");
+        }
+        // Primeira rodada é aquecimento
+        long[] measured = Arrays.copyOfRange(millis, 1, millis.length);
+        Arrays.sort(measured);
+        long median = measured[measured.length / 2];
+        System.out.printf("%-22s %10d %12.0f%n", name, median, LINKS * 1000.0 / Math.max(1, median));
+    }
+
+    private static List<StarLinkedEvent> events() {
+        List<StarLinkedEvent> events = new ArrayList<>(LINKS);
+        for (int i = 0; i < LINKS; i++) {
+            events.add(new StarLinkedEvent(String.valueOf(1 + i % GALAXIES), String.valueOf(100_000 + i), 0.6 + (i % 40) / 100.0));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ai.organizer.events;
+
+public record CoverGeneratedEvent(
+    String fileHash,
+    String coverPath,
+    String thumbnailPath,
+    String cardPath
+) {}
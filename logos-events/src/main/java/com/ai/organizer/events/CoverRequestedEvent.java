@@ -0,0 +1,6 @@
+package com.ai.organizer.events;
+
+public record CoverRequestedEvent(
+    String fileHash,
+    String s3Key
+) {}
@@ -0,0 +1,196 @@
+package com.ai.organizer.events;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.message.SchemaStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificação binária dos eventos (Avro single-object encoding).
+ *
+ * Cada mensagem começa com o cabeçalho C3 01 + fingerprint de 8 bytes do schema de escrita.
+ * Os schemas ficam versionados em /avro/{Evento}.v{N}.avsc dentro deste módulo e todos são
+ * carregados num SchemaStore local, que faz o papel do schema registry: um consumidor com
+ * a versão N consegue ler mensagens escritas com qualquer versão anterior publicada aqui.
+ */
+public final class EventCodec {
+
+    private static final SchemaStore.Cache SCHEMA_STORE = new SchemaStore.Cache();
+    private static final Map<Class<?>, Binding> BINDINGS = new HashMap<>();
+
+    static {
+        for (Class<? extends Record> type : EventTopics.eventTypes()) {
+            BINDINGS.put(type, Binding.of(type));
+        }
+    }
+
+    private EventCodec() {}
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 10 && data[0] == (byte) 0xC3 && data[1] == (byte) 0x01;
+    }
+
+    public static boolean supports(Class<?> type) {
+        return BINDINGS.containsKey(type);
+    }
+
+    public static byte[] encode(Record event) {
+        Binding binding = binding(event.getClass());
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+            binding.encoder.encode(binding.toAvro(event), out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao codificar " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    public static <T extends Record> T decode(byte[] data, Class<T> type) {
+        Binding binding = binding(type);
+        try {
+            return type.cast(binding.fromAvro(binding.decoder.decode(data)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao decodificar " + type.getSimpleName(), e);
+        }
+    }
+
+    public static Schema schemaOf(Class<? extends Record> type) {
+        return binding(type).schema;
+    }
+
+    private static Binding binding(Class<?> type) {
+        Binding binding = BINDINGS.get(type);
+        if (binding == null) {
+            throw new IllegalArgumentException("Evento sem schema registrado: " + type.getName());
+        }
+        return binding;
+    }
+
+    private static final class Binding {
+
+        private final Schema schema;
+        private final BinaryMessageEncoder<GenericRecord> encoder;
+        private final BinaryMessageDecoder<GenericRecord> decoder;
+        private final RecordComponent[] components;
+        private final int[] positions;
+        private final MethodHandle[] accessors;
+        private final MethodHandle constructor;
+
+        private Binding(Schema schema, RecordComponent[] components, int[] positions,
+                        MethodHandle[] accessors, MethodHandle constructor) {
+            this.schema = schema;
+            this.encoder = new BinaryMessageEncoder<>(GenericData.get(), schema);
+            this.decoder = new BinaryMessageDecoder<>(GenericData.get(), schema, SCHEMA_STORE);
+            this.components = components;
+            this.positions = positions;
+            this.accessors = accessors;
+            this.constructor = constructor;
+        }
+
+        static Binding of(Class<? extends Record> type) {
+            List<Schema> versions = loadVersions(type);
+            versions.forEach(SCHEMA_STORE::addSchema);
+            Schema latest = versions.get(versions.size() - 1);
+
+            RecordComponent[] components = type.getRecordComponents();
+            int[] positions = new int[components.length];
+            MethodHandle[] accessors = new MethodHandle[components.length];
+            Class<?>[] paramTypes = new Class<?>[components.length];
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    Schema.Field field = latest.getField(components[i].getName());
+                    if (field == null) {
+                        throw new IllegalStateException("Schema " + latest.getFullName()
+                                + " não tem o campo " + components[i].getName());
+                    }
+                    positions[i] = field.pos();
+                    accessors[i] = lookup.unreflect(components[i].getAccessor())
+                            .asType(MethodType.methodType(Object.class, Record.class));
+                    paramTypes[i] = components[i].getType();
+                }
+                MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, paramTypes))
+                        .asType(MethodType.methodType(Object.class, paramTypes))
+                        .asSpreader(Object[].class, components.length);
+                return new Binding(latest, components, positions, accessors, constructor);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Record inválido para codec: " + type.getName(), e);
+            }
+        }
+
+        GenericRecord toAvro(Record event) {
+            GenericData.Record avro = new GenericData.Record(schema);
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    avro.put(positions[i], (Object) accessors[i].invokeExact(event));
+                }
+            } catch (Throwable e) {
+                throw new IllegalStateException("Falha ao ler " + event.getClass().getSimpleName(), e);
+            }
+            return avro;
+        }
+
+        Object fromAvro(GenericRecord avro) {
+            Object[] args = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                args[i] = toJava(avro.get(positions[i]), components[i].getType());
+            }
+            try {
+                return (Object) constructor.invokeExact(args);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Falha ao montar " + schema.getName(), e);
+            }
+        }
+
+        private static Object toJava(Object value, Class<?> target) {
+            if (value == null) {
+                if (target == long.class) return 0L;
+                if (target == int.class) return 0;
+                if (target == double.class) return 0.0;
+                if (target == boolean.class) return false;
+                return null;
+            }
+            if (target == String.class) return value.toString();
+            if (List.class.isAssignableFrom(target)) {
+                List<?> items = (List<?>) value;
+                List<Object> copy = new ArrayList<>(items.size());
+                for (Object item : items) copy.add(item instanceof CharSequence cs ? cs.toString() : item);
+                return copy;
+            }
+            return value;
+        }
+
+        private static List<Schema> loadVersions(Class<?> type) {
+            List<Schema> versions = new ArrayList<>();
+            for (int v = 1; ; v++) {
+                String path = "/avro/" + type.getSimpleName() + ".v" + v + ".avsc";
+                try (InputStream in = EventCodec.class.getResourceAsStream(path)) {
+                    if (in == null) break;
+                    versions.add(new Schema.Parser().parse(in));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao ler " + path, e);
+                }
+            }
+            if (versions.isEmpty()) {
+                throw new IllegalStateException("Nenhum schema Avro para " + type.getName());
+            }
+            return versions;
+        }
+    }
+}
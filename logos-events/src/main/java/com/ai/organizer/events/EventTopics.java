@@ -0,0 +1,51 @@
+package com.ai.organizer.events;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tópicos Kafka e o tipo de evento que cada um carrega. Tópicos derivados
+ * (ex: "star.linked-retry-5000", "star.linked-dlt") herdam o tipo do tópico base.
+ */
+public final class EventTopics {
+
+    public static final String DOCUMENT_INGESTION = "document.ingestion";
+    public static final String HIGHLIGHT_CREATED = "highlight.created";
+    public static final String STAR_LINKED = "star.linked";
+    public static final String SUMMARY_REQUESTED = "summary.requested";
+    public static final String SUMMARY_COMPLETED = "summary.completed";
+    public static final String RADAR_UPDATE_REQUESTED = "radar.update.requested";
+    public static final String RADAR_UPDATE_COMPLETED = "radar.update.completed";
+    public static final String COVER_REQUESTED = "document.cover.requested";
+    public static final String COVER_GENERATED = "document.cover.generated";
+    // Payload texto simples "TIPO:ID", sem schema
+    public static final String DATA_DELETED = "data.deleted";
+
+    private static final Map<String, Class<? extends Record>> TYPES = Map.of(
+            DOCUMENT_INGESTION, IngestionEvent.class,
+            HIGHLIGHT_CREATED, HighlightEvent.class,
+            STAR_LINKED, StarLinkedEvent.class,
+            SUMMARY_REQUESTED, SummaryRequestedEvent.class,
+            SUMMARY_COMPLETED, SummaryCompletedEvent.class,
+            RADAR_UPDATE_REQUESTED, RadarUpdateRequestedEvent.class,
+            RADAR_UPDATE_COMPLETED, RadarUpdateCompletedEvent.class,
+            COVER_REQUESTED, CoverRequestedEvent.class,
+            COVER_GENERATED, CoverGeneratedEvent.class
+    );
+
+    private EventTopics() {}
+
+    public static Optional<Class<? extends Record>> typeOf(String topic) {
+        Class<? extends Record> type = TYPES.get(topic);
+        if (type != null) return Optional.of(type);
+
+        for (Map.Entry<String, Class<? extends Record>> entry : TYPES.entrySet()) {
+            if (topic.startsWith(entry.getKey() + "-")) return Optional.of(entry.getValue());
+        }
+        return Optional.empty();
+    }
+
+    public static Iterable<Class<? extends Record>> eventTypes() {
+        return TYPES.values();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ai.organizer.events;
+
+public record HighlightEvent(
+    Long highlightId,
+    String fileHash,
+    String userId,
+    String content,
+    String type,
+    String positionJson  // v2: posição na página, para a visão materializada do library-service
+) {}
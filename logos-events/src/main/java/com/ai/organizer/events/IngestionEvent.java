@@ -1,11 +1,11 @@
-package com.ai.organizer.ingestion;
+package com.ai.organizer.events;
 
 public record IngestionEvent(
     String fileHash,     // ID único do conteúdo (SHA-256)
-    String s3Key,        // Caminho no MinIO
+    String s3Key,        // Caminho no storage
     String originalName, // Nome do arquivo
     String userId,       // Quem mandou
     long timestamp,
     long fileSize,
     String preferredLanguage
-) {}
\ No newline at end of file
+) {}
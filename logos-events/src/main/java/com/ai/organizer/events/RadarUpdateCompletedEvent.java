@@ -1,6 +1,6 @@
-package com.ai.organizer.library.event;
+package com.ai.organizer.events;
 
 public record RadarUpdateCompletedEvent(
     String userId,
     String radarJson
-) {}
\ No newline at end of file
+) {}
@@ -1,8 +1,8 @@
-package com.ai.organizer.library.event;
+package com.ai.organizer.events;
 
 import java.util.List;
 
 public record RadarUpdateRequestedEvent(
     String userId,
     List<String> snippets
-) {}
\ No newline at end of file
+) {}
@@ -1,7 +1,7 @@
-package com.ai.organizer.library.event;
+package com.ai.organizer.events;
 
 public record StarLinkedEvent(
     String galaxyId,
     String starId,
     Double score
-) {}
\ No newline at end of file
+) {}
@@ -1,7 +1,7 @@
-package com.ai.organizer.processor; 
+package com.ai.organizer.events;
 
 public record SummaryCompletedEvent(
     Long summaryId,
     String generatedText,
-    String status 
-) {}
\ No newline at end of file
+    String status
+) {}
@@ -0,0 +1,12 @@
+package com.ai.organizer.events;
+
+public record SummaryRequestedEvent(
+    Long summaryId,
+    String fileHash,
+    String userId,
+    String sourceType,
+    String textContent,
+    Integer startPage,
+    Integer endPage,
+    String preferredLanguage
+) {}
@@ -0,0 +1,125 @@
+package com.ai.organizer.events.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reenvia registros de um DLT para o tópico de origem, byte a byte (payload e chave
+ * intactos). Os headers de DLT/retry são removidos para o registro recomeçar do zero.
+ *
+ * O progresso fica no consumer group "logos-dlt-replay": cada chamada continua de onde
+ * a anterior parou, e os offsets só são commitados depois do flush do producer.
+ *
+ * CLI: java -cp app.jar -Dloader.main=com.ai.organizer.events.kafka.DltReplayer
+ *        org.springframework.boot.loader.launch.PropertiesLauncher client.properties star.linked-dlt [max]
+ */
+public final class DltReplayer {
+
+    public static final String GROUP_ID = "logos-dlt-replay";
+
+    private static final String ORIGINAL_TOPIC_HEADER = "kafka_dlt-original-topic";
+    private static final List<String> DROPPED_HEADER_PREFIXES = List.of("kafka_dlt-", "retry_topic-", "springDeserializerException");
+
+    private DltReplayer() {}
+
+    public static int replay(Map<String, Object> clientConfig, String dltTopic, int maxRecords) {
+        if (!dltTopic.endsWith(RetryPolicy.DLT_SUFFIX)) {
+            throw new IllegalArgumentException("Não é um tópico DLT: " + dltTopic);
+        }
+
+        Map<String, Object> consumerConfig = new HashMap<>(clientConfig);
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+        consumerConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerConfig.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(maxRecords, 500));
+        consumerConfig.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumerConfig.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        Map<String, Object> producerConfig = new HashMap<>(clientConfig);
+        producerConfig.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerConfig.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        int replayed = 0;
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerConfig);
+             KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(producerConfig)) {
+
+            consumer.subscribe(List.of(dltTopic));
+            int emptyPolls = 0;
+
+            while (replayed < maxRecords && emptyPolls < 3) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofSeconds(2));
+                if (records.isEmpty()) {
+                    emptyPolls++;
+                    continue;
+                }
+                emptyPolls = 0;
+
+                Map<TopicPartition, OffsetAndMetadata> processed = new HashMap<>();
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (replayed >= maxRecords) break;
+                    producer.send(new ProducerRecord<>(originalTopic(record), null, record.key(), record.value(), cleanHeaders(record)));
+                    processed.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+
+                producer.flush();
+                consumer.commitSync(processed);
+            }
+        }
+        return replayed;
+    }
+
+    private static String originalTopic(ConsumerRecord<byte[], byte[]> record) {
+        Header header = record.headers().lastHeader(ORIGINAL_TOPIC_HEADER);
+        if (header != null) return new String(header.value(), StandardCharsets.UTF_8);
+        return record.topic().substring(0, record.topic().length() - RetryPolicy.DLT_SUFFIX.length());
+    }
+
+    private static RecordHeaders cleanHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (DROPPED_HEADER_PREFIXES.stream().noneMatch(header.key()::startsWith)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: DltReplayer <client.properties> <topico-dlt> [max]");
+            System.exit(2);
+        }
+
+        Properties props = new Properties();
+        try (FileInputStream in = new FileInputStream(args[0])) {
+            props.load(in);
+        }
+        Map<String, Object> config = new HashMap<>();
+        props.forEach((k, v) -> config.put(k.toString(), v));
+
+        int max = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+        int replayed = replay(config, args[1], max);
+        System.out.println("Reenviados " + replayed + " registros de " + args[1]);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ai.organizer.events.kafka;
+
+import com.ai.organizer.events.EventCodec;
+import com.ai.organizer.events.EventTopics;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Deserializer de valor dos consumidores. O tipo vem do tópico (EventTopics).
+ *
+ * Aceita Avro binário e, durante a migração, o JSON antigo: inclusive o JSON duplamente
+ * codificado que o JsonSerializer gerava sobre strings e o JSON puro do serviço Go.
+ * Tópicos sem tipo registrado entregam o texto cru.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) return null;
+
+        Optional<Class<? extends Record>> type = EventTopics.typeOf(topic);
+        if (type.isEmpty()) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+
+        try {
+            if (EventCodec.isBinary(data)) {
+                return EventCodec.decode(data, type.get());
+            }
+            return fromLegacyJson(data, type.get());
+        } catch (Exception e) {
+            throw new SerializationException("Payload inválido no tópico " + topic, e);
+        }
+    }
+
+    private static Object fromLegacyJson(byte[] data, Class<? extends Record> type) throws Exception {
+        JsonNode node = JSON.readTree(data);
+        if (node.isTextual()) {
+            node = JSON.readTree(node.asText());
+        }
+        return JSON.treeToValue(node, type);
+    }
+}
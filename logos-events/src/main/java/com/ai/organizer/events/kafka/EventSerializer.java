@@ -0,0 +1,25 @@
+package com.ai.organizer.events.kafka;
+
+import com.ai.organizer.events.EventCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializer de valor dos produtores. Records de evento viram Avro binário com
+ * fingerprint do schema; String e byte[] passam direto (ex: "data.deleted").
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) return null;
+        if (data instanceof byte[] bytes) return bytes;
+        if (data instanceof String text) return text.getBytes(StandardCharsets.UTF_8);
+        if (data instanceof Record event && EventCodec.supports(event.getClass())) {
+            return EventCodec.encode(event);
+        }
+        throw new SerializationException("Tipo sem codec para o tópico " + topic + ": " + data.getClass().getName());
+    }
+}
@@ -0,0 +1,23 @@
+package com.ai.organizer.events.kafka;
+
+/**
+ * Política de retry comum a todos os consumidores: 5s, 1m e 10m em tópicos de atraso
+ * ("{tópico}-retry-{ms}") e depois o DLT ("{tópico}-dlt") com o payload original.
+ */
+public final class RetryPolicy {
+
+    public static final long INITIAL_DELAY_MS = 5_000;
+    public static final double MULTIPLIER = 12;
+    public static final long MAX_DELAY_MS = 600_000;
+
+    // Primeira tentativa + 3 retries (5s, 60s, 600s)
+    public static final int MAX_ATTEMPTS = 4;
+
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private RetryPolicy() {}
+
+    public static String dltTopic(String topic) {
+        return topic + DLT_SUFFIX;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ai.organizer.events;
+
+import com.ai.organizer.events.kafka.EventDeserializer;
+import com.ai.organizer.events.kafka.EventSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Compara o formato antigo (JSON duplamente codificado pelo JsonSerializer) com o Avro
+ * binário: bytes por evento, bytes por evento num lote de 500 com LZ4 e ns por parse.
+ *
+ * Rodar: mvn -q test-compile exec:java -Dexec.mainClass=com.ai.organizer.events.EventCodecBenchmark -Dexec.classpathScope=test
+ */
+public class EventCodecBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 500_000;
+    private static final int BATCH = 500;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String[] SENTENCES = {
+            "A consciência de si é o ponto de partida de toda a filosofia moderna. ",
+            "A dúvida metódica é o instrumento pelo qual o sujeito se funda. ",
+            "Nada está no intelecto que não tenha passado antes pelos sentidos. ",
+            "O tempo é a forma do sentido interno, a intuição de nós mesmos. ",
+            "Toda determinação é negação, e o finito só se entende pelo infinito. ",
+            "A linguagem é a casa do ser, e nela habita o homem. "
+    };
+
+    public static void main(String[] args) throws Exception {
+        Map<String, IntFunction<Record>> generators = new LinkedHashMap<>();
+        generators.put(EventTopics.DOCUMENT_INGESTION, i -> new IngestionEvent(
+                hash(i), "uploads/" + hash(i).substring(0, 32) + ".pdf", "Livro " + i + ".pdf",
+                "user-" + (i % 97), 1718000000000L + i * 1000L, 1_000_000L + i * 7919L, "pt-BR"));
+        generators.put(EventTopics.HIGHLIGHT_CREATED, i -> new HighlightEvent(
+                184_000L + i, hash(i % 40), "user-" + (i % 97), text(i, 4), "TEXT", null));
+        generators.put(EventTopics.STAR_LINKED, i -> new StarLinkedEvent(
+                String.valueOf(i % 50), String.valueOf(184_000 + i), 0.35 + (i % 650) / 1000.0));
+        generators.put(EventTopics.RADAR_UPDATE_REQUESTED, i -> new RadarUpdateRequestedEvent(
+                "user-" + (i % 97), List.of(text(i, 3), text(i + 1, 3), text(i + 2, 3), text(i + 3, 3))));
+        generators.put(EventTopics.SUMMARY_COMPLETED, i -> new SummaryCompletedEvent(
+                9_000L + i, text(i, 24), "COMPLETED"));
+
+        EventSerializer serializer = new EventSerializer();
+        EventDeserializer deserializer = new EventDeserializer();
+        LZ4Compressor lz4 = LZ4Factory.fastestInstance().fastCompressor();
+
+        System.out.printf("%-24s %8s %8s %12s %12s %9s %9s%n",
+                "topic", "json B", "avro B", "json lz4 B", "avro lz4 B", "json ns", "avro ns");
+
+        for (Map.Entry<String, IntFunction<Record>> entry : generators.entrySet()) {
+            String topic = entry.getKey();
+            Record event = entry.getValue().apply(0);
+
+            byte[] legacy = legacyBytes(event);
+            byte[] binary = serializer.serialize(topic, event);
+
+            ByteArrayOutputStream legacyBatch = new ByteArrayOutputStream();
+            ByteArrayOutputStream binaryBatch = new ByteArrayOutputStream();
+            for (int i = 0; i < BATCH; i++) {
+                Record variant = entry.getValue().apply(i);
+                legacyBatch.writeBytes(legacyBytes(variant));
+                binaryBatch.writeBytes(serializer.serialize(topic, variant));
+            }
+
+            Class<? extends Record> type = event.getClass();
+            long legacyNs = time(() -> parseLegacy(legacy, type));
+            long binaryNs = time(() -> deserializer.deserialize(topic, binary));
+
+            System.out.printf("%-24s %8d %8d %12.1f %12.1f %9d %9d%n",
+                    topic, legacy.length, binary.length,
+                    (double) lz4.compress(legacyBatch.toByteArray()).length / BATCH,
+                    (double) lz4.compress(binaryBatch.toByteArray()).length / BATCH,
+                    legacyNs, binaryNs);
+        }
+    }
+
+    private static byte[] legacyBytes(Record event) {
+        try {
+            return JSON.writeValueAsBytes(JSON.writeValueAsString(event));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(int seed) {
+        StringBuilder sb = new StringBuilder(64);
+        Random random = new Random(seed);
+        while (sb.length() < 64) sb.append(Integer.toHexString(random.nextInt(16)));
+        return sb.toString();
+    }
+
+    private static String text(int seed, int sentences) {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(seed);
+        for (int i = 0; i < sentences; i++) sb.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        return sb.toString();
+    }
+
+    private static Object parseLegacy(byte[] data, Class<? extends Record> type) {
+        try {
+            JsonNode node = JSON.readTree(data);
+            if (node.isTextual()) node = JSON.readTree(node.asText());
+            return JSON.treeToValue(node, type);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long time(Runnable parse) {
+        for (int i = 0; i < WARMUP; i++) parse.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) parse.run();
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
@@ -283,6 +283,16 @@ export const useGalaxyStore = create<GalaxyState>((set, get) => ({
 
         notes = recalculatePhysics(notes, clusters);
 
+        // Posição calculada no servidor (layout do library-service) prevalece sobre a física local
+        const serverPositions = new Map<string, { x: number, y: number }>(
+            stars.filter((star: any) => star.x != null && star.y != null)
+                 .map((star: any) => [String(star.id), { x: star.x, y: star.y }])
+        );
+        notes = notes.map(note => {
+            const pos = serverPositions.get(note.id);
+            return pos ? { ...note, x: pos.x, y: pos.y } : note;
+        });
+
         set({ allNotes: notes, clusters, activeClusterIds: [...clusters.map(c => c.id), "chaos"], isLoading: false })
     } catch (error) {
         console.error(error)
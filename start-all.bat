@@ -60,6 +60,10 @@ echo    Docker: DISABLED (Fully Serverless Architecture)
 echo ===================================================================
 echo.
 
+:: 0. EVENTOS COMPARTILHADOS (dependência dos serviços Java)
+echo [0/5] Instalando modulo logos-events...
+call mvn -q -f "%PROJECT_ROOT%logos-events\pom.xml" install -DskipTests
+
 :: 1. LIBRARY SERVICE
 echo [1/5] Iniciando Library Service...
 start "CORE - LIBRARY" cmd /k "color 0A && cd library-service && title [LIBRARY] OTel On && set JAVA_TOOL_OPTIONS=%OHEL_ARGS% -Dotel.service.name=library-service && mvn spring-boot:run"